@@ -9,18 +9,56 @@ DROP TABLE IF EXISTS todos;
 
 CREATE TABLE todos (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    tenant_id VARCHAR(64) NOT NULL DEFAULT 'default' COMMENT '所属租户ID',
     title VARCHAR(255) NOT NULL COMMENT '待办事项标题',
     description TEXT COMMENT '待办事项描述',
     completed BOOLEAN NOT NULL DEFAULT FALSE COMMENT '完成状态',
     priority INT DEFAULT 0 COMMENT '优先级（0-低, 1-中, 2-高）',
     due_date DATETIME COMMENT '截止日期',
+    completed_at DATETIME COMMENT '完成时间',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    INDEX idx_completed (completed),
-    INDEX idx_created_at (created_at),
-    INDEX idx_priority (priority)
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
+    -- 所有查询都带租户条件，索引均以 tenant_id 开头
+    INDEX idx_tenant_id (tenant_id, id),
+    -- 键集分页：ORDER BY created_at DESC, id DESC 及按完成状态过滤的游标查询
+    INDEX idx_tenant_created_at_id (tenant_id, created_at, id),
+    INDEX idx_tenant_completed_created_at_id (tenant_id, completed, created_at, id),
+    INDEX idx_tenant_priority (tenant_id, priority),
+    -- 到期提醒启动时按截止日期范围读取
+    INDEX idx_tenant_due_date (tenant_id, due_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='待办事项表';
 
+-- 创建变更事件发件箱表，与 todos 的变更在同一事务中写入，投递后删除
+DROP TABLE IF EXISTS todo_outbox;
+
+CREATE TABLE todo_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID，即投递顺序',
+    tenant_id VARCHAR(64) NOT NULL COMMENT '所属租户ID',
+    aggregate_id BIGINT COMMENT '待办事项ID，批量变更时为空',
+    event_type VARCHAR(32) NOT NULL COMMENT '事件类型',
+    payload TEXT NOT NULL COMMENT '事件数据（JSON）',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '投递失败次数',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='变更事件发件箱';
+
+-- 创建发件箱投递租约表，每个分片只有持有租约的实例投递
+DROP TABLE IF EXISTS todo_outbox_lease;
+
+CREATE TABLE todo_outbox_lease (
+    name VARCHAR(32) NOT NULL PRIMARY KEY COMMENT '租约名称',
+    owner VARCHAR(64) NOT NULL COMMENT '持有租约的进程标识',
+    expires_at DATETIME NOT NULL COMMENT '到期时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='发件箱投递租约';
+
+-- 创建列表版本号表，每个修改待办事项的事务在同一事务中递增该租户的版本号，用于生成列表的 ETag
+DROP TABLE IF EXISTS todo_list_versions;
+
+CREATE TABLE todo_list_versions (
+    tenant_id VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '租户ID',
+    version BIGINT NOT NULL COMMENT '版本号，起始值随机'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='列表版本号';
+
 -- 插入测试数据
 INSERT INTO todos (title, description, completed, priority, due_date) VALUES
 ('学习React', '完成React基础教程', FALSE, 1, NULL),
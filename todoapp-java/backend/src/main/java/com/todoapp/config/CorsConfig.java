@@ -28,7 +28,7 @@ public class CorsConfig {
         config.setAllowCredentials(true);
         
         // 暴露的响应头
-        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "ETag"));
         
         // 预检请求的缓存时间（秒）
         config.setMaxAge(3600L);
@@ -0,0 +1,129 @@
+package com.todoapp.config;
+
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenancyProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据源路由配置，配置了只读副本（todoapp.datasource.replicas）或租户分片（todoapp.tenancy.shards）时生效
+ * 先按租户选分片，默认分片（spring.datasource）上再按事务是否只读选主库或副本；
+ * 副本和分片的连接池复制主库的连接池参数，只替换连接信息
+ */
+@Configuration
+@Conditional(DataSourceRoutingConfig.RoutingConfigured.class)
+@EnableConfigurationProperties({ReadReplicaProperties.class, TenancyProperties.class})
+public class DataSourceRoutingConfig {
+
+    /**
+     * 本配置创建的副本和分片连接池，关闭时释放；主库连接池由其自身的 Bean 负责
+     */
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public DataSource routingDataSource(HikariDataSource primaryDataSource,
+                                        ReadReplicaProperties replicaProperties,
+                                        TenancyProperties tenancyProperties,
+                                        ShardRouter shardRouter,
+                                        MeterRegistry meterRegistry) {
+        DataSource defaultShard = primaryDataSource;
+        if (!replicaProperties.getReplicas().isEmpty()) {
+            List<DataSource> replicas = new ArrayList<>();
+            for (ReadReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+                replicas.add(pool(primaryDataSource, "replica-" + (replicas.size() + 1), replica.getUrl(),
+                        replica.getUsername(), replica.getPassword(), replica.getDriverClassName(), meterRegistry));
+            }
+            defaultShard = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                    replicaProperties.getPrimaryAfterWriteMs());
+        }
+        if (tenancyProperties.getShards().isEmpty()) {
+            return defaultShard;
+        }
+
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(ShardRouter.DEFAULT_SHARD, defaultShard);
+        for (TenancyProperties.Shard shard : tenancyProperties.getShards()) {
+            shards.put(shard.getName(), pool(primaryDataSource, shard.getName(), shard.getUrl(),
+                    shard.getUsername(), shard.getPassword(), shard.getDriverClassName(), meterRegistry));
+        }
+        return new TenantRoutingDataSource(shardRouter, shards);
+    }
+
+    /**
+     * 应用使用的数据源：连接推迟到第一条语句时才从路由数据源获取
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(HikariDataSource primary, String poolName, String url, String username,
+                                  String password, String driverClassName, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        if (username != null) {
+            config.setUsername(username);
+        }
+        if (password != null) {
+            config.setPassword(password);
+        }
+        if (driverClassName != null) {
+            config.setDriverClassName(driverClassName);
+        }
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        HikariDataSource pool = new HikariDataSource(config);
+        pools.add(pool);
+        return pool;
+    }
+
+    static class RoutingConfigured extends AnyNestedCondition {
+
+        RoutingConfigured() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnProperty(prefix = "todoapp.datasource.replicas[0]", name = "url")
+        static class ReplicasConfigured {
+        }
+
+        @ConditionalOnProperty(prefix = "todoapp.tenancy.shards[0]", name = "url")
+        static class ShardsConfigured {
+        }
+    }
+}
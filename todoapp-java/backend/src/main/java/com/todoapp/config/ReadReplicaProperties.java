@@ -0,0 +1,82 @@
+package com.todoapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本配置（todoapp.datasource）
+ */
+@ConfigurationProperties(prefix = "todoapp.datasource")
+public class ReadReplicaProperties {
+
+    /**
+     * 只读副本列表，为空时全部访问走 spring.datasource 主库
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 本实例写事务提交后，只读事务继续走主库的时长（毫秒），应大于副本的复制延迟；0 表示不保证读到自己的写入
+     */
+    private long primaryAfterWriteMs = 1000;
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getPrimaryAfterWriteMs() {
+        return primaryAfterWriteMs;
+    }
+
+    public void setPrimaryAfterWriteMs(long primaryAfterWriteMs) {
+        this.primaryAfterWriteMs = primaryAfterWriteMs;
+    }
+
+    /**
+     * 单个副本的连接信息，未设置的用户名、密码和驱动沿用主库配置，连接池参数与主库相同
+     */
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+    }
+}
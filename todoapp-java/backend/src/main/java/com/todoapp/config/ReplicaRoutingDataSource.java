@@ -0,0 +1,84 @@
+package com.todoapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 读写分离的路由数据源
+ * 只读事务轮询分发到只读副本，其余（读写事务以及不在事务中的访问）走主库；
+ * 本实例的写事务提交后的一段时间内，只读事务也走主库，保证读到刚提交的写入（时长应大于副本的复制延迟）
+ * 需要包在 LazyConnectionDataSourceProxy 中使用，使选库推迟到第一条语句执行时、事务的只读标记已经设置之后
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final long primaryAfterWriteNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * 本实例最近一次写事务提交的时间
+     */
+    private final AtomicLong lastWriteCommittedAt = new AtomicLong(NEVER);
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long primaryAfterWriteMs) {
+        this(primary, replicas, primaryAfterWriteMs, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long primaryAfterWriteMs,
+                             LongSupplier nanoClock) {
+        this.primaryAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(primaryAfterWriteMs);
+        this.nanoClock = nanoClock;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteCommittedAt.set(nanoClock.getAsLong());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || withinPrimaryAfterWrite()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private boolean withinPrimaryAfterWrite() {
+        long committedAt = lastWriteCommittedAt.get();
+        return committedAt != NEVER && nanoClock.getAsLong() - committedAt < primaryAfterWriteNanos;
+    }
+}
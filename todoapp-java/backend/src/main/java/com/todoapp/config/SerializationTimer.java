@@ -0,0 +1,39 @@
+package com.todoapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+
+/**
+ * 响应体序列化计时（todoapp.http.serialization），各格式的消息转换器共用，以 format 标签区分
+ * 耗时包含写入响应输出流的时间，与 http.server.requests 对比可区分查询和序列化的开销
+ */
+final class SerializationTimer {
+
+    /**
+     * 一次响应体写出
+     */
+    @FunctionalInterface
+    interface Write {
+        void run() throws IOException;
+    }
+
+    private final Timer timer;
+
+    SerializationTimer(MeterRegistry meterRegistry, String format) {
+        this.timer = Timer.builder("todoapp.http.serialization")
+                .description("Time spent writing response bodies")
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+
+    void record(Write write) throws IOException {
+        Timer.Sample sample = Timer.start();
+        try {
+            write.run();
+        } finally {
+            sample.stop(timer);
+        }
+    }
+}
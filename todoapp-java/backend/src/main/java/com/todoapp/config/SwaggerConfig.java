@@ -1,10 +1,13 @@
 package com.todoapp.config;
 
+import com.todoapp.dto.TodoResponse;
+import com.todoapp.dto.TodoRows;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,6 +15,11 @@ import java.util.List;
 
 @Configuration
 public class SwaggerConfig {
+
+    static {
+        // TodoRows 按列存放，序列化后与 TodoResponse 数组相同
+        SpringDocUtils.getConfig().replaceWithClass(TodoRows.class, TodoResponse[].class);
+    }
     
     @Bean
     public OpenAPI customOpenAPI() {
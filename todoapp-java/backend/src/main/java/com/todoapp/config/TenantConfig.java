@@ -0,0 +1,27 @@
+package com.todoapp.config;
+
+import com.todoapp.controller.TenantInterceptor;
+import com.todoapp.tenant.TenancyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 多租户配置：接口请求按 X-Tenant-ID 绑定租户，SSE 订阅另外接受 tenant_id 查询参数
+ */
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenantConfig implements WebMvcConfigurer {
+
+    /**
+     * 由浏览器 EventSource 发起、无法携带请求头的路径
+     */
+    private static final String STREAM_PATH = "/api/v1/todos/stream";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TenantInterceptor()).addPathPatterns("/api/**").excludePathPatterns(STREAM_PATH);
+        registry.addInterceptor(new TenantInterceptor(true)).addPathPatterns(STREAM_PATH);
+    }
+}
@@ -0,0 +1,29 @@
+package com.todoapp.config;
+
+import com.todoapp.tenant.ShardRouter;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按租户分片的路由数据源，目标为当前租户所在分片的数据源
+ * 与读写分离相同，需要包在 LazyConnectionDataSourceProxy 中，使选库推迟到第一条语句执行时
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardRouter shardRouter;
+
+    public TenantRoutingDataSource(ShardRouter shardRouter, Map<String, DataSource> shards) {
+        this.shardRouter = shardRouter;
+        setTargetDataSources(new HashMap<>(shards));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shardRouter.currentShard();
+    }
+}
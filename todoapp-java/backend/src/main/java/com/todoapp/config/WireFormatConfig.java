@@ -0,0 +1,31 @@
+package com.todoapp.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 响应格式配置
+ * 客户端通过 Accept 选择 JSON（默认）、CBOR（application/cbor）或 Smile（application/x-jackson-smile），
+ * 二进制格式使用与 JSON 相同的 Jackson 配置，字段名和日期格式一致；替换 Spring MVC 按默认配置创建的同类转换器
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                            MeterRegistry meterRegistry) {
+        return new TimedCborHttpMessageConverter(builder.factory(new CBORFactory()).build(), meterRegistry);
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                              MeterRegistry meterRegistry) {
+        return new TimedSmileHttpMessageConverter(builder.factory(new SmileFactory()).build(), meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.todoapp.controller;
+
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.tenant.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * 按请求头 X-Tenant-ID 绑定当前租户，未携带时使用默认租户
+ * 浏览器的 EventSource 不能设置请求头，允许查询参数的路径（SSE 订阅）在没有请求头时改用 tenant_id 参数；
+ * 租户ID不做鉴权，应由前置的网关在认证后设置请求头（请求头优先于查询参数）
+ */
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+
+    /**
+     * 无法设置请求头的客户端携带租户ID的查询参数
+     */
+    public static final String QUERY_PARAMETER = "tenant_id";
+
+    private final boolean allowQueryParameter;
+
+    public TenantInterceptor() {
+        this(false);
+    }
+
+    public TenantInterceptor(boolean allowQueryParameter) {
+        this.allowQueryParameter = allowQueryParameter;
+    }
+
+    /**
+     * 租户ID不合法时返回 400；SSE 订阅只接受 text/event-stream，无法写出 JSON 错误体，直接返回状态码
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String source = TenantContext.HEADER + " header";
+        String tenant = request.getHeader(TenantContext.HEADER);
+        if ((tenant == null || tenant.isBlank()) && allowQueryParameter) {
+            source = QUERY_PARAMETER + " parameter";
+            tenant = request.getParameter(QUERY_PARAMETER);
+        }
+        if (tenant == null || tenant.isBlank()) {
+            TenantContext.set(TenantContext.DEFAULT_TENANT);
+        } else if (TenantContext.isValid(tenant.trim())) {
+            TenantContext.set(tenant.trim());
+        } else if (allowQueryParameter) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + source + ": " + tenant);
+            return false;
+        } else {
+            throw new BadRequestException("Invalid " + source + ": " + tenant);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        TenantContext.clear();
+    }
+
+    /**
+     * 异步请求（SSE）释放请求线程时同样解除绑定
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        TenantContext.clear();
+    }
+}
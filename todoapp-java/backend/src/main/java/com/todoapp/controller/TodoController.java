@@ -1,15 +1,27 @@
 package com.todoapp.controller;
 
 import com.todoapp.dto.*;
+import com.todoapp.service.DataFormat;
+import com.todoapp.service.PurgeScope;
 import com.todoapp.service.TodoService;
+import com.todoapp.service.TotalMode;
+import com.todoapp.tenant.TenantContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,6 +29,11 @@ import java.util.List;
 @Tag(name = "Todo API", description = "待办事项管理接口")
 public class TodoController {
 
+    /**
+     * 允许缓存但每次使用前须带 If-None-Match 重新验证
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final TodoService todoService;
 
     public TodoController(TodoService todoService) {
@@ -24,15 +41,86 @@ public class TodoController {
     }
 
     @GetMapping
-    @Operation(summary = "获取所有待办事项", description = "支持过滤和分页")
-    public ResponseEntity<ApiResponse<List<TodoResponse>>> getAllTodos(
+    @Operation(summary = "获取所有待办事项", description = "支持过滤和分页，传入 cursor 时使用键集分页")
+    public ResponseEntity<ApiResponse<TodoRows>> getAllTodos(
             @Parameter(description = "过滤完成状态") @RequestParam(required = false) Boolean completed,
             @Parameter(description = "限制返回数量") @RequestParam(defaultValue = "100") Integer limit,
-            @Parameter(description = "偏移量") @RequestParam(defaultValue = "0") Integer offset
+            @Parameter(description = "偏移量") @RequestParam(defaultValue = "0") Integer offset,
+            @Parameter(description = "分页游标，首页传空值，后续传上一页的 next_cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "总数计算方式：exact（精确）、approx（近似）、none（不返回）") @RequestParam(defaultValue = "exact") String total,
+            WebRequest request
+    ) {
+        TotalMode totalMode = TotalMode.parse(total);
+        // 列表未变化时直接返回 304，只读取版本号，不查询列表
+        return todoService.withCollectionEtag(tag -> {
+            String etag = weakEtag(tag);
+            if (request.checkNotModified(etag)) {
+                return notModified(etag);
+            }
+            if (cursor != null) {
+                TodoRowsPage page = todoService.listTodosByCursor(completed, limit, cursor);
+                return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).varyBy(HttpHeaders.ACCEPT, TenantContext.HEADER)
+                        .body(ApiResponse.success(page.getRows(), countTodos(completed, totalMode), page.getNextCursor()));
+            }
+            TodoRows todos = todoService.listTodos(completed, limit, offset);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).varyBy(HttpHeaders.ACCEPT, TenantContext.HEADER)
+                    .body(ApiResponse.success(todos, countTodos(completed, totalMode)));
+        });
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "搜索待办事项", description = "在标题和描述中全文搜索，按相关度排序")
+    public ResponseEntity<ApiResponse<List<TodoResponse>>> searchTodos(
+            @Parameter(description = "搜索关键词") @RequestParam String q,
+            @Parameter(description = "过滤完成状态") @RequestParam(required = false) Boolean completed,
+            @Parameter(description = "限制返回数量") @RequestParam(defaultValue = "20") Integer limit
     ) {
-        List<TodoResponse> todos = todoService.getAllTodos(completed, limit, offset);
-        long total = todoService.getTotalCount(completed);
-        return ResponseEntity.ok(ApiResponse.success(todos, total));
+        SearchPage<TodoResponse> page = todoService.searchTodos(q, completed, limit);
+        return ResponseEntity.ok(ApiResponse.success(page.getItems(), page.getTotal()));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "待办事项统计", description = "按完成状态和优先级的数量、逾期数量、完成率以及按天的创建与完成数量")
+    public ResponseEntity<ApiResponse<TodoStatsResponse>> getStats() {
+        return ResponseEntity.ok(ApiResponse.successWithMessage("success", todoService.getStats()));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "导出待办事项", description = "按ID升序流式导出全部待办事项，format 为 ndjson 或 csv")
+    public void exportTodos(
+            @Parameter(description = "过滤完成状态") @RequestParam(required = false) Boolean completed,
+            @Parameter(description = "导出格式：ndjson、csv") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        DataFormat exportFormat = DataFormat.parse(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"todos." + exportFormat.getFileExtension() + "\"");
+        todoService.exportTodos(completed, exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "订阅变更事件", description = "SSE 推送 created、updated、toggled、deleted、reset 事件，重连时带 Last-Event-ID 续传；" +
+            "EventSource 无法设置 X-Tenant-ID 请求头时可用 tenant_id 查询参数指定租户")
+    public SseEmitter streamTodoChanges(
+            @Parameter(description = "上次收到的事件ID") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return todoService.subscribeToChanges(lastEventId);
+    }
+
+    @GetMapping("/{todo_id}")
+    @Operation(summary = "获取待办事项", description = "获取指定ID的待办事项")
+    public ResponseEntity<ApiResponse<TodoResponse>> getTodoById(
+            @Parameter(description = "待办事项ID") @PathVariable("todo_id") Long todoId,
+            WebRequest request
+    ) {
+        TodoResponse todo = todoService.getTodoById(todoId);
+        String etag = weakEtag(TodoService.etagOf(todo));
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).varyBy(HttpHeaders.ACCEPT, TenantContext.HEADER)
+                .body(ApiResponse.successWithMessage("success", todo));
     }
 
     @PostMapping
@@ -45,14 +133,44 @@ public class TodoController {
                 .body(ApiResponse.created("Todo created successfully", todo));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "批量创建待办事项", description = "逐条校验并批量写入，返回每一条的处理结果")
+    public ResponseEntity<ApiResponse<BatchCreateResponse>> createTodos(
+            @RequestBody List<TodoDTO> todoDTOs
+    ) {
+        BatchCreateResponse result = todoService.createTodos(todoDTOs);
+        if (result.getCreatedCount() == 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(400, "Validation failed", result));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("Todos created successfully", result));
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "导入待办事项", description = "流式解析 NDJSON 或 CSV 请求体并分批写入，返回接受和拒绝的行数")
+    public ResponseEntity<ApiResponse<ImportResponse>> importTodos(
+            @Parameter(description = "导入格式：ndjson、csv") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request
+    ) throws IOException {
+        ImportResponse result = todoService.importTodos(request.getInputStream(), DataFormat.parse(format));
+        if (result.getAcceptedCount() == 0 && (result.getRejectedCount() > 0 || result.getError() != null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(400, "Import failed", result));
+        }
+        return ResponseEntity.ok(ApiResponse.successWithMessage("Import finished", result));
+    }
+
     @PutMapping("/{todo_id}")
-    @Operation(summary = "更新待办事项", description = "更新指定ID的待办事项")
+    @Operation(summary = "更新待办事项", description = "更新指定ID的待办事项，带 If-Match 时版本不一致返回409")
     public ResponseEntity<ApiResponse<TodoResponse>> updateTodo(
             @Parameter(description = "待办事项ID") @PathVariable("todo_id") Long todoId,
+            @Parameter(description = "期望的版本（ETag 或版本号）") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody TodoUpdateDTO updateDTO
     ) {
-        TodoResponse todo = todoService.updateTodo(todoId, updateDTO);
-        return ResponseEntity.ok(ApiResponse.successWithMessage("Todo updated successfully", todo));
+        TodoResponse todo = todoService.updateTodo(todoId, updateDTO, TodoService.expectedVersion(todoId, ifMatch));
+        return ResponseEntity.ok().eTag(weakEtag(TodoService.etagOf(todo)))
+                .body(ApiResponse.successWithMessage("Todo updated successfully", todo));
     }
 
     @DeleteMapping("/{todo_id}")
@@ -65,12 +183,17 @@ public class TodoController {
     }
 
     @PatchMapping("/{todo_id}/toggle")
-    @Operation(summary = "切换完成状态", description = "切换待办事项的完成状态")
+    @Operation(summary = "切换完成状态", description = "切换待办事项的完成状态，带 If-Match 时版本不一致返回409")
     public ResponseEntity<ApiResponse<TodoToggleResponse>> toggleTodoStatus(
-            @Parameter(description = "待办事项ID") @PathVariable("todo_id") Long todoId
+            @Parameter(description = "待办事项ID") @PathVariable("todo_id") Long todoId,
+            @Parameter(description = "期望的版本（ETag 或版本号）") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        TodoToggleResponse response = todoService.toggleTodoStatus(todoId);
-        return ResponseEntity.ok(ApiResponse.successWithMessage("Todo status toggled successfully", response));
+        TodoToggleResponse response = todoService.toggleTodoStatus(todoId, TodoService.expectedVersion(todoId, ifMatch));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (response.getVersion() != null) {
+            builder.eTag(weakEtag(TodoService.etagOf(todoId, response.getVersion())));
+        }
+        return builder.body(ApiResponse.successWithMessage("Todo status toggled successfully", response));
     }
 
     @DeleteMapping("/completed")
@@ -86,4 +209,43 @@ public class TodoController {
         int count = todoService.deleteAllTodos();
         return ResponseEntity.ok(new DeleteResponse(200, "All todos deleted successfully", count));
     }
+
+    @PostMapping("/purge-jobs")
+    @Operation(summary = "提交后台清理任务", description = "按主键范围分块删除，scope 为 completed 或 all")
+    public ResponseEntity<ApiResponse<PurgeJobResponse>> startPurgeJob(
+            @Parameter(description = "清理范围：completed、all") @RequestParam String scope
+    ) {
+        PurgeJobResponse job = todoService.startPurgeJob(PurgeScope.parse(scope));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(202, "Purge job accepted", job));
+    }
+
+    @GetMapping("/purge-jobs/{job_id}")
+    @Operation(summary = "查询清理任务", description = "查询后台清理任务的状态和已删除数量")
+    public ResponseEntity<ApiResponse<PurgeJobResponse>> getPurgeJob(
+            @Parameter(description = "任务ID") @PathVariable("job_id") String jobId
+    ) {
+        return ResponseEntity.ok(ApiResponse.successWithMessage("success", todoService.getPurgeJob(jobId)));
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT, TenantContext.HEADER).build();
+    }
+
+    /**
+     * 同一版本会按 Accept 和压缩方式输出不同的字节，因此使用弱标签（Tomcat 也不会压缩带强标签的响应）
+     */
+    private static String weakEtag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private Long countTodos(Boolean completed, TotalMode totalMode) {
+        switch (totalMode) {
+            case NONE:   return null;
+            case APPROX: return todoService.getApproximateCount(completed);
+            case EXACT:
+            default:     return todoService.getTotalCount(completed);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.todoapp.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ApiResponse<T> {
@@ -10,6 +11,9 @@ public class ApiResponse<T> {
     private T data;
     private Long total;
 
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
     public ApiResponse() {}
 
     public ApiResponse(Integer code, String message) {
@@ -34,6 +38,12 @@ public class ApiResponse<T> {
         return new ApiResponse<>(200, "success", data, total);
     }
 
+    public static <T> ApiResponse<T> success(T data, Long total, String nextCursor) {
+        ApiResponse<T> response = new ApiResponse<>(200, "success", data, total);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
     public static <T> ApiResponse<T> successWithMessage(String message, T data) {
         return new ApiResponse<>(200, message, data);
     }
@@ -61,4 +71,7 @@ public class ApiResponse<T> {
 
     public Long getTotal() { return total; }
     public void setTotal(Long total) { this.total = total; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
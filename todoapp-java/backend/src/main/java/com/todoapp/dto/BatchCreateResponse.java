@@ -0,0 +1,33 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class BatchCreateResponse {
+
+    @JsonProperty("created_count")
+    private Integer createdCount;
+
+    @JsonProperty("failed_count")
+    private Integer failedCount;
+
+    private List<BatchItemResult> results;
+
+    public BatchCreateResponse() {}
+
+    public BatchCreateResponse(Integer createdCount, Integer failedCount, List<BatchItemResult> results) {
+        this.createdCount = createdCount;
+        this.failedCount = failedCount;
+        this.results = results;
+    }
+
+    public Integer getCreatedCount() { return createdCount; }
+    public void setCreatedCount(Integer createdCount) { this.createdCount = createdCount; }
+
+    public Integer getFailedCount() { return failedCount; }
+    public void setFailedCount(Integer failedCount) { this.failedCount = failedCount; }
+
+    public List<BatchItemResult> getResults() { return results; }
+    public void setResults(List<BatchItemResult> results) { this.results = results; }
+}
@@ -0,0 +1,43 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private Integer index;
+    private Boolean success;
+    private Long id;
+    private Map<String, String> errors;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(Integer index, Boolean success, Long id, Map<String, String> errors) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, true, id, null);
+    }
+
+    public static BatchItemResult invalid(int index, Map<String, String> errors) {
+        return new BatchItemResult(index, false, null, errors);
+    }
+
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+
+    public Boolean getSuccess() { return success; }
+    public void setSuccess(Boolean success) { this.success = success; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Map<String, String> getErrors() { return errors; }
+    public void setErrors(Map<String, String> errors) { this.errors = errors; }
+}
@@ -0,0 +1,49 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"accepted_count", "rejected_count", "rejected", "error"})
+public class ImportResponse {
+
+    @JsonProperty("accepted_count")
+    private Long acceptedCount;
+
+    @JsonProperty("rejected_count")
+    private Long rejectedCount;
+
+    /**
+     * 被拒绝的行（index 为数据行序号，从 0 开始），只保留前若干条
+     */
+    private List<BatchItemResult> rejected;
+
+    /**
+     * 输入格式错误导致导入中止时的原因，此前已提交的行保留
+     */
+    private String error;
+
+    public ImportResponse() {}
+
+    public ImportResponse(Long acceptedCount, Long rejectedCount, List<BatchItemResult> rejected, String error) {
+        this.acceptedCount = acceptedCount;
+        this.rejectedCount = rejectedCount;
+        this.rejected = rejected;
+        this.error = error;
+    }
+
+    public Long getAcceptedCount() { return acceptedCount; }
+    public void setAcceptedCount(Long acceptedCount) { this.acceptedCount = acceptedCount; }
+
+    public Long getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(Long rejectedCount) { this.rejectedCount = rejectedCount; }
+
+    public List<BatchItemResult> getRejected() { return rejected; }
+    public void setRejected(List<BatchItemResult> rejected) { this.rejected = rejected; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
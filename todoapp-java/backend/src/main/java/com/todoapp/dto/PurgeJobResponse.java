@@ -0,0 +1,62 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurgeJobResponse {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    private String scope;
+
+    private String status;
+
+    @JsonProperty("deleted_count")
+    private Long deletedCount;
+
+    @JsonProperty("started_at")
+    private LocalDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    private LocalDateTime finishedAt;
+
+    private String error;
+
+    public PurgeJobResponse() {}
+
+    public PurgeJobResponse(String jobId, String scope, String status, Long deletedCount,
+                            LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        this.jobId = jobId;
+        this.scope = scope;
+        this.status = status;
+        this.deletedCount = deletedCount;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getDeletedCount() { return deletedCount; }
+    public void setDeletedCount(Long deletedCount) { this.deletedCount = deletedCount; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,21 @@
+package com.todoapp.dto;
+
+import java.util.List;
+
+/**
+ * 搜索结果：按相关度排序的当前页及命中总数
+ */
+public class SearchPage<T> {
+
+    private final List<T> items;
+    private final long total;
+
+    public SearchPage(List<T> items, long total) {
+        this.items = items;
+        this.total = total;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public long getTotal() { return total; }
+}
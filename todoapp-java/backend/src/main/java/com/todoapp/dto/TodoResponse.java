@@ -21,11 +21,13 @@ public class TodoResponse {
     @JsonProperty("updated_at")
     private LocalDateTime updatedAt;
 
+    private Long version;
+
     public TodoResponse() {}
 
     public TodoResponse(Long id, String title, String description, Boolean completed,
                         String priority, LocalDateTime dueDate,
-                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+                        LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -34,6 +36,7 @@ public class TodoResponse {
         this.dueDate = dueDate;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public Long getId() { return id; }
@@ -59,4 +62,7 @@ public class TodoResponse {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,238 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * 列表接口的待办事项，按列存放，由 JDBC 结果集直接填充
+ * 序列化为与 List&lt;TodoResponse&gt; 相同的 JSON 数组，不为每行创建实体和 DTO
+ */
+@JsonSerialize(using = TodoRows.Serializer.class)
+public final class TodoRows {
+
+    /**
+     * limit 没有上限，初始容量按此封顶，超出后翻倍扩容
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private long[] ids;
+    private String[] titles;
+    private String[] descriptions;
+    private boolean[] completed;
+    private int[] priorities;
+    private LocalDateTime[] dueDates;
+    private LocalDateTime[] createdAts;
+    private LocalDateTime[] updatedAts;
+    private long[] versions;
+
+    public TodoRows(int expectedSize) {
+        int capacity = Math.max(1, Math.min(expectedSize, MAX_INITIAL_CAPACITY));
+        ids = new long[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        completed = new boolean[capacity];
+        priorities = new int[capacity];
+        dueDates = new LocalDateTime[capacity];
+        createdAts = new LocalDateTime[capacity];
+        updatedAts = new LocalDateTime[capacity];
+        versions = new long[capacity];
+    }
+
+    /**
+     * 追加一行，priority 为数据库中的整数（0 低、1 中、2 高）
+     */
+    public void add(long id, String title, String description, boolean isCompleted, int priority,
+                    LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        titles[size] = title;
+        descriptions[size] = description;
+        completed[size] = isCompleted;
+        priorities[size] = priority;
+        dueDates[size] = dueDate;
+        createdAts[size] = createdAt;
+        updatedAts[size] = updatedAt;
+        versions[size] = version;
+        size++;
+    }
+
+    /**
+     * 只保留前 newSize 行
+     */
+    public void truncate(int newSize) {
+        if (newSize < size) {
+            Arrays.fill(titles, newSize, size, null);
+            Arrays.fill(descriptions, newSize, size, null);
+            Arrays.fill(dueDates, newSize, size, null);
+            Arrays.fill(createdAts, newSize, size, null);
+            Arrays.fill(updatedAts, newSize, size, null);
+            size = newSize;
+        }
+    }
+
+    public int size() { return size; }
+
+    public long getId(int i) { return ids[i]; }
+
+    public String getTitle(int i) { return titles[i]; }
+
+    public String getDescription(int i) { return descriptions[i]; }
+
+    public boolean isCompleted(int i) { return completed[i]; }
+
+    public int getPriority(int i) { return priorities[i]; }
+
+    public LocalDateTime getDueDate(int i) { return dueDates[i]; }
+
+    public LocalDateTime getCreatedAt(int i) { return createdAts[i]; }
+
+    public LocalDateTime getUpdatedAt(int i) { return updatedAts[i]; }
+
+    public long getVersion(int i) { return versions[i]; }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        completed = Arrays.copyOf(completed, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        dueDates = Arrays.copyOf(dueDates, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        updatedAts = Arrays.copyOf(updatedAts, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    /**
+     * 字段名和优先级使用预先编码的 SerializedString，日期写入每次调用复用的字符缓冲区；
+     * 字段顺序、null 值和日期格式与 TodoResponse 经 ObjectMapper 序列化的结果一致
+     */
+    static final class Serializer extends StdSerializer<TodoRows> {
+
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString TITLE = new SerializedString("title");
+        private static final SerializedString DESCRIPTION = new SerializedString("description");
+        private static final SerializedString COMPLETED = new SerializedString("completed");
+        private static final SerializedString PRIORITY = new SerializedString("priority");
+        private static final SerializedString VERSION = new SerializedString("version");
+        private static final SerializedString DUE_DATE = new SerializedString("due_date");
+        private static final SerializedString CREATED_AT = new SerializedString("created_at");
+        private static final SerializedString UPDATED_AT = new SerializedString("updated_at");
+
+        private static final SerializedString LOW = new SerializedString("low");
+        private static final SerializedString MEDIUM = new SerializedString("medium");
+        private static final SerializedString HIGH = new SerializedString("high");
+
+        /**
+         * yyyy-MM-ddTHH:mm:ss.SSSSSSSSS 的最大长度
+         */
+        private static final int MAX_DATE_LENGTH = 29;
+
+        Serializer() {
+            super(TodoRows.class);
+        }
+
+        @Override
+        public void serialize(TodoRows rows, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            boolean timestamps = provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            char[] buffer = new char[MAX_DATE_LENGTH];
+            gen.writeStartArray(rows, rows.size);
+            for (int i = 0; i < rows.size; i++) {
+                gen.writeStartObject();
+                gen.writeFieldName(ID);
+                gen.writeNumber(rows.ids[i]);
+                gen.writeFieldName(TITLE);
+                gen.writeString(rows.titles[i]);
+                gen.writeFieldName(DESCRIPTION);
+                if (rows.descriptions[i] != null) {
+                    gen.writeString(rows.descriptions[i]);
+                } else {
+                    gen.writeNull();
+                }
+                gen.writeFieldName(COMPLETED);
+                gen.writeBoolean(rows.completed[i]);
+                gen.writeFieldName(PRIORITY);
+                gen.writeString(priority(rows.priorities[i]));
+                gen.writeFieldName(VERSION);
+                gen.writeNumber(rows.versions[i]);
+                writeDate(gen, provider, DUE_DATE, rows.dueDates[i], timestamps, buffer);
+                writeDate(gen, provider, CREATED_AT, rows.createdAts[i], timestamps, buffer);
+                writeDate(gen, provider, UPDATED_AT, rows.updatedAts[i], timestamps, buffer);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        private static SerializableString priority(int priority) {
+            switch (priority) {
+                case 2:  return HIGH;
+                case 1:  return MEDIUM;
+                case 0:
+                default: return LOW;
+            }
+        }
+
+        private static void writeDate(JsonGenerator gen, SerializerProvider provider, SerializedString name,
+                                      LocalDateTime value, boolean timestamps, char[] buffer) throws IOException {
+            gen.writeFieldName(name);
+            if (value == null) {
+                gen.writeNull();
+            } else if (timestamps) {
+                provider.defaultSerializeValue(value, gen);
+            } else if (value.getYear() < 0 || value.getYear() > 9999) {
+                gen.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            } else {
+                gen.writeString(buffer, 0, formatIsoLocal(value, buffer));
+            }
+        }
+
+        /**
+         * 按 ISO_LOCAL_DATE_TIME 格式写入缓冲区（总带秒，小数去掉末尾的 0，为 0 时省略），返回长度
+         */
+        static int formatIsoLocal(LocalDateTime value, char[] buffer) {
+            int pos = digits(buffer, 0, value.getYear(), 4);
+            buffer[pos++] = '-';
+            pos = digits(buffer, pos, value.getMonthValue(), 2);
+            buffer[pos++] = '-';
+            pos = digits(buffer, pos, value.getDayOfMonth(), 2);
+            buffer[pos++] = 'T';
+            pos = digits(buffer, pos, value.getHour(), 2);
+            buffer[pos++] = ':';
+            pos = digits(buffer, pos, value.getMinute(), 2);
+            buffer[pos++] = ':';
+            pos = digits(buffer, pos, value.getSecond(), 2);
+            int nano = value.getNano();
+            if (nano != 0) {
+                int width = 9;
+                while (nano % 10 == 0) {
+                    nano /= 10;
+                    width--;
+                }
+                buffer[pos++] = '.';
+                pos = digits(buffer, pos, nano, width);
+            }
+            return pos;
+        }
+
+        private static int digits(char[] buffer, int pos, int value, int width) {
+            for (int i = pos + width - 1; i >= pos; i--) {
+                buffer[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            return pos + width;
+        }
+    }
+}
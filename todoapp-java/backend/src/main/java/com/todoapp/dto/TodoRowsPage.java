@@ -0,0 +1,19 @@
+package com.todoapp.dto;
+
+/**
+ * 键集分页的一页按列存放的待办事项，nextCursor 为空表示没有下一页
+ */
+public class TodoRowsPage {
+
+    private final TodoRows rows;
+    private final String nextCursor;
+
+    public TodoRowsPage(TodoRows rows, String nextCursor) {
+        this.rows = rows;
+        this.nextCursor = nextCursor;
+    }
+
+    public TodoRows getRows() { return rows; }
+
+    public String getNextCursor() { return nextCursor; }
+}
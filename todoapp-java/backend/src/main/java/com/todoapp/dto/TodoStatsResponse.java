@@ -0,0 +1,124 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 待办事项统计：总数、逾期数、完成率、按优先级的数量以及按天的创建与完成数量
+ */
+public class TodoStatsResponse {
+
+    private long total;
+
+    private long active;
+
+    private long completed;
+
+    private long overdue;
+
+    @JsonProperty("completion_rate")
+    private double completionRate;
+
+    @JsonProperty("by_priority")
+    private Map<String, PriorityStats> byPriority;
+
+    private List<DailyStats> history;
+
+    @JsonProperty("generated_at")
+    private LocalDateTime generatedAt;
+
+    public TodoStatsResponse() {}
+
+    public TodoStatsResponse(long total, long active, long completed, long overdue, double completionRate,
+                             Map<String, PriorityStats> byPriority, List<DailyStats> history,
+                             LocalDateTime generatedAt) {
+        this.total = total;
+        this.active = active;
+        this.completed = completed;
+        this.overdue = overdue;
+        this.completionRate = completionRate;
+        this.byPriority = byPriority;
+        this.history = history;
+        this.generatedAt = generatedAt;
+    }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getActive() { return active; }
+    public void setActive(long active) { this.active = active; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getOverdue() { return overdue; }
+    public void setOverdue(long overdue) { this.overdue = overdue; }
+
+    public double getCompletionRate() { return completionRate; }
+    public void setCompletionRate(double completionRate) { this.completionRate = completionRate; }
+
+    public Map<String, PriorityStats> getByPriority() { return byPriority; }
+    public void setByPriority(Map<String, PriorityStats> byPriority) { this.byPriority = byPriority; }
+
+    public List<DailyStats> getHistory() { return history; }
+    public void setHistory(List<DailyStats> history) { this.history = history; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+
+    /**
+     * 某一优先级的未完成与已完成数量
+     */
+    public static class PriorityStats {
+
+        private long active;
+
+        private long completed;
+
+        public PriorityStats() {}
+
+        public PriorityStats(long active, long completed) {
+            this.active = active;
+            this.completed = completed;
+        }
+
+        public long getActive() { return active; }
+        public void setActive(long active) { this.active = active; }
+
+        public long getCompleted() { return completed; }
+        public void setCompleted(long completed) { this.completed = completed; }
+    }
+
+    /**
+     * 某一天创建的和完成的数量（只统计仍然存在的待办事项）
+     */
+    public static class DailyStats {
+
+        private LocalDate date;
+
+        private long created;
+
+        private long completed;
+
+        public DailyStats() {}
+
+        public DailyStats(LocalDate date, long created, long completed) {
+            this.date = date;
+            this.created = created;
+            this.completed = completed;
+        }
+
+        public LocalDate getDate() { return date; }
+        public void setDate(LocalDate date) { this.date = date; }
+
+        public long getCreated() { return created; }
+        public void setCreated(long created) { this.created = created; }
+
+        public long getCompleted() { return completed; }
+        public void setCompleted(long completed) { this.completed = completed; }
+    }
+}
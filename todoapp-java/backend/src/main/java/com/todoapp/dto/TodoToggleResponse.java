@@ -1,5 +1,6 @@
 package com.todoapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
@@ -12,12 +13,23 @@ public class TodoToggleResponse {
     @JsonProperty("updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * 切换后的版本号，仅在带 If-Match 切换时可知
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
     public TodoToggleResponse() {}
 
     public TodoToggleResponse(Long id, Boolean completed, LocalDateTime updatedAt) {
+        this(id, completed, updatedAt, null);
+    }
+
+    public TodoToggleResponse(Long id, Boolean completed, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.completed = completed;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public Long getId() { return id; }
@@ -28,4 +40,7 @@ public class TodoToggleResponse {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,31 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * 租户待办事项列表的版本号，每个修改该租户待办事项的事务在同一事务中加一，用于生成列表的 ETag
+ */
+@Entity
+@Table(name = "todo_list_versions")
+public class TodoListVersion {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    public TodoListVersion() {}
+
+    public TodoListVersion(String tenantId, Long version) {
+        this.tenantId = tenantId;
+        this.version = version;
+    }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,79 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱中的变更事件，与待办事项的变更在同一事务中写入，投递后删除
+ */
+@Entity
+@Table(name = "todo_outbox")
+public class TodoOutboxEvent {
+
+    /**
+     * 自增主键，即投递顺序
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    /**
+     * 待办事项ID，批量变更时为空
+     */
+    @Column(name = "aggregate_id", updatable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, updatable = false, length = 32)
+    private String eventType;
+
+    /**
+     * 事件数据（JSON），与变更推送的数据相同
+     */
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * 投递失败次数
+     */
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public TodoOutboxEvent() {}
+
+    public TodoOutboxEvent(String tenantId, Long aggregateId, String eventType, String payload) {
+        this.tenantId = tenantId;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,43 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱投递租约，每个分片一行：持有者在到期前续约，到期后其他实例可以接管
+ */
+@Entity
+@Table(name = "todo_outbox_lease")
+public class TodoOutboxLease {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    /**
+     * 持有租约的进程标识
+     */
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public TodoOutboxLease() {}
+
+    public TodoOutboxLease(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
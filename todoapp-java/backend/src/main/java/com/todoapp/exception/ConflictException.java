@@ -0,0 +1,11 @@
+package com.todoapp.exception;
+
+/**
+ * 请求基于的版本已过期（If-Match 与当前版本不一致）
+ */
+public class ConflictException extends RuntimeException {
+    
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,128 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 JDBC 批处理的批量写入
+ * Todo 主键为 IDENTITY 策略，Hibernate 无法批量插入，因此绕过 JPA 直接执行批量 INSERT
+ */
+@Repository
+public class TodoBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO todos (tenant_id, title, description, completed, priority, due_date, completed_at, " +
+            "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String UPDATE_COMPLETED_SQL =
+            "UPDATE todos SET completed = ?, completed_at = ?, updated_at = ?, version = version + 1 " +
+            "WHERE tenant_id = ? AND id = ? AND completed <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public TodoBatchRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${todoapp.batch.insert-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 批量插入待办事项，并把生成的主键和初始版本号回填到实体
+     */
+    public void insertAll(List<Todo> todos) {
+        for (int from = 0; from < todos.size(); from += batchSize) {
+            List<Todo> chunk = todos.subList(from, Math.min(from + batchSize, todos.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, chunk.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keyHolder
+            );
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size() && i < keys.size(); i++) {
+                Object key = keys.get(i).values().iterator().next();
+                chunk.get(i).setId(((Number) key).longValue());
+                chunk.get(i).setVersion(0L);
+            }
+        }
+    }
+
+    /**
+     * 批量把租户的待办事项改为给定的完成状态，已是该状态或不存在的行不修改
+     * 返回每条的受影响行数；驱动不返回行数时为 Statement.SUCCESS_NO_INFO
+     */
+    public int[] updateCompletedAll(String tenantId, List<TodoCompletedState> states) {
+        int[] counts = new int[states.size()];
+        for (int from = 0; from < states.size(); from += batchSize) {
+            List<TodoCompletedState> chunk = states.subList(from, Math.min(from + batchSize, states.size()));
+            int[] chunkCounts = jdbcTemplate.batchUpdate(UPDATE_COMPLETED_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    TodoCompletedState state = chunk.get(i);
+                    Timestamp updatedAt = Timestamp.valueOf(state.getUpdatedAt());
+                    ps.setBoolean(1, state.isCompleted());
+                    if (state.isCompleted()) {
+                        ps.setTimestamp(2, updatedAt);
+                    } else {
+                        ps.setNull(2, Types.TIMESTAMP);
+                    }
+                    ps.setTimestamp(3, updatedAt);
+                    ps.setString(4, tenantId);
+                    ps.setLong(5, state.getId());
+                    ps.setBoolean(6, state.isCompleted());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            });
+            System.arraycopy(chunkCounts, 0, counts, from, chunkCounts.length);
+        }
+        return counts;
+    }
+
+    private void bind(PreparedStatement ps, Todo todo) throws SQLException {
+        ps.setString(1, todo.getTenantId());
+        ps.setString(2, todo.getTitle());
+        ps.setString(3, todo.getDescription());
+        ps.setBoolean(4, Boolean.TRUE.equals(todo.getCompleted()));
+        ps.setInt(5, todo.getPriority() == null ? 0 : todo.getPriority());
+        if (todo.getDueDate() != null) {
+            ps.setTimestamp(6, Timestamp.valueOf(todo.getDueDate()));
+        } else {
+            ps.setNull(6, Types.TIMESTAMP);
+        }
+        if (todo.getCompletedAt() != null) {
+            ps.setTimestamp(7, Timestamp.valueOf(todo.getCompletedAt()));
+        } else {
+            ps.setNull(7, Types.TIMESTAMP);
+        }
+        ps.setTimestamp(8, Timestamp.valueOf(todo.getCreatedAt()));
+        ps.setTimestamp(9, Timestamp.valueOf(todo.getUpdatedAt()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待办事项完成状态的目标值，供批量写入完成状态使用
+ */
+public class TodoCompletedState {
+
+    private final Long id;
+    private final boolean completed;
+    private final LocalDateTime updatedAt;
+
+    public TodoCompletedState(Long id, boolean completed, LocalDateTime updatedAt) {
+        this.id = id;
+        this.completed = completed;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() { return id; }
+
+    public boolean isCompleted() { return completed; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
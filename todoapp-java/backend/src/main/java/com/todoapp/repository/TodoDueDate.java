@@ -0,0 +1,25 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 到期提醒所需的待办事项字段
+ */
+public class TodoDueDate {
+
+    private final Long id;
+    private final Boolean completed;
+    private final LocalDateTime dueDate;
+
+    public TodoDueDate(Long id, Boolean completed, LocalDateTime dueDate) {
+        this.id = id;
+        this.completed = completed;
+        this.dueDate = dueDate;
+    }
+
+    public Long getId() { return id; }
+
+    public Boolean getCompleted() { return completed; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+}
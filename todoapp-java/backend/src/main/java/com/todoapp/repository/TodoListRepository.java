@@ -0,0 +1,86 @@
+package com.todoapp.repository;
+
+import com.todoapp.dto.TodoRows;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 列表接口的只读查询：绕过 JPA，按列号读取结果集直接填入 TodoRows，不创建实体、不进入持久化上下文
+ * 排序与 TodoRepository 的分页查询一致（created_at、id 倒序）
+ */
+@Repository
+public class TodoListRepository {
+
+    private static final String SELECT =
+            "SELECT id, title, description, completed, priority, version, due_date, created_at, updated_at " +
+            "FROM todos WHERE tenant_id = ?";
+
+    private static final String BY_COMPLETED = " AND completed = ?";
+
+    private static final String AFTER = " AND (created_at < ? OR (created_at = ? AND id < ?))";
+
+    private static final String NEWEST_FIRST = " ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private static final String PAGE_SQL = SELECT + NEWEST_FIRST + " OFFSET ?";
+    private static final String PAGE_BY_COMPLETED_SQL = SELECT + BY_COMPLETED + NEWEST_FIRST + " OFFSET ?";
+    private static final String PAGE_AFTER_SQL = SELECT + AFTER + NEWEST_FIRST;
+    private static final String PAGE_AFTER_BY_COMPLETED_SQL = SELECT + BY_COMPLETED + AFTER + NEWEST_FIRST;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TodoListRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 偏移分页；completed 为空时不过滤完成状态
+     */
+    public TodoRows findPage(String tenantId, Boolean completed, int offset, int limit) {
+        return jdbcTemplate.query(completed != null ? PAGE_BY_COMPLETED_SQL : PAGE_SQL, ps -> {
+            int i = 1;
+            ps.setString(i++, tenantId);
+            if (completed != null) {
+                ps.setBoolean(i++, completed);
+            }
+            ps.setInt(i++, limit);
+            ps.setInt(i, offset);
+        }, extractor(limit));
+    }
+
+    /**
+     * 键集分页：游标 (createdAt, id) 之后的至多 limit 行；completed 为空时不过滤完成状态
+     */
+    public TodoRows findPageAfter(String tenantId, Boolean completed, LocalDateTime createdAt, long id, int limit) {
+        Timestamp after = Timestamp.valueOf(createdAt);
+        return jdbcTemplate.query(completed != null ? PAGE_AFTER_BY_COMPLETED_SQL : PAGE_AFTER_SQL, ps -> {
+            int i = 1;
+            ps.setString(i++, tenantId);
+            if (completed != null) {
+                ps.setBoolean(i++, completed);
+            }
+            ps.setTimestamp(i++, after);
+            ps.setTimestamp(i++, after);
+            ps.setLong(i++, id);
+            ps.setInt(i, limit);
+        }, extractor(limit));
+    }
+
+    /**
+     * 按列号读取，列顺序见 SELECT
+     */
+    private static ResultSetExtractor<TodoRows> extractor(int expectedSize) {
+        return rs -> {
+            TodoRows rows = new TodoRows(expectedSize);
+            while (rs.next()) {
+                rows.add(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBoolean(4), rs.getInt(5),
+                        rs.getObject(7, LocalDateTime.class), rs.getObject(8, LocalDateTime.class),
+                        rs.getObject(9, LocalDateTime.class), rs.getLong(6));
+            }
+            return rows;
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TodoListVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TodoListVersionRepository extends JpaRepository<TodoListVersion, String> {
+
+    @Query("SELECT v.version FROM TodoListVersion v WHERE v.tenantId = :tenantId")
+    Optional<Long> findVersion(@Param("tenantId") String tenantId);
+
+    /**
+     * 版本号加一，返回受影响行数；先写出持久化上下文中的修改，使待办事项的行锁先于版本行的行锁取得
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TodoListVersion v SET v.version = v.version + 1 WHERE v.tenantId = :tenantId")
+    int increment(@Param("tenantId") String tenantId);
+}
@@ -0,0 +1,39 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TodoOutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TodoOutboxLeaseRepository extends JpaRepository<TodoOutboxLease, String> {
+
+    /**
+     * 由 owner 续约或接管已到期的租约，返回受影响行数（0 表示租约由其他进程持有或尚不存在）
+     */
+    @Modifying
+    @Query("UPDATE TodoOutboxLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 创建租约行，已存在时抛出 DataIntegrityViolationException（不会像 save 那样覆盖其他进程的租约）
+     */
+    @Modifying
+    @Query("INSERT INTO TodoOutboxLease (name, owner, expiresAt) VALUES (:name, :owner, :expiresAt)")
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 释放 owner 持有的租约，其他进程无需等待到期即可接管
+     */
+    @Modifying
+    @Query("UPDATE TodoOutboxLease l SET l.expiresAt = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,30 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TodoOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TodoOutboxRepository extends JpaRepository<TodoOutboxEvent, Long> {
+
+    /**
+     * 按写入顺序读取最早的事件（当前分片上所有租户）
+     */
+    @Query("SELECT e FROM TodoOutboxEvent e ORDER BY e.id")
+    List<TodoOutboxEvent> findOldest(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TodoOutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE TodoOutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+}
@@ -1,31 +1,180 @@
 package com.todoapp.repository;
 
 import com.todoapp.entity.Todo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * 所有查询都按租户过滤；继承自 JpaRepository 的按主键查询、统计和删除方法不区分租户，业务代码不应使用
+ */
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
+    
+    /**
+     * 按ID查询租户的待办事项
+     */
+    Optional<Todo> findByTenantIdAndId(String tenantId, Long id);
+    
+    /**
+     * 按ID批量查询租户的待办事项
+     */
+    List<Todo> findByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+    
+    boolean existsByTenantIdAndId(String tenantId, Long id);
+    
+    /**
+     * 只查询统计字段和版本号，供切换完成状态前取得旧状态；记录不存在时为空
+     */
+    @Query("SELECT new com.todoapp.repository.TodoStatsRow(t.id, t.completed, t.priority, t.dueDate, " +
+           "t.createdAt, t.completedAt, t.version) FROM Todo t WHERE t.tenantId = :tenantId AND t.id = :id")
+    Optional<TodoStatsRow> findStatsRowById(@Param("tenantId") String tenantId, @Param("id") Long id);
+    
+    /**
+     * 分页查询租户的待办事项
+     * 列表接口已改用 TodoListRepository；这里的分页查询保留给 RepositoryBenchmark 对比偏移与键集分页的执行计划
+     */
+    List<Todo> findByTenantId(String tenantId, Pageable pageable);
     
     /**
      * 根据完成状态查询待办事项
      */
-    List<Todo> findByCompleted(Boolean completed, Pageable pageable);
+    List<Todo> findByTenantIdAndCompleted(String tenantId, Boolean completed, Pageable pageable);
+    
+    long countByTenantId(String tenantId);
     
     /**
      * 统计完成状态的待办事项数量
      */
-    long countByCompleted(Boolean completed);
+    long countByTenantIdAndCompleted(String tenantId, Boolean completed);
+    
+    /**
+     * 按完成状态分组统计数量，返回 [completed, count]
+     */
+    @Query("SELECT t.completed, COUNT(t) FROM Todo t WHERE t.tenantId = :tenantId GROUP BY t.completed")
+    List<Object[]> countGroupByCompleted(@Param("tenantId") String tenantId);
+    
+    /**
+     * 按完成状态和优先级分组统计数量，返回 [completed, priority, count]
+     */
+    @Query("SELECT t.completed, t.priority, COUNT(t) FROM Todo t WHERE t.tenantId = :tenantId " +
+           "GROUP BY t.completed, t.priority")
+    List<Object[]> countGroupByCompletedAndPriority(@Param("tenantId") String tenantId);
+    
+    /**
+     * 统计截止日期早于 now 的未完成待办事项
+     */
+    @Query("SELECT COUNT(t) FROM Todo t WHERE t.tenantId = :tenantId AND t.completed = false AND t.dueDate < :now")
+    long countOverdue(@Param("tenantId") String tenantId, @Param("now") LocalDateTime now);
+    
+    /**
+     * 当前分片上有数据的租户，供跨租户的维护任务使用
+     */
+    @Query("SELECT DISTINCT t.tenantId FROM Todo t")
+    List<String> findTenantIds();
     
     /**
-     * 删除所有已完成的待办事项
+     * 键集分页：查询游标 (createdAt, id) 之后的待办事项（供 RepositoryBenchmark 使用）
+     */
+    @Query("SELECT t FROM Todo t WHERE t.tenantId = :tenantId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Todo> findPageAfter(@Param("tenantId") String tenantId,
+                             @Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") Long id,
+                             Pageable pageable);
+    
+    /**
+     * 条件更新完成状态：仅当当前状态为 expected 且版本号为 version 时改为 target，返回受影响行数
+     * 并发修改不会互相覆盖；改为已完成时记录完成时间，否则清空
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.completed = :target, t.updatedAt = :updatedAt, t.version = t.version + 1, " +
+           "t.completedAt = CASE WHEN :target = true THEN :updatedAt ELSE NULL END " +
+           "WHERE t.tenantId = :tenantId AND t.id = :id AND t.completed = :expected AND t.version = :version")
+    int updateCompletedIfVersion(@Param("tenantId") String tenantId,
+                                 @Param("id") Long id,
+                                 @Param("expected") Boolean expected,
+                                 @Param("target") Boolean target,
+                                 @Param("version") Long version,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * 租户主键不小于 fromId 的待办事项ID，按ID升序（completed 为空时不过滤），用于按数据定位下一块
+     */
+    @Query("SELECT t.id FROM Todo t WHERE t.tenantId = :tenantId AND t.id >= :fromId " +
+           "AND (:completed IS NULL OR t.completed = :completed) ORDER BY t.id")
+    List<Long> findIdsFrom(@Param("tenantId") String tenantId,
+                           @Param("completed") Boolean completed,
+                           @Param("fromId") Long fromId,
+                           Pageable pageable);
+    
+    /**
+     * 删除租户主键在 [fromId, toId) 范围内的待办事项
+     */
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.tenantId = :tenantId AND t.id >= :fromId AND t.id < :toId")
+    int deleteByIdRange(@Param("tenantId") String tenantId, @Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    /**
+     * 删除租户主键在 [fromId, toId) 范围内的已完成待办事项
      */
     @Modifying
-    @Query("DELETE FROM Todo t WHERE t.completed = true")
-    int deleteAllCompleted();
+    @Query("DELETE FROM Todo t WHERE t.tenantId = :tenantId AND t.completed = true " +
+           "AND t.id >= :fromId AND t.id < :toId")
+    int deleteCompletedByIdRange(@Param("tenantId") String tenantId,
+                                 @Param("fromId") Long fromId,
+                                 @Param("toId") Long toId);
+    
+    /**
+     * 按ID升序流式读取租户的待办事项（completed 为空时不过滤），需在事务内使用并关闭
+     * fetch size 只对按批读取的驱动生效；导出使用 TodoExporter 中按数据库选择 fetch size 的查询
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t WHERE t.tenantId = :tenantId AND (:completed IS NULL OR t.completed = :completed) " +
+           "ORDER BY t.id")
+    Stream<Todo> streamAllOrderById(@Param("tenantId") String tenantId, @Param("completed") Boolean completed);
+    
+    /**
+     * 按ID升序流式读取租户主键在 [fromId, toId) 范围内的待办事项（走 tenant_id, id 索引），需在事务内使用并关闭
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t WHERE t.tenantId = :tenantId AND t.id >= :fromId AND t.id < :toId ORDER BY t.id")
+    Stream<Todo> streamByIdRange(@Param("tenantId") String tenantId,
+                                 @Param("fromId") Long fromId,
+                                 @Param("toId") Long toId);
+
+    /**
+     * 流式读取租户的统计字段，需在事务内使用并关闭
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.todoapp.repository.TodoStatsRow(t.id, t.completed, t.priority, t.dueDate, " +
+           "t.createdAt, t.completedAt) FROM Todo t WHERE t.tenantId = :tenantId")
+    Stream<TodoStatsRow> streamStatsRows(@Param("tenantId") String tenantId);
+
+    /**
+     * 流式读取租户截止日期晚于 after 的待办事项（走 tenant_id, due_date 索引），需在事务内使用并关闭
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.todoapp.repository.TodoDueDate(t.id, t.completed, t.dueDate) FROM Todo t " +
+           "WHERE t.tenantId = :tenantId AND t.dueDate > :after")
+    Stream<TodoDueDate> streamDueAfter(@Param("tenantId") String tenantId, @Param("after") LocalDateTime after);
 }
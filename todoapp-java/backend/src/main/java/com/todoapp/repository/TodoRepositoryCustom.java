@@ -0,0 +1,15 @@
+package com.todoapp.repository;
+
+import java.util.Map;
+
+/**
+ * TodoRepository 的自定义扩展
+ */
+public interface TodoRepositoryCustom {
+
+    /**
+     * 按属性名只更新租户的一条待办事项的给定列（值为 null 时置空）并递增版本号，返回受影响行数
+     * expectedVersion 不为空时只在版本号一致时更新
+     */
+    int updateFields(String tenantId, Long id, Map<String, Object> changes, Long expectedVersion);
+}
@@ -0,0 +1,41 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+public class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateFields(String tenantId, Long id, Map<String, Object> changes, Long expectedVersion) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Todo> update = cb.createCriteriaUpdate(Todo.class);
+        Root<Todo> root = update.from(Todo.class);
+        changes.forEach((attribute, value) -> update.set(root.<Object>get(attribute), value));
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        if (expectedVersion != null) {
+            update.where(cb.equal(root.get("tenantId"), tenantId), cb.equal(root.get("id"), id),
+                    cb.equal(root.get("version"), expectedVersion));
+        } else {
+            update.where(cb.equal(root.get("tenantId"), tenantId), cb.equal(root.get("id"), id));
+        }
+
+        entityManager.flush();
+        int rows = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return rows;
+    }
+}
@@ -0,0 +1,62 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+
+import java.time.LocalDateTime;
+
+/**
+ * 统计所需的待办事项字段；写操作以修改前的字段从统计中减去旧状态，version 供条件更新使用
+ */
+public class TodoStatsRow {
+
+    private final Long id;
+    private final Boolean completed;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime completedAt;
+    private final Long version;
+
+    public TodoStatsRow(Long id, Boolean completed, Integer priority, LocalDateTime dueDate,
+                        LocalDateTime createdAt, LocalDateTime completedAt) {
+        this(id, completed, priority, dueDate, createdAt, completedAt, null);
+    }
+
+    public TodoStatsRow(Long id, Boolean completed, Integer priority, LocalDateTime dueDate,
+                        LocalDateTime createdAt, LocalDateTime completedAt, Long version) {
+        this.id = id;
+        this.completed = completed;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.version = version;
+    }
+
+    public static TodoStatsRow of(Todo todo) {
+        return new TodoStatsRow(todo.getId(), todo.getCompleted(), todo.getPriority(), todo.getDueDate(),
+                todo.getCreatedAt(), todo.getCompletedAt(), todo.getVersion());
+    }
+
+    /**
+     * 在 at 切换为 completed 后的字段；改为已完成时记录完成时间，否则清空
+     */
+    public TodoStatsRow withCompleted(boolean completed, LocalDateTime at) {
+        return new TodoStatsRow(id, completed, priority, dueDate, createdAt, completed ? at : null,
+                version == null ? null : version + 1);
+    }
+
+    public Long getId() { return id; }
+
+    public Boolean getCompleted() { return completed; }
+
+    public Integer getPriority() { return priority; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+
+    public Long getVersion() { return version; }
+}
@@ -0,0 +1,39 @@
+package com.todoapp.service;
+
+import com.todoapp.exception.BadRequestException;
+
+/**
+ * 导入导出的数据格式
+ */
+public enum DataFormat {
+
+    /** 每行一个 JSON 对象 */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** 带表头的 CSV（RFC 4180） */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    DataFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() { return contentType; }
+
+    public String getFileExtension() { return fileExtension; }
+
+    public static DataFormat parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        switch (value.trim().toLowerCase()) {
+            case "ndjson": return NDJSON;
+            case "csv":    return CSV;
+            default:
+                throw new BadRequestException("format must be one of ndjson, csv");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.todoapp.service;
+
+import com.todoapp.tenant.TenantContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 把到期提醒作为 due 事件推送给该租户的变更订阅者
+ */
+@Component
+public class EventReminderSink implements TodoReminderSink {
+
+    private final TodoEventBroadcaster todoEventBroadcaster;
+
+    public EventReminderSink(TodoEventBroadcaster todoEventBroadcaster) {
+        this.todoEventBroadcaster = todoEventBroadcaster;
+    }
+
+    @Override
+    public void remind(TodoReminder reminder) {
+        TenantContext.run(reminder.getTenant(), () -> todoEventBroadcaster.publish(TodoEventType.DUE,
+                Map.of("id", reminder.getId(), "due_date", reminder.getDueDate())));
+    }
+}
@@ -0,0 +1,26 @@
+package com.todoapp.service;
+
+import com.todoapp.exception.BadRequestException;
+
+/**
+ * 批量清理的范围
+ */
+public enum PurgeScope {
+
+    /** 仅已完成的待办事项 */
+    COMPLETED,
+
+    /** 全部待办事项 */
+    ALL;
+
+    public static PurgeScope parse(String value) {
+        if (value != null) {
+            switch (value.trim().toLowerCase()) {
+                case "completed": return COMPLETED;
+                case "all":       return ALL;
+                default:          break;
+            }
+        }
+        throw new BadRequestException("scope must be one of completed, all");
+    }
+}
@@ -0,0 +1,95 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.entity.Todo;
+import com.todoapp.entity.TodoOutboxEvent;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 按发件箱事件维护搜索索引
+ * 创建和更新按ID重新读取后写入（已删除则删除文档），切换只更新完成状态；
+ * 批量写入按事件中的主键范围重新读取，分块删除按范围删除。重复投递结果相同
+ */
+@Component
+public class SearchIndexOutboxSubscriber implements TodoOutboxSubscriber {
+
+    private final TodoSearchIndex todoSearchIndex;
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+
+    public SearchIndexOutboxSubscriber(TodoSearchIndex todoSearchIndex, TodoRepository todoRepository,
+                                       EntityManager entityManager, ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager) {
+        this.todoSearchIndex = todoSearchIndex;
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // 不设只读：从主库读取，不受副本延迟影响
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void onEvent(TodoOutboxEvent event) {
+        String type = event.getEventType();
+        if (TodoEventType.CREATED.getEventName().equals(type) || TodoEventType.UPDATED.getEventName().equals(type)) {
+            reindex(event.getAggregateId());
+        } else if (TodoEventType.TOGGLED.getEventName().equals(type)) {
+            todoSearchIndex.updateCompleted(event.getAggregateId(), payloadOf(event).path("completed").asBoolean());
+        } else if (TodoEventType.DELETED.getEventName().equals(type)) {
+            todoSearchIndex.remove(event.getAggregateId());
+        } else if (TodoEventType.RESET.getEventName().equals(type)) {
+            JsonNode payload = payloadOf(event);
+            if (!payload.has(TodoOutbox.FROM_ID)) {
+                return;
+            }
+            long fromId = payload.get(TodoOutbox.FROM_ID).asLong();
+            long toId = payload.get(TodoOutbox.TO_ID).asLong();
+            if (payload.has(TodoOutbox.COMPLETED_ONLY)) {
+                todoSearchIndex.removeRange(fromId, toId, payload.get(TodoOutbox.COMPLETED_ONLY).asBoolean());
+            } else {
+                reindexRange(fromId, toId);
+            }
+        }
+    }
+
+    private void reindex(Long id) {
+        Optional<Todo> todo = transaction.execute(status ->
+                todoRepository.findByTenantIdAndId(TenantContext.current(), id));
+        if (todo != null && todo.isPresent()) {
+            todoSearchIndex.index(todo.get());
+        } else {
+            todoSearchIndex.remove(id);
+        }
+    }
+
+    private void reindexRange(long fromId, long toId) {
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Todo> todos = todoRepository.streamByIdRange(TenantContext.current(), fromId, toId)) {
+                todos.forEach(todo -> {
+                    todoSearchIndex.index(todo);
+                    entityManager.detach(todo);
+                });
+            }
+        });
+    }
+
+    private JsonNode payloadOf(TodoOutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload of outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.todoapp.service;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮：每层 64 个槽，第 i 层每槽覆盖 64^i 个刻度，共 7 层
+ * 定时器按到期刻度与当前刻度最高的不同位所在的层放入对应槽，插入和取消都是 O(1)；
+ * 推进到某层的槽边界时把该槽的定时器下移到更低的层，每个定时器最多下移 6 次。
+ * 非线程安全，由调用方加锁
+ */
+final class TimingWheel<T extends TimingWheel.Timer> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 7;
+
+    private final Timer[][] buckets = new Timer[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+    }
+
+    /**
+     * 放入定时器，到期刻度不晚于当前刻度时在下一个刻度到期；超出时间轮范围时不放入并返回 false
+     */
+    boolean add(T added, long deadline) {
+        Timer timer = added;
+        if (timer.level >= 0) {
+            remove(added);
+        }
+        timer.deadline = Math.max(deadline, currentTick + 1);
+        if (!place(timer)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * 取消定时器，不在时间轮中时忽略
+     */
+    void remove(T removed) {
+        Timer timer = removed;
+        if (timer.level < 0) {
+            return;
+        }
+        unlink(timer);
+        size--;
+    }
+
+    /**
+     * 推进到 tick，按到期顺序回调已到期的定时器；回调前定时器已移出时间轮
+     */
+    @SuppressWarnings("unchecked")
+    void advance(long tick, Consumer<T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, slotOf(currentTick, level));
+                }
+            }
+            int slot = slotOf(currentTick, 0);
+            Timer timer = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                detach(timer);
+                size--;
+                expired.accept((T) timer);
+                timer = next;
+            }
+        }
+    }
+
+    int size() { return size; }
+
+    private void cascade(int level, int slot) {
+        Timer timer = buckets[level][slot];
+        buckets[level][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            detach(timer);
+            // 已到当前刻度的放入第 0 层的当前槽，随后在本刻度到期
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private boolean place(Timer timer) {
+        long diff = timer.deadline ^ currentTick;
+        int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+        if (level >= LEVELS) {
+            return false;
+        }
+        int slot = slotOf(timer.deadline, level);
+        Timer head = buckets[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        buckets[level][slot] = timer;
+        return true;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev == null) {
+            buckets[timer.level][timer.slot] = timer.next;
+        } else {
+            timer.prev.next = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        detach(timer);
+    }
+
+    private static void detach(Timer timer) {
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+
+    /**
+     * 时间轮中的定时器，链表指针直接放在定时器上，取消时无需查找
+     */
+    abstract static class Timer {
+        private long deadline;
+        private Timer prev;
+        private Timer next;
+        private int level = -1;
+        private int slot;
+    }
+}
@@ -0,0 +1,270 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TodoResponse;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按ID缓存待办事项响应的 LRU 缓存，支持容量上限和过期时间；键为当前租户和ID，不同分片上的ID可能重复
+ * 按键分段加锁（ReentrantLock，不会钉住虚拟线程），容量平均分给各段，每段内按最近访问淘汰，
+ * 因此淘汰顺序是近似的全局 LRU。缓存中的 TodoResponse 视为只读，调用方不得修改
+ * 命中、未命中、淘汰次数和当前大小以 cache.* 指标导出（cache=todos）
+ */
+@Component
+public class TodoCache implements MeterBinder {
+
+    private static final int MAX_STRIPES = 16;
+
+    /**
+     * 每段至少容纳的条目数，容量较小时减少段数，避免每段只有几条时淘汰过早
+     */
+    private static final int MIN_STRIPE_SIZE = 64;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Stripe[] stripes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 每次失效递增，用于丢弃失效前读到的旧数据；先递增再删除，写入时在段锁内比较
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TodoCache(@Value("${todoapp.cache.max-size:10000}") int maxSize,
+                     @Value("${todoapp.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        int count = Math.max(1, Math.min(MAX_STRIPES, maxSize / MIN_STRIPE_SIZE));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(Math.max(0, maxSize / count + (i < maxSize % count ? 1 : 0)));
+        }
+    }
+
+    /**
+     * 读取缓存，未命中或已过期时返回 null
+     */
+    public TodoResponse get(Long id) {
+        Key key = new Key(TenantContext.current(), id);
+        Stripe stripe = stripeOf(key);
+        Entry entry;
+        stripe.lock.lock();
+        try {
+            entry = stripe.entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                stripe.entries.remove(key);
+                evictionCount.increment();
+                entry = null;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * 读取数据库前获取的版本戳，配合 {@link #putIfUnchanged} 使用
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * 自 stamp 之后没有发生失效时才写入缓存
+     */
+    public void putIfUnchanged(Long id, TodoResponse value, long stamp) {
+        if (maxSize <= 0) {
+            return;
+        }
+        Key key = new Key(TenantContext.current(), id);
+        Stripe stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            if (stamp != invalidations.get()) {
+                return;
+            }
+            stripe.entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+            evictOverflow(stripe);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void evict(Long id) {
+        evict(new Key(TenantContext.current(), id));
+    }
+
+    /**
+     * 清除当前租户的全部条目
+     */
+    public void clear() {
+        clear(TenantContext.current());
+    }
+
+    /**
+     * 在当前事务中立即失效，并在提交后再次失效，
+     * 防止并发读在提交前把旧数据重新放回缓存
+     */
+    public void evictOnCommit(Long id) {
+        Key key = new Key(TenantContext.current(), id);
+        evict(key);
+        TransactionHooks.afterCommit(() -> evict(key));
+    }
+
+    public void clearOnCommit() {
+        String tenant = TenantContext.current();
+        clear(tenant);
+        TransactionHooks.afterCommit(() -> clear(tenant));
+    }
+
+    private void evict(Key key) {
+        invalidations.incrementAndGet();
+        Stripe stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void clear(String tenant) {
+        invalidations.incrementAndGet();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.keySet().removeIf(key -> key.tenant.equals(tenant));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() { return hitCount.sum(); }
+
+    public long getMissCount() { return missCount.sum(); }
+
+    public long getEvictionCount() { return evictionCount.sum(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", this, TodoCache::getHitCount)
+                .tag("cache", "todos").tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, TodoCache::getMissCount)
+                .tag("cache", "todos").tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, TodoCache::getEvictionCount)
+                .tag("cache", "todos")
+                .register(registry);
+        Gauge.builder("cache.size", this, TodoCache::size)
+                .tag("cache", "todos")
+                .register(registry);
+    }
+
+    private Stripe stripeOf(Key key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    /**
+     * 持有段锁时调用
+     */
+    private void evictOverflow(Stripe stripe) {
+        Iterator<Map.Entry<Key, Entry>> it = stripe.entries.entrySet().iterator();
+        while (stripe.entries.size() > stripe.maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictionCount.increment();
+        }
+    }
+
+    /**
+     * 缓存的一个分段：按访问顺序排列的条目及其容量
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxSize;
+
+        private Stripe(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    private static final class Key {
+        private final String tenant;
+        private final Long id;
+
+        private Key(String tenant, Long id) {
+            this.tenant = tenant;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return tenant.equals(other.tenant) && Objects.equals(id, other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tenant.hashCode() + Objects.hashCode(id);
+        }
+    }
+
+    private static final class Entry {
+        private final TodoResponse value;
+        private final long expiresAt;
+
+        private Entry(TodoResponse value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按租户、完成状态维护的内存计数器
+ * 写操作在事务提交后调整当前租户的计数，定时与数据库重新同步以消除偏差
+ */
+@Component
+public class TodoCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoCounter.class);
+
+    private final TodoRepository todoRepository;
+
+    /**
+     * 各租户的计数，首次读取时创建并从数据库同步
+     */
+    private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+
+    public TodoCounter(TodoRepository todoRepository) {
+        this.todoRepository = todoRepository;
+    }
+
+    /**
+     * 获取当前租户的计数（completed 为空时返回全部）
+     */
+    public long get(Boolean completed) {
+        String tenant = TenantContext.current();
+        Counts tenantCounts = countsOf(tenant);
+        if (!tenantCounts.synced) {
+            resync(tenant, tenantCounts);
+        }
+        if (completed == null) {
+            return tenantCounts.active.get() + tenantCounts.completed.get();
+        }
+        return completed ? tenantCounts.completed.get() : tenantCounts.active.get();
+    }
+
+    /**
+     * 从数据库重新加载当前租户的计数
+     */
+    public void resync() {
+        String tenant = TenantContext.current();
+        resync(tenant, countsOf(tenant));
+    }
+
+    /**
+     * 定时重新加载所有已读取过的租户的计数
+     */
+    @Scheduled(fixedDelayString = "${todoapp.counter.resync-interval-ms:300000}")
+    public void resyncAll() {
+        counts.forEach((tenant, tenantCounts) -> TenantContext.run(tenant, () -> resync(tenant, tenantCounts)));
+    }
+
+    public void onCreated() {
+        onCreated(1);
+    }
+
+    public void onCreated(long count) {
+        Counts tenantCounts = currentCounts();
+        TransactionHooks.afterCommit(() -> tenantCounts.active.addAndGet(count));
+    }
+
+    public void onCompletedChanged(boolean nowCompleted) {
+        Counts tenantCounts = currentCounts();
+        TransactionHooks.afterCommit(() -> {
+            if (nowCompleted) {
+                tenantCounts.active.decrementAndGet();
+                tenantCounts.completed.incrementAndGet();
+            } else {
+                tenantCounts.completed.decrementAndGet();
+                tenantCounts.active.incrementAndGet();
+            }
+        });
+    }
+
+    public void onDeleted(boolean wasCompleted) {
+        Counts tenantCounts = currentCounts();
+        TransactionHooks.afterCommit(() ->
+                (wasCompleted ? tenantCounts.completed : tenantCounts.active).decrementAndGet());
+    }
+
+    public void onCompletedDeleted(long count) {
+        Counts tenantCounts = currentCounts();
+        TransactionHooks.afterCommit(() -> tenantCounts.completed.addAndGet(-count));
+    }
+
+    public void onAllDeleted() {
+        Counts tenantCounts = currentCounts();
+        TransactionHooks.afterCommit(() -> {
+            tenantCounts.active.set(0);
+            tenantCounts.completed.set(0);
+        });
+    }
+
+    private Counts currentCounts() {
+        return countsOf(TenantContext.current());
+    }
+
+    private Counts countsOf(String tenant) {
+        return counts.computeIfAbsent(tenant, t -> new Counts());
+    }
+
+    private void resync(String tenant, Counts tenantCounts) {
+        tenantCounts.resyncLock.lock();
+        try {
+            long active = 0;
+            long completed = 0;
+            List<Object[]> rows = todoRepository.countGroupByCompleted(tenant);
+            for (Object[] row : rows) {
+                if (Boolean.TRUE.equals(row[0])) {
+                    completed = ((Number) row[1]).longValue();
+                } else {
+                    active = ((Number) row[1]).longValue();
+                }
+            }
+            tenantCounts.active.set(active);
+            tenantCounts.completed.set(completed);
+            tenantCounts.synced = true;
+            log.debug("Resynced todo counters for tenant {}: active={}, completed={}", tenant, active, completed);
+        } finally {
+            tenantCounts.resyncLock.unlock();
+        }
+    }
+
+    private static final class Counts {
+        private final AtomicLong active = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private volatile boolean synced;
+
+        /**
+         * 同步期间会查询数据库，使用 ReentrantLock 而非 synchronized，避免虚拟线程固定在载体线程上
+         */
+        private final ReentrantLock resyncLock = new ReentrantLock();
+    }
+}
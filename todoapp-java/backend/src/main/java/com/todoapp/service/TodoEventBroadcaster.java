@@ -0,0 +1,413 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 变更事件广播（SSE）
+ * 连接使用 Servlet 异步请求，空闲订阅者不占用线程；发布时只把事件放入各订阅者的有界缓冲，
+ * 由少量分发线程写出。缓冲满的慢客户端直接断开，由客户端带 Last-Event-ID 重连续传，
+ * 连接在分发线程的写出返回后才结束，发布线程不等待慢客户端；
+ * 单次写出超过写出期限的连接被断开，被阻塞的分发线程在写出返回前由临时补充的线程顶替，不拖慢其他订阅者。
+ * 最近的事件保留在回放缓冲中，续传的起点早于回放缓冲时改为发送 reset 事件。
+ * 订阅者只收到自己租户的事件；事件ID在所有租户间递增，同一租户内不一定连续
+ */
+@Component
+public class TodoEventBroadcaster implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoEventBroadcaster.class);
+
+    /**
+     * 建议客户端断线后的重连间隔（毫秒）
+     */
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private static final Event HEARTBEAT = new Event(0, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long emitterTimeoutMillis;
+    private final long writeTimeoutNanos;
+    private final int dispatcherThreads;
+    private final ThreadPoolExecutor dispatcher;
+    private int spareThreads;
+
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ArrayDeque<Event> replay;
+    private long lastPublishedId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong stalledCount = new AtomicLong();
+    private volatile boolean closing;
+
+    public TodoEventBroadcaster(ObjectMapper objectMapper,
+                                @Value("${todoapp.events.buffer-size:256}") int bufferSize,
+                                @Value("${todoapp.events.replay-size:1000}") int replaySize,
+                                @Value("${todoapp.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                @Value("${todoapp.events.dispatcher-threads:4}") int dispatcherThreads,
+                                @Value("${todoapp.events.write-timeout-ms:10000}") long writeTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.dispatcherThreads = dispatcherThreads;
+        this.replay = new ArrayDeque<>(replaySize);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "todo-events-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 关闭时先结束所有连接，否则 Web 容器的优雅停机会一直等待这些长连接
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeSubscribers() {
+        closing = true;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeSubscribers();
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * 订阅当前租户的变更事件；lastEventId 不为空时先补发其后的事件
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = newEmitter(emitterTimeoutMillis);
+        if (closing) {
+            emitter.complete();
+            return emitter;
+        }
+        String tenant = TenantContext.current();
+        Subscriber subscriber = new Subscriber(emitter, tenant);
+        Long resumeAfter = parseEventId(lastEventId);
+
+        publishLock.lock();
+        try {
+            subscriber.offer(new Event(0, null, null, null, true));
+            if (resumeAfter != null && resumeAfter < lastPublishedId) {
+                List<Event> missed = eventsAfter(resumeAfter, tenant);
+                if (missed == null || missed.size() > bufferSize - 1) {
+                    subscriber.offer(new Event(lastPublishedId, tenant, TodoEventType.RESET.getEventName(),
+                            serialize(Map.of("reason", "replay_unavailable"))));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * 向当前租户的订阅者发布事件，不等待写出
+     */
+    public void publish(TodoEventType type, Object payload) {
+        publish(TenantContext.current(), type, payload);
+    }
+
+    private void publish(String tenant, TodoEventType type, Object payload) {
+        String data = serialize(payload);
+        if (data == null) {
+            return;
+        }
+        publishLock.lock();
+        try {
+            Event event = new Event(++lastPublishedId, tenant, type.getEventName(), data);
+            if (replay.size() == replaySize) {
+                replay.removeFirst();
+            }
+            if (replaySize > 0) {
+                replay.addLast(event);
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.tenant.equals(tenant)) {
+                    subscriber.offer(event);
+                }
+            }
+            publishedCount.incrementAndGet();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * 在当前事务提交后发布，回滚时不发布
+     */
+    public void publishOnCommit(TodoEventType type, Object payload) {
+        String tenant = TenantContext.current();
+        TransactionHooks.afterCommit(() -> publish(tenant, type, payload));
+    }
+
+    /**
+     * 定时发送注释行，防止代理断开空闲连接，并及时清理已断开的订阅者
+     */
+    @Scheduled(fixedDelayString = "${todoapp.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    /**
+     * 断开单次写出超过期限的订阅者；Servlet 写出无法从外部中断，被阻塞的分发线程在写出返回前
+     * 临时补充一个线程顶替（至多补充 dispatcher-threads 个），其他订阅者照常写出
+     */
+    @Scheduled(fixedDelayString = "${todoapp.events.write-check-interval-ms:1000}")
+    public void abortStalledWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.writing && now - subscriber.writeStartedAt > writeTimeoutNanos
+                    && subscriber.stalled.compareAndSet(false, true)) {
+                stalledCount.incrementAndGet();
+                log.debug("Dropping event subscriber stalled in write");
+                addSpareThread();
+                // 不调用 emitter.complete()：它与阻塞中的 send 持有同一把锁，写出返回后由 drain 结束连接
+                subscriber.close();
+            }
+        }
+    }
+
+    public int getSubscriberCount() { return subscribers.size(); }
+
+    public long getDroppedCount() { return droppedCount.get(); }
+
+    public long getStalledCount() { return stalledCount.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todoapp.events.subscribers", this, TodoEventBroadcaster::getSubscriberCount)
+                .register(registry);
+        FunctionCounter.builder("todoapp.events.published", publishedCount, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("todoapp.events.dropped", droppedCount, AtomicLong::get)
+                .description("Subscribers disconnected because their buffer was full")
+                .register(registry);
+        FunctionCounter.builder("todoapp.events.stalled", stalledCount, AtomicLong::get)
+                .description("Subscribers disconnected because a write exceeded the write timeout")
+                .register(registry);
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void addSpareThread() {
+        synchronized (dispatcher) {
+            if (spareThreads == dispatcherThreads) {
+                return;
+            }
+            spareThreads++;
+            dispatcher.setMaximumPoolSize(dispatcherThreads + spareThreads);
+            dispatcher.setCorePoolSize(dispatcherThreads + spareThreads);
+        }
+    }
+
+    private void removeSpareThread() {
+        synchronized (dispatcher) {
+            if (spareThreads == 0) {
+                return;
+            }
+            spareThreads--;
+            dispatcher.setCorePoolSize(dispatcherThreads + spareThreads);
+            dispatcher.setMaximumPoolSize(dispatcherThreads + spareThreads);
+        }
+    }
+
+    /**
+     * 回放缓冲中租户的 id 大于 afterId 的事件；缓冲已不包含紧随其后的事件时返回 null
+     */
+    private List<Event> eventsAfter(long afterId, String tenant) {
+        if (replay.isEmpty() || replay.peekFirst().id > afterId + 1) {
+            return null;
+        }
+        List<Event> events = new ArrayList<>();
+        for (Event event : replay) {
+            if (event.id > afterId && tenant.equals(event.tenant)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize todo event", e);
+            return null;
+        }
+    }
+
+    private static Long parseEventId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Event {
+        private final long id;
+        private final String tenant;
+        private final String name;
+        private final String data;
+        private final boolean hello;
+
+        private Event(long id, String tenant, String name, String data) {
+            this(id, tenant, name, data, false);
+        }
+
+        private Event(long id, String tenant, String name, String data, boolean hello) {
+            this.id = id;
+            this.tenant = tenant;
+            this.name = name;
+            this.data = data;
+            this.hello = hello;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String tenant;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean dropped;
+        private volatile boolean closed;
+        private volatile long writeStartedAt;
+        private volatile boolean writing;
+
+        private Subscriber(SseEmitter emitter, String tenant) {
+            this.emitter = emitter;
+            this.tenant = tenant;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        private void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedCount.incrementAndGet();
+                log.debug("Dropping slow event subscriber");
+                // 缓冲满通常是分发线程正阻塞在该连接的 send 上，complete() 会等待同一把锁；
+                // 这里可能持有 publishLock，只标记断开，由 drain 在写出返回后结束连接
+                dropped = true;
+                close();
+                if (scheduled.compareAndSet(false, true)) {
+                    dispatcher.execute(this::drain);
+                }
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    writeStartedAt = System.nanoTime();
+                    writing = true;
+                    send(event);
+                    writing = false;
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                writing = false;
+                if (stalled.get()) {
+                    removeSpareThread();
+                }
+                scheduled.set(false);
+                // 在 scheduled 复位之后检查：offer 标记 dropped 时若未能调度 drain，这里一定能看到标记
+                if (closed && (dropped || stalled.get())) {
+                    complete();
+                } else if (!closed && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    dispatcher.execute(this::drain);
+                }
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            if (event.hello) {
+                emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+            } else if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id))
+                        .name(event.name)
+                        .data(event.data));
+            }
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
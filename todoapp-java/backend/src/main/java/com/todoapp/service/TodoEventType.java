@@ -0,0 +1,33 @@
+package com.todoapp.service;
+
+/**
+ * 变更推送的事件类型，对应 SSE 的 event 字段
+ */
+public enum TodoEventType {
+
+    /** 创建，数据为 TodoResponse */
+    CREATED("created"),
+
+    /** 更新，数据为 TodoResponse */
+    UPDATED("updated"),
+
+    /** 切换完成状态，数据为 TodoToggleResponse */
+    TOGGLED("toggled"),
+
+    /** 删除，数据为 {"id": ...} */
+    DELETED("deleted"),
+
+    /** 到期提醒，数据为 {"id": ..., "due_date": ...} */
+    DUE("due"),
+
+    /** 批量变更或无法续传，客户端应重新加载列表，数据为 {"reason": ...} */
+    RESET("reset");
+
+    private final String eventName;
+
+    TodoEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() { return eventName; }
+}
@@ -0,0 +1,176 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.dto.TodoResponse;
+import com.todoapp.entity.Todo;
+import com.todoapp.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 流式导出
+ * 通过数据库游标逐行读取，写出后立即从持久化上下文中移除，内存占用与总行数无关。
+ * MySQL 上只对导出查询使用驱动的流式结果集，连接串不需要开启 useCursorFetch（它会让所有语句改用服务端预处理）
+ */
+@Component
+public class TodoExporter {
+
+    private static final String CSV_HEADER = "id,title,description,completed,priority,due_date,created_at,updated_at";
+
+    private static final String EXPORT_QUERY = "SELECT t FROM Todo t WHERE t.tenantId = :tenantId " +
+            "AND (:completed IS NULL OR t.completed = :completed) ORDER BY t.id";
+
+    /**
+     * MySQL 驱动在 fetch size 为 Integer.MIN_VALUE 时逐行流式读取，读完或关闭前该连接不能执行其他语句
+     */
+    static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * 其他数据库的游标每批读取的行数
+     */
+    static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    @Autowired
+    public TodoExporter(EntityManager entityManager, ObjectMapper objectMapper) {
+        this(entityManager, objectMapper, fetchSizeFor(entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()));
+    }
+
+    TodoExporter(EntityManager entityManager, ObjectMapper objectMapper, int fetchSize) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    static int fetchSizeFor(Dialect dialect) {
+        return dialect instanceof MySQLDialect ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE;
+    }
+
+    /**
+     * 按ID升序导出待办事项（completed 为空时导出全部），返回导出的行数
+     * 游标需要在事务内保持打开，直到最后一行写出
+     */
+    @Transactional(readOnly = true)
+    public long export(Boolean completed, DataFormat format, OutputStream out) throws IOException {
+        try (Stream<Todo> todos = entityManager.createQuery(EXPORT_QUERY, Todo.class)
+                .setParameter("tenantId", TenantContext.current())
+                .setParameter("completed", completed)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Todo> it = todos.iterator();
+            switch (format) {
+                case CSV:
+                    return writeCsv(it, out);
+                case NDJSON:
+                default:
+                    return writeNdjson(it, out);
+            }
+        }
+    }
+
+    private long writeNdjson(Iterator<Todo> todos, OutputStream out) throws IOException {
+        long count = 0;
+        // 每个值后写换行而非默认的空格分隔；关闭默认的逐值刷新，交给缓冲区和响应自行分块
+        ObjectWriter writer = objectMapper.writerFor(TodoResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        while (todos.hasNext()) {
+            writer.writeValue(generator, next(todos));
+            generator.writeRaw('\n');
+            count++;
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Todo> todos, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (todos.hasNext()) {
+            TodoResponse todo = next(todos);
+            writer.write(String.valueOf(todo.getId()));
+            writer.write(',');
+            writeCsvField(writer, todo.getTitle());
+            writer.write(',');
+            writeCsvField(writer, todo.getDescription());
+            writer.write(',');
+            writer.write(String.valueOf(todo.getCompleted()));
+            writer.write(',');
+            writer.write(todo.getPriority());
+            writer.write(',');
+            writeCsvField(writer, formatDateTime(todo.getDueDate()));
+            writer.write(',');
+            writeCsvField(writer, formatDateTime(todo.getCreatedAt()));
+            writer.write(',');
+            writeCsvField(writer, formatDateTime(todo.getUpdatedAt()));
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * 取出下一行并转换为响应DTO，随后将实体移出持久化上下文
+     */
+    private TodoResponse next(Iterator<Todo> todos) {
+        Todo todo = todos.next();
+        TodoResponse response = TodoService.convertToResponse(todo);
+        entityManager.detach(todo);
+        return response;
+    }
+
+    /**
+     * 含逗号、引号或换行的字段加引号，引号转义为两个引号
+     */
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String formatDateTime(LocalDateTime value) {
+        return value == null ? null : value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
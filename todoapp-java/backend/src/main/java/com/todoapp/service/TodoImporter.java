@@ -0,0 +1,409 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.todoapp.dto.BatchItemResult;
+import com.todoapp.dto.ImportResponse;
+import com.todoapp.dto.TodoDTO;
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 流式导入
+ * 请求线程逐行解析、校验并攒批，写入线程逐批独立提交；两者之间是有界队列，
+ * 数据库写入跟不上时解析线程阻塞、停止读取请求体，内存占用只取决于批大小、队列容量和单条记录的上限，与上传大小无关。
+ * 每个导入占用一个写入线程，同时进行的导入数达到上限时直接拒绝
+ */
+@Component
+public class TodoImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoImporter.class);
+
+    /**
+     * 响应中保留的被拒绝行数
+     */
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    /**
+     * 单条记录（CSV 记录或 NDJSON 行）的最大字符数
+     */
+    static final int MAX_RECORD_CHARS = 1 << 20;
+
+    /**
+     * 队列结束标记
+     */
+    private static final List<Todo> END = Collections.emptyList();
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader lineReader;
+    private final Validator validator;
+    private final TodoBatchRepository todoBatchRepository;
+    private final TodoCounter todoCounter;
+    private final TodoStats todoStats;
+    private final TodoReminderScheduler todoReminderScheduler;
+    private final TodoEventBroadcaster todoEventBroadcaster;
+    private final TodoTableVersion todoTableVersion;
+    private final TodoOutbox todoOutbox;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final ExecutorService writers;
+    private final Semaphore importSlots;
+
+    public TodoImporter(ObjectMapper objectMapper, Validator validator, TodoBatchRepository todoBatchRepository,
+                        TodoCounter todoCounter, TodoStats todoStats, TodoReminderScheduler todoReminderScheduler,
+                        TodoEventBroadcaster todoEventBroadcaster, TodoTableVersion todoTableVersion, TodoOutbox todoOutbox,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${todoapp.import.batch-size:1000}") int batchSize,
+                        @Value("${todoapp.import.queue-capacity:4}") int queueCapacity,
+                        @Value("${todoapp.import.max-concurrent:4}") int maxConcurrent) {
+        this.objectMapper = objectMapper;
+        this.lineReader = objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.validator = validator;
+        this.todoBatchRepository = todoBatchRepository;
+        this.todoCounter = todoCounter;
+        this.todoStats = todoStats;
+        this.todoReminderScheduler = todoReminderScheduler;
+        this.todoEventBroadcaster = todoEventBroadcaster;
+        this.todoTableVersion = todoTableVersion;
+        this.todoOutbox = todoOutbox;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(maxConcurrent, r -> {
+            Thread thread = new Thread(r, "todo-import-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.importSlots = new Semaphore(maxConcurrent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    /**
+     * 从输入流导入待办事项
+     * 不合法的行被拒绝并继续；输入本身无法解析时中止，已提交的批次保留；
+     * 同时进行的导入数已达上限时抛出 RejectedExecutionException
+     */
+    public ImportResponse importTodos(InputStream in, DataFormat format) throws IOException {
+        // 写入线程全部占用时直接拒绝，而不是让请求线程解析到队列满后一直等待
+        if (!importSlots.tryAcquire()) {
+            throw new RejectedExecutionException("Too many imports in progress, retry later");
+        }
+        Session session = new Session();
+        try {
+            session.writer = writers.submit(TenantContext.wrap(() -> {
+                try {
+                    return session.drain();
+                } finally {
+                    importSlots.release();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            importSlots.release();
+            throw e;
+        }
+        String error = null;
+        long accepted;
+        try {
+            try {
+                switch (format) {
+                    case CSV:
+                        readCsv(in, session);
+                        break;
+                    case NDJSON:
+                    default:
+                        readNdjson(in, session);
+                        break;
+                }
+            } catch (ImportAbortedException e) {
+                error = e.getMessage();
+            } catch (WriterFailedException e) {
+                // 写入失败的原因由 awaitWriter 抛出
+            } finally {
+                session.finish();
+            }
+            accepted = awaitWriter(session.writer);
+        } finally {
+            todoCounter.resync();
+            if (session.committedCount > 0) {
+                todoEventBroadcaster.publish(TodoEventType.RESET, Map.of("reason", "import"));
+            }
+        }
+
+        log.info("Imported {} todos, rejected {}{}", accepted, session.rejectedCount,
+                error != null ? ", aborted: " + error : "");
+        return new ImportResponse(accepted, session.rejectedCount, session.rejected, error);
+    }
+
+    /**
+     * 逐行解析，每行先读入有上限的缓冲再建树，单行过长时中止，不会把整段输入读入内存；空行跳过
+     */
+    private void readNdjson(InputStream in, Session session) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder();
+        long lineNumber = 0;
+        while (readLine(reader, line, ++lineNumber)) {
+            String text = line.toString();
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = lineReader.readTree(text);
+            } catch (JsonProcessingException e) {
+                throw new ImportAbortedException("Malformed JSON at line " + lineNumber + ": " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                session.reject(Map.of("row", "每行必须是一个 JSON 对象"));
+                continue;
+            }
+
+            TodoDTO todoDTO;
+            try {
+                todoDTO = objectMapper.treeToValue(node, TodoDTO.class);
+            } catch (JsonProcessingException e) {
+                session.reject(Map.of("row", e.getOriginalMessage()));
+                continue;
+            }
+            session.accept(todoDTO, node.path("completed").asBoolean(false));
+        }
+    }
+
+    /**
+     * 读取一行（不含换行符）到 line；输入已结束时返回 false
+     */
+    private static boolean readLine(Reader reader, StringBuilder line, long lineNumber) throws IOException {
+        line.setLength(0);
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (line.length() == MAX_RECORD_CHARS) {
+                throw new ImportAbortedException("NDJSON line " + lineNumber + " exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+            line.append((char) c);
+        }
+        return c != -1 || line.length() > 0;
+    }
+
+    private void readCsv(InputStream in, Session session) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), MAX_RECORD_CHARS);
+        try {
+            Map<String, Integer> columns = readCsvHeader(reader.next());
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                Map<String, String> errors = new HashMap<>();
+                TodoDTO todoDTO = new TodoDTO();
+                todoDTO.setTitle(column(record, columns, "title"));
+                todoDTO.setDescription(column(record, columns, "description"));
+                String priority = column(record, columns, "priority");
+                if (priority != null) {
+                    todoDTO.setPriority(priority);
+                }
+                String dueDate = column(record, columns, "due_date");
+                if (dueDate != null) {
+                    try {
+                        todoDTO.setDueDate(LocalDateTime.parse(dueDate));
+                    } catch (DateTimeParseException e) {
+                        errors.put("due_date", "日期格式应为 yyyy-MM-ddTHH:mm:ss");
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    session.reject(errors);
+                    continue;
+                }
+                session.accept(todoDTO, Boolean.parseBoolean(column(record, columns, "completed")));
+            }
+        } catch (CsvRecordReader.MalformedCsvException e) {
+            throw new ImportAbortedException(e.getMessage());
+        }
+    }
+
+    /**
+     * 解析表头，列名不区分大小写，未知列忽略；必须包含 title 列
+     */
+    private static Map<String, Integer> readCsvHeader(List<String> header) {
+        if (header == null) {
+            throw new ImportAbortedException("CSV input is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new ImportAbortedException("CSV header must contain a title column");
+        }
+        return columns;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static long awaitWriter(Future<Long> writer) {
+        try {
+            return writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for import to finish", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Import failed", e.getCause());
+        }
+    }
+
+    /**
+     * 单次导入的状态：解析侧攒批并放入有界队列，写入侧逐批提交
+     */
+    private final class Session {
+
+        private final BlockingQueue<List<Todo>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final List<BatchItemResult> rejected = new ArrayList<>();
+        private List<Todo> batch = new ArrayList<>(batchSize);
+        private int rowIndex;
+        private long rejectedCount;
+        private Future<Long> writer;
+        /** 已提交的行数，写入失败时 Future 拿不到结果，由此判断是否有数据落库 */
+        private volatile long committedCount;
+
+        void accept(TodoDTO todoDTO, boolean completed) {
+            int index = rowIndex++;
+            Map<String, String> errors = TodoService.validate(validator, todoDTO);
+            if (!errors.isEmpty()) {
+                recordRejection(index, errors);
+                return;
+            }
+            batch.add(TodoService.newTodo(todoDTO, completed, LocalDateTime.now()));
+            if (batch.size() >= batchSize) {
+                enqueue(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        void reject(Map<String, String> errors) {
+            recordRejection(rowIndex++, errors);
+        }
+
+        private void recordRejection(int index, Map<String, String> errors) {
+            rejectedCount++;
+            if (rejected.size() < MAX_REPORTED_REJECTIONS) {
+                rejected.add(BatchItemResult.invalid(index, errors));
+            }
+        }
+
+        /**
+         * 放入队列；队列满时阻塞，写入线程失败时不再等待
+         */
+        private void enqueue(List<Todo> todos) {
+            try {
+                while (!queue.offer(todos, 100, TimeUnit.MILLISECONDS)) {
+                    if (writer.isDone()) {
+                        // 写入线程已失败，由 awaitWriter 抛出原因
+                        throw new WriterFailedException();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing import batch", e);
+            }
+        }
+
+        /**
+         * 提交剩余的行并通知写入线程结束
+         */
+        void finish() {
+            try {
+                if (!batch.isEmpty()) {
+                    enqueue(batch);
+                    batch = new ArrayList<>(0);
+                }
+                enqueue(END);
+            } catch (WriterFailedException e) {
+                // 写入线程已结束，无需通知
+            }
+        }
+
+        long drain() throws InterruptedException {
+            long accepted = 0;
+            while (true) {
+                List<Todo> todos = queue.take();
+                if (todos == END) {
+                    return accepted;
+                }
+                batchTransaction.executeWithoutResult(status -> {
+                    todoBatchRepository.insertAll(todos);
+                    todoOutbox.append(TodoEventType.RESET, null, TodoOutbox.rangePayload("import", todos));
+                    todoTableVersion.bump();
+                });
+                todoStats.onCreated(todos);
+                todoReminderScheduler.onSaved(todos);
+                accepted += todos.size();
+                committedCount = accepted;
+            }
+        }
+    }
+
+    /**
+     * 输入无法继续解析，中止导入
+     */
+    private static final class ImportAbortedException extends RuntimeException {
+        ImportAbortedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 写入线程已经结束，停止解析
+     */
+    private static final class WriterFailedException extends RuntimeException {
+    }
+}
@@ -0,0 +1,75 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.entity.Todo;
+import com.todoapp.entity.TodoOutboxEvent;
+import com.todoapp.repository.TodoOutboxRepository;
+import com.todoapp.tenant.TenantContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 事务发件箱：变更事件与待办事项的变更在同一事务中写入 todo_outbox，由 TodoOutboxRelay 异步投递
+ * 没有订阅者时不写入。批量变更事件（reset）带有受影响的主键范围，订阅者据此重新读取或删除
+ */
+@Component
+public class TodoOutbox {
+
+    private final TodoOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public TodoOutbox(TodoOutboxRepository outboxRepository, ObjectMapper objectMapper,
+                      List<TodoOutboxSubscriber> subscribers) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = !subscribers.isEmpty();
+    }
+
+    static final String REASON = "reason";
+    static final String FROM_ID = "from_id";
+    static final String TO_ID = "to_id";
+    static final String COMPLETED_ONLY = "completed_only";
+
+    /**
+     * 批量写入的 reset 事件数据：原因和新写入待办事项的主键范围 [from_id, to_id)
+     */
+    static Map<String, Object> rangePayload(String reason, List<Todo> todos) {
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (Todo todo : todos) {
+            from = Math.min(from, todo.getId());
+            to = Math.max(to, todo.getId() + 1);
+        }
+        return Map.of(REASON, reason, FROM_ID, from, TO_ID, to);
+    }
+
+    /**
+     * 分块删除的 reset 事件数据：主键在 [from_id, to_id) 范围内的（completed_only 时只有已完成的）待办事项已删除
+     */
+    static Map<String, Object> purgePayload(long fromId, long toId, boolean completedOnly) {
+        return Map.of(REASON, "purge", FROM_ID, fromId, TO_ID, toId, COMPLETED_ONLY, completedOnly);
+    }
+
+    /**
+     * 在当前事务中写入当前租户的事件，aggregateId 为空表示批量变更；必须在写事务内调用
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(TodoEventType type, Long aggregateId, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + type.getEventName() + " event", e);
+        }
+        outboxRepository.save(new TodoOutboxEvent(TenantContext.current(), aggregateId, type.getEventName(), data));
+    }
+}
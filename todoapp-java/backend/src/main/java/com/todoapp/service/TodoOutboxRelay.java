@@ -0,0 +1,253 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.TodoOutboxEvent;
+import com.todoapp.repository.TodoOutboxLeaseRepository;
+import com.todoapp.repository.TodoOutboxRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 发件箱投递：定时按写入顺序逐批读取各分片的 todo_outbox，交给所有 TodoOutboxSubscriber，投递成功后删除
+ * 按待办事项ID分到多个投递线程，同一待办事项的事件在同一线程上按顺序投递；批量变更事件（无待办事项ID）
+ * 等之前的事件投递完才投递。失败的事件连同同一待办事项之后的事件留在表中，下次重试，超过次数后丢弃
+ * 每个分片同一时刻只有持有 todo_outbox_lease 租约的进程投递，多个实例可以都开启投递，持有者退出后由其他实例接管
+ */
+@Component
+public class TodoOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoOutboxRelay.class);
+
+    static final String LEASE = "relay";
+
+    private final TodoOutboxRepository outboxRepository;
+    private final TodoOutboxLeaseRepository leaseRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final List<TodoOutboxSubscriber> subscribers;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int lanes;
+    private final long leaseMillis;
+    private final ExecutorService executor;
+
+    /**
+     * 本进程的租约持有者标识
+     */
+    private final String owner = UUID.randomUUID().toString();
+
+    public TodoOutboxRelay(TodoOutboxRepository outboxRepository, TodoOutboxLeaseRepository leaseRepository,
+                           ShardRouter shardRouter, PlatformTransactionManager transactionManager,
+                           List<TodoOutboxSubscriber> subscribers,
+                           @Value("${todoapp.outbox.relay-enabled:true}") boolean enabled,
+                           @Value("${todoapp.outbox.batch-size:500}") int batchSize,
+                           @Value("${todoapp.outbox.max-attempts:10}") int maxAttempts,
+                           @Value("${todoapp.outbox.lanes:4}") int lanes,
+                           @Value("${todoapp.outbox.lease-ms:30000}") long leaseMillis) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.shardRouter = shardRouter;
+        // 不设只读：读取和删除都走主库
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.subscribers = subscribers;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lanes = lanes;
+        this.leaseMillis = leaseMillis;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(lanes, r -> {
+            Thread thread = new Thread(r, "todo-outbox-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${todoapp.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!enabled || subscribers.isEmpty()) {
+            return;
+        }
+        for (String shard : shardRouter.getShards()) {
+            try {
+                shardRouter.runOnShard(shard, this::drain);
+            } catch (RuntimeException e) {
+                log.warn("Failed to relay outbox events on shard {}", shard, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (!enabled || subscribers.isEmpty()) {
+            return;
+        }
+        for (String shard : shardRouter.getShards()) {
+            try {
+                shardRouter.runOnShard(shard, () -> transaction.executeWithoutResult(status ->
+                        leaseRepository.release(LEASE, owner, LocalDateTime.now())));
+            } catch (RuntimeException e) {
+                log.warn("Failed to release outbox lease on shard {}", shard, e);
+            }
+        }
+    }
+
+    /**
+     * 逐批投递当前分片的事件，直到取空、有事件投递失败或未能持有租约；每批之前续约
+     */
+    void drain() {
+        while (true) {
+            if (!acquireLease()) {
+                return;
+            }
+            List<TodoOutboxEvent> batch = transaction.execute(status ->
+                    outboxRepository.findOldest(PageRequest.of(0, batchSize)));
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            Outcome outcome = dispatch(batch);
+            transaction.executeWithoutResult(status -> {
+                if (!outcome.delivered.isEmpty()) {
+                    outboxRepository.deleteByIds(List.copyOf(outcome.delivered));
+                }
+                if (!outcome.failed.isEmpty()) {
+                    outboxRepository.incrementAttempts(List.copyOf(outcome.failed));
+                }
+            });
+            if (outcome.delivered.size() < batch.size() || batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 取得或续约当前分片的投递租约，租约由其他进程持有且未到期时返回 false
+     */
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseMillis, ChronoUnit.MILLIS);
+        Integer acquired = transaction.execute(status -> leaseRepository.acquire(LEASE, owner, now, expiresAt));
+        if (acquired != null && acquired > 0) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(transaction.execute(status -> leaseRepository.existsById(LEASE)))) {
+            return false;
+        }
+        try {
+            transaction.executeWithoutResult(status -> leaseRepository.create(LEASE, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // 其他进程同时创建了租约行
+            return false;
+        }
+    }
+
+    /**
+     * 在批量变更事件处切分，每段内按待办事项ID分线程投递；某段有失败时不再投递之后的事件
+     */
+    private Outcome dispatch(List<TodoOutboxEvent> batch) {
+        Outcome outcome = new Outcome();
+        int from = 0;
+        for (int i = 0; i <= batch.size(); i++) {
+            if (i < batch.size() && batch.get(i).getAggregateId() != null) {
+                continue;
+            }
+            dispatchInLanes(batch.subList(from, i), outcome);
+            if (outcome.delivered.size() < i) {
+                break;
+            }
+            if (i < batch.size() && !deliver(batch.get(i), outcome)) {
+                break;
+            }
+            from = i + 1;
+        }
+        return outcome;
+    }
+
+    private void dispatchInLanes(List<TodoOutboxEvent> events, Outcome outcome) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<List<TodoOutboxEvent>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (TodoOutboxEvent event : events) {
+            byLane.get(Math.floorMod(Long.hashCode(event.getAggregateId()), lanes)).add(event);
+        }
+        List<CompletableFuture<Void>> running = new ArrayList<>(lanes);
+        for (List<TodoOutboxEvent> lane : byLane) {
+            if (!lane.isEmpty()) {
+                running.add(CompletableFuture.runAsync(() -> deliverInOrder(lane, outcome), executor));
+            }
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * 依次投递一个线程上的事件，某个待办事项失败后跳过它之后的事件
+     */
+    private void deliverInOrder(List<TodoOutboxEvent> lane, Outcome outcome) {
+        Set<Long> blocked = new HashSet<>();
+        for (TodoOutboxEvent event : lane) {
+            if (!blocked.contains(event.getAggregateId()) && !deliver(event, outcome)) {
+                blocked.add(event.getAggregateId());
+            }
+        }
+    }
+
+    private boolean deliver(TodoOutboxEvent event, Outcome outcome) {
+        try {
+            TenantContext.run(event.getTenantId(), () -> {
+                for (TodoOutboxSubscriber subscriber : subscribers) {
+                    subscriber.onEvent(event);
+                }
+            });
+            outcome.delivered.add(event.getId());
+            return true;
+        } catch (RuntimeException e) {
+            if (event.getAttempts() + 1 >= maxAttempts) {
+                log.error("Dropping outbox event {} ({} of todo {}) after {} attempts", event.getId(),
+                        event.getEventType(), event.getAggregateId(), maxAttempts, e);
+                outcome.delivered.add(event.getId());
+            } else {
+                log.warn("Failed to deliver outbox event {} ({} of todo {}), will retry", event.getId(),
+                        event.getEventType(), event.getAggregateId(), e);
+                outcome.failed.add(event.getId());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 一批事件的投递结果：已投递（含超过重试次数被丢弃的）和失败待重试的事件ID；其余的未投递
+     */
+    private static final class Outcome {
+        private final ConcurrentLinkedQueue<Long> delivered = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Long> failed = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,13 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.TodoOutboxEvent;
+
+/**
+ * 发件箱事件的订阅者，实现注册为 Spring Bean 即可接收
+ * 同一待办事项的事件按提交顺序投递，不同待办事项的事件可能在不同线程上并发投递；
+ * 抛出异常时该事件连同同一待办事项之后的事件稍后重试（至少一次投递），实现应当幂等
+ */
+public interface TodoOutboxSubscriber {
+
+    void onEvent(TodoOutboxEvent event);
+}
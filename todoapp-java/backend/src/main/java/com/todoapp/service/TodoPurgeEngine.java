@@ -0,0 +1,257 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.PurgeJobResponse;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * 分块清理引擎
+ * 按主键分块删除，每块先按数据查出接下来 chunkSize 条的主键再删除该范围，独立提交，避免长事务和整表锁；
+ * 主键在各租户间共享，按数据定位而不是按主键步进，小租户不会产生大量空块。可同步执行或作为后台任务执行
+ * 只清理当前租户的数据，后台任务在提交任务的租户下执行
+ */
+@Component
+public class TodoPurgeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoPurgeEngine.class);
+
+    /**
+     * 保留的历史任务数
+     */
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final TodoCounter todoCounter;
+    private final TodoStats todoStats;
+    private final TodoReminderScheduler todoReminderScheduler;
+    private final TodoCache todoCache;
+    private final TodoEventBroadcaster todoEventBroadcaster;
+    private final TodoTableVersion todoTableVersion;
+    private final TodoOutbox todoOutbox;
+    private final TodoToggleBuffer todoToggleBuffer;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    /**
+     * 按提交顺序保存的任务，访问时对自身加锁
+     */
+    private final Map<String, PurgeJob> jobs = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "todo-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TodoPurgeEngine(TodoRepository todoRepository,
+                           PlatformTransactionManager transactionManager,
+                           TodoCounter todoCounter,
+                           TodoStats todoStats,
+                           TodoReminderScheduler todoReminderScheduler,
+                           TodoCache todoCache,
+                           TodoEventBroadcaster todoEventBroadcaster,
+                           TodoTableVersion todoTableVersion,
+                           TodoOutbox todoOutbox,
+                           TodoToggleBuffer todoToggleBuffer,
+                           @Value("${todoapp.purge.chunk-size:1000}") int chunkSize,
+                           @Value("${todoapp.purge.pause-ms:0}") long pauseMillis) {
+        this.todoRepository = todoRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.todoCounter = todoCounter;
+        this.todoStats = todoStats;
+        this.todoReminderScheduler = todoReminderScheduler;
+        this.todoCache = todoCache;
+        this.todoEventBroadcaster = todoEventBroadcaster;
+        this.todoTableVersion = todoTableVersion;
+        this.todoOutbox = todoOutbox;
+        this.todoToggleBuffer = todoToggleBuffer;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * 同步清理，返回删除条数
+     */
+    public long purge(PurgeScope scope) {
+        return purge(scope, deleted -> {});
+    }
+
+    /**
+     * 提交后台清理任务
+     */
+    public PurgeJobResponse submit(PurgeScope scope) {
+        PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), TenantContext.current(), scope);
+        retain(job);
+        executor.execute(TenantContext.wrap(() -> {
+            job.status = "RUNNING";
+            try {
+                purge(scope, job.deletedCount::addAndGet);
+                job.status = "COMPLETED";
+            } catch (RuntimeException e) {
+                log.error("Purge job {} failed", job.id, e);
+                job.error = e.getMessage();
+                job.status = "FAILED";
+            } finally {
+                job.finishedAt = LocalDateTime.now();
+            }
+        }));
+        return job.toResponse();
+    }
+
+    /**
+     * 查询任务进度，任务不存在或属于其他租户时返回 null
+     */
+    public PurgeJobResponse getJob(String jobId) {
+        PurgeJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        return job == null || !job.tenant.equals(TenantContext.current()) ? null : job.toResponse();
+    }
+
+    private long purge(PurgeScope scope, LongConsumer progress) {
+        Boolean completed = scope == PurgeScope.COMPLETED ? Boolean.TRUE : null;
+        String tenant = TenantContext.current();
+        // 按数据库中的完成状态删除，先写入未写入的切换
+        todoToggleBuffer.flushTenant();
+        long total = 0;
+        try {
+            long from = 0;
+            while (true) {
+                long fromId = from;
+                Chunk chunk = chunkTransaction.execute(status -> {
+                    List<Long> ids = todoRepository.findIdsFrom(tenant, completed, fromId, PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) {
+                        return null;
+                    }
+                    long first = ids.get(0);
+                    long end = ids.get(ids.size() - 1) + 1;
+                    int count = scope == PurgeScope.COMPLETED
+                            ? todoRepository.deleteCompletedByIdRange(tenant, first, end)
+                            : todoRepository.deleteByIdRange(tenant, first, end);
+                    if (count > 0) {
+                        todoOutbox.append(TodoEventType.RESET, null,
+                                TodoOutbox.purgePayload(first, end, scope == PurgeScope.COMPLETED));
+                        todoTableVersion.bump();
+                    }
+                    return new Chunk(first, end, ids.size(), count);
+                });
+                if (chunk == null) {
+                    break;
+                }
+                if (chunk.deleted > 0) {
+                    todoReminderScheduler.onRangeDeleted(chunk.fromId, chunk.toId, scope == PurgeScope.COMPLETED);
+                    total += chunk.deleted;
+                    progress.accept(chunk.deleted);
+                }
+                if (chunk.found < chunkSize) {
+                    break;
+                }
+                from = chunk.toId;
+                pause();
+            }
+            log.info("Purged {} todos (scope: {})", total, scope);
+            return total;
+        } finally {
+            // 分块提交期间可能有其他写入，结束后以数据库为准
+            todoCache.clear();
+            todoCounter.resync();
+            todoStats.invalidate();
+            if (total > 0) {
+                todoEventBroadcaster.publish(TodoEventType.RESET, Map.of("reason", "purge"));
+            }
+        }
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Purge interrupted", e);
+        }
+    }
+
+    /**
+     * 超出保留数时从最早提交的任务开始移除已结束的任务
+     */
+    private void retain(PurgeJob job) {
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<PurgeJob> it = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && it.hasNext()) {
+                if (it.next().finishedAt != null) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一块的删除结果：主键范围 [fromId, toId)、定位到的行数和实际删除的行数
+     */
+    private static final class Chunk {
+        private final long fromId;
+        private final long toId;
+        private final int found;
+        private final int deleted;
+
+        private Chunk(long fromId, long toId, int found, int deleted) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.found = found;
+            this.deleted = deleted;
+        }
+    }
+
+    private static final class PurgeJob {
+        private final String id;
+        private final String tenant;
+        private final PurgeScope scope;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong deletedCount = new AtomicLong();
+        private volatile String status = "PENDING";
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private PurgeJob(String id, String tenant, PurgeScope scope) {
+            this.id = id;
+            this.tenant = tenant;
+            this.scope = scope;
+        }
+
+        private PurgeJobResponse toResponse() {
+            return new PurgeJobResponse(id, scope.name().toLowerCase(), status,
+                    deletedCount.get(), startedAt, finishedAt, error);
+        }
+    }
+}
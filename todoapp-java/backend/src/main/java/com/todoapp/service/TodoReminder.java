@@ -0,0 +1,25 @@
+package com.todoapp.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 到期提醒：租户、待办事项ID及其截止日期
+ */
+public class TodoReminder {
+
+    private final String tenant;
+    private final Long id;
+    private final LocalDateTime dueDate;
+
+    public TodoReminder(String tenant, Long id, LocalDateTime dueDate) {
+        this.tenant = tenant;
+        this.id = id;
+        this.dueDate = dueDate;
+    }
+
+    public String getTenant() { return tenant; }
+
+    public Long getId() { return id; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+}
@@ -0,0 +1,324 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoDueDate;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 截止日期到期提醒：未到期的截止日期保存在内存的分层时间轮中，到期时交给所有 TodoReminderSink
+ * 启动时按 (tenant_id, due_date) 索引范围查询构建，之后由各写入路径在事务提交后增量维护，无需轮询数据库。
+ * 已完成的待办事项也保留在时间轮中（到期时跳过），这样切换回未完成时无需查询截止日期
+ */
+@Component
+public class TodoReminderScheduler implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoReminderScheduler.class);
+
+    private final TodoRepository todoRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readTransaction;
+    private final List<TodoReminderSink> sinks;
+    private final long tickMillis;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel<Pending> wheel;
+    /**
+     * 按租户、按ID有序保存，范围删除只遍历范围内的提醒：主键在所有租户间递增，一个范围可能跨越大量其他租户的ID
+     */
+    private final Map<String, NavigableMap<Long, Pending>> pending = new HashMap<>();
+
+    /**
+     * 全量构建完成前被增量路径写过的租户和ID，构建时跳过，避免用旧数据覆盖新数据；构建完成后为 null
+     */
+    private volatile Set<String> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong firedCount = new AtomicLong();
+
+    @Autowired
+    public TodoReminderScheduler(TodoRepository todoRepository, ShardRouter shardRouter,
+                                 PlatformTransactionManager transactionManager, List<TodoReminderSink> sinks,
+                                 @Value("${todoapp.reminders.tick-ms:1000}") long tickMillis) {
+        this(todoRepository, shardRouter, transactionManager, sinks, tickMillis, Clock.systemDefaultZone());
+    }
+
+    TodoReminderScheduler(TodoRepository todoRepository, ShardRouter shardRouter,
+                          PlatformTransactionManager transactionManager, List<TodoReminderSink> sinks,
+                          long tickMillis, Clock clock) {
+        this.todoRepository = todoRepository;
+        this.shardRouter = shardRouter;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.sinks = sinks;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(clock.millis() / tickMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread thread = new Thread(this::build, "todo-reminder-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从数据库读取截止日期尚未到达的待办事项（逐个分片、逐个租户），可与增量写入并发执行；只执行一次
+     */
+    void build() {
+        Set<String> touched = touchedDuringBuild;
+        if (touched == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            for (String shard : shardRouter.getShards()) {
+                shardRouter.runOnShard(shard, () -> {
+                    for (String tenant : readTransaction.execute(status -> todoRepository.findTenantIds())) {
+                        // 迁移中残留在原分片上的租户数据不属于该分片，跳过
+                        if (shard.equals(shardRouter.shardOf(tenant))) {
+                            TenantContext.run(tenant, () -> buildTenant(tenant, now, touched));
+                        }
+                    }
+                });
+            }
+            log.info("Scheduled {} todo reminders in {} ms", getPendingCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to build todo reminders", e);
+        } finally {
+            touchedDuringBuild = null;
+        }
+    }
+
+    private void buildTenant(String tenant, LocalDateTime now, Set<String> touched) {
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<TodoDueDate> rows = todoRepository.streamDueAfter(tenant, now)) {
+                rows.forEach(row -> {
+                    lock.lock();
+                    try {
+                        if (!touched.contains(keyOf(tenant, row.getId()))) {
+                            schedule(tenant, row.getId(), Boolean.TRUE.equals(row.getCompleted()), row.getDueDate());
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                });
+            }
+        });
+    }
+
+    public void onSaved(Todo todo) {
+        onSaved(List.of(todo));
+    }
+
+    /**
+     * 新建或更新后的待办事项，按新的截止日期重新安排；没有截止日期或已过期时取消
+     */
+    public void onSaved(List<Todo> todos) {
+        String tenant = TenantContext.current();
+        List<TodoDueDate> saved = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            saved.add(new TodoDueDate(todo.getId(), todo.getCompleted(), todo.getDueDate()));
+        }
+        TransactionHooks.afterCommit(() -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            withLock(() -> {
+                for (TodoDueDate todo : saved) {
+                    touch(tenant, todo.getId());
+                    if (todo.getDueDate() != null && todo.getDueDate().isAfter(now)) {
+                        schedule(tenant, todo.getId(), Boolean.TRUE.equals(todo.getCompleted()), todo.getDueDate());
+                    } else {
+                        cancel(tenant, todo.getId());
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * 完成状态切换，只修改标记，不移动定时器
+     */
+    public void onCompletedChanged(Long id, boolean completed) {
+        String tenant = TenantContext.current();
+        TransactionHooks.afterCommit(() -> withLock(() -> {
+            Pending reminder = pendingOf(tenant).get(id);
+            if (reminder != null) {
+                reminder.completed = completed;
+            }
+        }));
+    }
+
+    public void onDeleted(Long id) {
+        String tenant = TenantContext.current();
+        TransactionHooks.afterCommit(() -> withLock(() -> {
+            touch(tenant, id);
+            cancel(tenant, id);
+        }));
+    }
+
+    /**
+     * 当前租户主键在 [fromId, toId) 范围内的待办事项已删除，completedOnly 时只删除了已完成的
+     */
+    public void onRangeDeleted(long fromId, long toId, boolean completedOnly) {
+        String tenant = TenantContext.current();
+        withLock(() -> {
+            Iterator<Pending> reminders = pendingOf(tenant).subMap(fromId, true, toId, false).values().iterator();
+            while (reminders.hasNext()) {
+                Pending reminder = reminders.next();
+                if (!completedOnly || reminder.completed) {
+                    reminders.remove();
+                    wheel.remove(reminder);
+                }
+            }
+        });
+    }
+
+    /**
+     * 推进时间轮，把到期且未完成的提醒交给各个 sink；sink 在锁外调用
+     */
+    @Scheduled(fixedDelayString = "${todoapp.reminders.tick-ms:1000}")
+    public void advance() {
+        List<Pending> expired = new ArrayList<>();
+        withLock(() -> wheel.advance(clock.millis() / tickMillis, reminder -> {
+            pendingOf(reminder.tenant).remove(reminder.id);
+            if (!reminder.completed) {
+                expired.add(reminder);
+            }
+        }));
+        for (Pending reminder : expired) {
+            TodoReminder due = new TodoReminder(reminder.tenant, reminder.id, reminder.dueDate);
+            for (TodoReminderSink sink : sinks) {
+                try {
+                    sink.remind(due);
+                } catch (RuntimeException e) {
+                    log.warn("Reminder sink {} failed for todo {}", sink.getClass().getSimpleName(), reminder.id, e);
+                }
+            }
+            firedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 时间轮中的提醒数，包括已完成的待办事项
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getFiredCount() { return firedCount.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todoapp.reminders.pending", this, TodoReminderScheduler::getPendingCount)
+                .register(registry);
+        FunctionCounter.builder("todoapp.reminders.fired", firedCount, AtomicLong::get)
+                .register(registry);
+    }
+
+    /**
+     * 调用方持有 lock
+     */
+    private void schedule(String tenant, Long id, boolean completed, LocalDateTime dueDate) {
+        NavigableMap<Long, Pending> tenantPending = pendingOf(tenant);
+        Pending reminder = tenantPending.get(id);
+        if (reminder == null) {
+            reminder = new Pending(tenant, id);
+        }
+        reminder.completed = completed;
+        reminder.dueDate = dueDate;
+        long dueMillis = dueDate.atZone(clock.getZone()).toInstant().toEpochMilli();
+        // 向上取整到刻度，宁可晚一个刻度也不提前提醒
+        if (wheel.add(reminder, -Math.floorDiv(-dueMillis, tickMillis))) {
+            tenantPending.put(id, reminder);
+        } else {
+            tenantPending.remove(id);
+        }
+    }
+
+    /**
+     * 调用方持有 lock
+     */
+    private void cancel(String tenant, Long id) {
+        Pending reminder = pendingOf(tenant).remove(id);
+        if (reminder != null) {
+            wheel.remove(reminder);
+        }
+    }
+
+    private NavigableMap<Long, Pending> pendingOf(String tenant) {
+        return pending.computeIfAbsent(tenant, t -> new TreeMap<>());
+    }
+
+    private void touch(String tenant, Long id) {
+        Set<String> touched = touchedDuringBuild;
+        if (touched != null) {
+            touched.add(keyOf(tenant, id));
+        }
+    }
+
+    private void withLock(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String keyOf(String tenant, Long id) {
+        return tenant + ":" + id;
+    }
+
+    /**
+     * 一条待提醒的待办事项
+     */
+    private static final class Pending extends TimingWheel.Timer {
+        private final String tenant;
+        private final Long id;
+        private boolean completed;
+        private LocalDateTime dueDate;
+
+        private Pending(String tenant, Long id) {
+            this.tenant = tenant;
+            this.id = id;
+        }
+    }
+}
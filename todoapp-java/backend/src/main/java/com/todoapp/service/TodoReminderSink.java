@@ -0,0 +1,10 @@
+package com.todoapp.service;
+
+/**
+ * 到期提醒的去向，实现注册为 Spring Bean 即可接收提醒
+ * 在时间轮的推进线程上依次调用，应尽快返回，耗时的投递需自行转交其他线程
+ */
+public interface TodoReminderSink {
+
+    void remind(TodoReminder reminder);
+}
@@ -0,0 +1,426 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cjk.CJKBigramFilter;
+import org.apache.lucene.analysis.cjk.CJKWidthFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 标题和描述的全文索引（Lucene，进程内）
+ * 中文按单字和相邻二字切分建立索引，查询时按二字匹配，无需分词词典；按 BM25 排序，标题权重更高。
+ * 启动时从数据库全量构建，之后由 SearchIndexOutboxSubscriber 按发件箱事件增量维护，不占用请求线程；
+ * 写入在投递（默认每 500 毫秒）和刷新（默认每秒）后对搜索可见。
+ * 所有租户共用一个索引，文档按租户和ID标识，查询和删除都限定在当前租户内
+ */
+@Component
+public class TodoSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoSearchIndex.class);
+
+    static final String ID = "id";
+    static final String TENANT = "tenant";
+    /** 租户和ID组成的文档键，不同分片上的ID可能重复 */
+    static final String KEY = "key";
+    static final String ID_RANGE = "id_range";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String COMPLETED = "completed";
+
+    private static final float TITLE_BOOST = 2.0f;
+
+    /**
+     * 写入缓冲，越大刷新出的段越少，全量构建越快
+     */
+    private static final double RAM_BUFFER_MB = 64;
+
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readTransaction;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final QueryBuilder queryBuilder = new QueryBuilder(new CjkAnalyzer(false));
+
+    /**
+     * 全量构建完成前被增量路径写过的文档键，构建时跳过，避免用旧数据覆盖新数据；构建完成后为 null
+     */
+    private volatile Set<String> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    /**
+     * 全量构建完成前只更新过完成状态的文档键及其最新状态，构建写入这些文档时以此为准；构建完成后为 null
+     */
+    private volatile Map<String, Boolean> completedDuringBuild = new ConcurrentHashMap<>();
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    public TodoSearchIndex(TodoRepository todoRepository, EntityManager entityManager, ShardRouter shardRouter,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${todoapp.search.index-dir:}") String indexDir) throws IOException {
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.directory = indexDir == null || indexDir.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(new CjkAnalyzer(true))
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setRAMBufferSizeMB(RAM_BUFFER_MB));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread thread = new Thread(this::build, "todo-search-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从数据库全量构建索引（逐个分片、逐个租户读取），可与增量写入并发执行；只执行一次
+     */
+    void build() {
+        Set<String> touched = touchedDuringBuild;
+        Map<String, Boolean> completed = completedDuringBuild;
+        if (touched == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        long[] count = {0};
+        try {
+            for (String shard : shardRouter.getShards()) {
+                shardRouter.runOnShard(shard, () -> {
+                    for (String tenant : readTransaction.execute(status -> todoRepository.findTenantIds())) {
+                        // 迁移中残留在原分片上的租户数据不属于该分片，跳过
+                        if (shard.equals(shardRouter.shardOf(tenant))) {
+                            TenantContext.run(tenant, () -> count[0] += buildTenant(tenant, touched, completed));
+                        }
+                    }
+                });
+            }
+            ready = true;
+            refresh();
+            log.info("Built search index with {} todos in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to build search index", e);
+        } finally {
+            buildLock.lock();
+            try {
+                touchedDuringBuild = null;
+                completedDuringBuild = null;
+            } finally {
+                buildLock.unlock();
+            }
+        }
+    }
+
+    private long buildTenant(String tenant, Set<String> touched, Map<String, Boolean> completed) {
+        long[] count = {0};
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<Todo> todos = todoRepository.streamAllOrderById(tenant, null)) {
+                todos.forEach(todo -> {
+                    buildLock.lock();
+                    try {
+                        String key = keyOf(tenant, todo.getId());
+                        if (!touched.contains(key)) {
+                            write(todo, completed.getOrDefault(key, Boolean.TRUE.equals(todo.getCompleted())), false);
+                        }
+                    } finally {
+                        buildLock.unlock();
+                    }
+                    entityManager.detach(todo);
+                    count[0]++;
+                });
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * 全量构建是否已完成；完成前的搜索结果可能不完整
+     */
+    public boolean isReady() { return ready; }
+
+    public void index(Todo todo) {
+        touch(keyOf(tenantOf(todo), todo.getId()), null,
+                () -> write(todo, Boolean.TRUE.equals(todo.getCompleted()), true));
+    }
+
+    public void indexAll(List<Todo> todos) {
+        for (Todo todo : todos) {
+            index(todo);
+        }
+    }
+
+    /**
+     * 删除当前租户的文档
+     */
+    public void remove(Long id) {
+        remove(keyOf(TenantContext.current(), id));
+    }
+
+    /**
+     * 只更新当前租户文档的完成状态（doc values 原地更新，无需重新分词）
+     */
+    public void updateCompleted(Long id, boolean completed) {
+        updateCompleted(keyOf(TenantContext.current(), id), completed);
+    }
+
+    /**
+     * 删除当前租户主键在 [fromId, toId) 范围内的文档，completedOnly 时只删除已完成的
+     */
+    public void removeRange(long fromId, long toId, boolean completedOnly) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TENANT, TenantContext.current())), BooleanClause.Occur.FILTER)
+                .add(LongPoint.newRangeQuery(ID_RANGE, fromId, toId - 1), BooleanClause.Occur.FILTER);
+        if (completedOnly) {
+            query.add(NumericDocValuesField.newSlowExactQuery(COMPLETED, 1), BooleanClause.Occur.FILTER);
+        }
+        try {
+            writer.deleteDocuments(query.build());
+        } catch (IOException e) {
+            log.warn("Failed to remove ids [{}, {}) from search index", fromId, toId, e);
+        }
+    }
+
+    /**
+     * 在当前租户内搜索标题和描述，返回按相关度排序的ID
+     * 查询中的每个词都必须出现在标题或描述中；completed 为空时不过滤
+     */
+    public Hits search(String text, Boolean completed, int limit) {
+        Query title = queryBuilder.createBooleanQuery(TITLE, text, BooleanClause.Occur.MUST);
+        Query description = queryBuilder.createBooleanQuery(DESCRIPTION, text, BooleanClause.Occur.MUST);
+        if (title == null && description == null) {
+            return new Hits(List.of(), 0);
+        }
+
+        BooleanQuery.Builder matches = new BooleanQuery.Builder().setMinimumNumberShouldMatch(1);
+        if (title != null) {
+            matches.add(new BoostQuery(title, TITLE_BOOST), BooleanClause.Occur.SHOULD);
+        }
+        if (description != null) {
+            matches.add(description, BooleanClause.Occur.SHOULD);
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(matches.build(), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(TENANT, TenantContext.current())), BooleanClause.Occur.FILTER);
+        if (completed != null) {
+            query.add(NumericDocValuesField.newSlowExactQuery(COMPLETED, completed ? 1 : 0), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query.build(), limit);
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    ids.add(Long.parseLong(storedFields.document(scoreDoc.doc).get(ID)));
+                }
+                return new Hits(ids, top.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 使已写入的变更对搜索可见
+     */
+    @Scheduled(fixedDelayString = "${todoapp.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Failed to refresh search index", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void remove(String key) {
+        touch(key, null, () -> {
+            try {
+                writer.deleteDocuments(new Term(KEY, key));
+            } catch (IOException e) {
+                log.warn("Failed to remove todo {} from search index", key, e);
+            }
+        });
+    }
+
+    private void updateCompleted(String key, boolean completed) {
+        touch(key, completed, () -> {
+            try {
+                writer.updateNumericDocValue(new Term(KEY, key), COMPLETED, completed ? 1 : 0);
+            } catch (IllegalArgumentException e) {
+                // 索引中还没有任何文档（构建尚未写入），没有可更新的文档
+            } catch (IOException e) {
+                log.warn("Failed to update search index for todo {}", key, e);
+            }
+        });
+    }
+
+    private static String keyOf(String tenant, Long id) {
+        return tenant + "/" + id;
+    }
+
+    /**
+     * 实体自带租户；未设置时（尚未落库的临时对象）按当前租户处理
+     */
+    private static String tenantOf(Todo todo) {
+        return todo.getTenantId() != null ? todo.getTenantId() : TenantContext.current();
+    }
+
+    /**
+     * 增量写入；全量构建期间先登记文档键，与构建线程互斥
+     * completed 为空（写入或删除整个文档）时构建跳过该文档；否则只登记完成状态，
+     * 原地更新对构建尚未写入的文档不生效，由构建按登记的状态写入
+     */
+    private void touch(String key, Boolean completed, Runnable action) {
+        if (touchedDuringBuild == null) {
+            action.run();
+            return;
+        }
+        buildLock.lock();
+        try {
+            Set<String> touched = touchedDuringBuild;
+            if (touched != null) {
+                if (completed == null) {
+                    touched.add(key);
+                } else {
+                    completedDuringBuild.put(key, completed);
+                }
+            }
+            action.run();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * 写入文档；全量构建时索引为空且已跳过增量写过的ID，直接追加，省去按ID删除旧文档的查找
+     */
+    private void write(Todo todo, boolean completed, boolean replace) {
+        String tenant = tenantOf(todo);
+        String key = keyOf(tenant, todo.getId());
+        Document doc = new Document();
+        doc.add(new StringField(KEY, key, Field.Store.NO));
+        doc.add(new StringField(TENANT, tenant, Field.Store.NO));
+        doc.add(new StringField(ID, String.valueOf(todo.getId()), Field.Store.YES));
+        doc.add(new LongPoint(ID_RANGE, todo.getId()));
+        doc.add(new TextField(TITLE, todo.getTitle(), Field.Store.NO));
+        if (todo.getDescription() != null) {
+            doc.add(new TextField(DESCRIPTION, todo.getDescription(), Field.Store.NO));
+        }
+        doc.add(new NumericDocValuesField(COMPLETED, completed ? 1 : 0));
+        try {
+            if (replace) {
+                writer.updateDocument(new Term(KEY, key), doc);
+            } else {
+                writer.addDocument(doc);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to index todo {}", todo.getId(), e);
+        }
+    }
+
+    /**
+     * 搜索命中的ID（按相关度排序）及命中总数
+     */
+    public static final class Hits {
+        private final List<Long> ids;
+        private final long total;
+
+        Hits(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() { return ids; }
+
+        public long getTotal() { return total; }
+    }
+
+    /**
+     * 标准分词后统一全半角、转小写，中日韩文字切分为二字组
+     * 索引时同时输出单字，使单字查询也能命中
+     */
+    static final class CjkAnalyzer extends Analyzer {
+
+        private final boolean outputUnigrams;
+
+        CjkAnalyzer(boolean outputUnigrams) {
+            this.outputUnigrams = outputUnigrams;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer source = new StandardTokenizer();
+            TokenStream result = new CJKWidthFilter(source);
+            result = new LowerCaseFilter(result);
+            result = new CJKBigramFilter(result,
+                    CJKBigramFilter.HAN | CJKBigramFilter.HIRAGANA | CJKBigramFilter.KATAKANA | CJKBigramFilter.HANGUL,
+                    outputUnigrams);
+            return new TokenStreamComponents(source, result);
+        }
+    }
+}
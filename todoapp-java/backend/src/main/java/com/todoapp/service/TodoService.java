@@ -2,69 +2,282 @@ package com.todoapp.service;
 
 import com.todoapp.dto.*;
 import com.todoapp.entity.Todo;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.exception.ConflictException;
 import com.todoapp.exception.ResourceNotFoundException;
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.repository.TodoListRepository;
 import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatsRow;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
+@Timed("todoapp.service")
 public class TodoService {
 
     private static final Logger log = LoggerFactory.getLogger(TodoService.class);
 
+    /**
+     * 单次批量创建的最大条数
+     */
+    static final int MAX_BATCH_SIZE = 10000;
+
+    /**
+     * 切换状态时条件更新的最大重试轮数
+     */
+    private static final int MAX_TOGGLE_ATTEMPTS = 3;
+
+    /**
+     * 未带版本号的更新被并发修改时的最大尝试次数
+     */
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final TodoRepository todoRepository;
+    private final TodoCounter todoCounter;
+    private final TodoCache todoCache;
+    private final TodoBatchRepository todoBatchRepository;
+    private final TodoListRepository todoListRepository;
+    private final Validator validator;
+    private final TodoPurgeEngine todoPurgeEngine;
+    private final TodoExporter todoExporter;
+    private final TodoImporter todoImporter;
+    private final TodoSearchIndex todoSearchIndex;
+    private final TodoEventBroadcaster todoEventBroadcaster;
+    private final TodoTableVersion todoTableVersion;
+    private final TodoStats todoStats;
+    private final TodoReminderScheduler todoReminderScheduler;
+    private final TodoOutbox todoOutbox;
+    private final TodoToggleBuffer todoToggleBuffer;
 
-    public TodoService(TodoRepository todoRepository) {
+    /**
+     * 每次列表查询返回的行数
+     */
+    private final DistributionSummary offsetPageRows;
+    private final DistributionSummary cursorPageRows;
+
+    public TodoService(TodoRepository todoRepository, TodoCounter todoCounter, TodoCache todoCache,
+                       TodoBatchRepository todoBatchRepository, TodoListRepository todoListRepository,
+                       Validator validator,
+                       TodoPurgeEngine todoPurgeEngine, TodoExporter todoExporter,
+                       TodoImporter todoImporter, TodoSearchIndex todoSearchIndex,
+                       TodoEventBroadcaster todoEventBroadcaster, TodoTableVersion todoTableVersion,
+                       TodoStats todoStats, TodoReminderScheduler todoReminderScheduler,
+                       TodoOutbox todoOutbox, TodoToggleBuffer todoToggleBuffer,
+                       MeterRegistry meterRegistry) {
         this.todoRepository = todoRepository;
+        this.todoCounter = todoCounter;
+        this.todoCache = todoCache;
+        this.todoBatchRepository = todoBatchRepository;
+        this.todoListRepository = todoListRepository;
+        this.validator = validator;
+        this.todoPurgeEngine = todoPurgeEngine;
+        this.todoExporter = todoExporter;
+        this.todoImporter = todoImporter;
+        this.todoSearchIndex = todoSearchIndex;
+        this.todoEventBroadcaster = todoEventBroadcaster;
+        this.todoTableVersion = todoTableVersion;
+        this.todoStats = todoStats;
+        this.todoReminderScheduler = todoReminderScheduler;
+        this.todoOutbox = todoOutbox;
+        this.todoToggleBuffer = todoToggleBuffer;
+        this.offsetPageRows = listRowsSummary(meterRegistry, "offset");
+        this.cursorPageRows = listRowsSummary(meterRegistry, "cursor");
+    }
+
+    private static DistributionSummary listRowsSummary(MeterRegistry meterRegistry, String pagination) {
+        return DistributionSummary.builder("todoapp.todos.list.rows")
+                .description("Rows returned per list call")
+                .baseUnit("rows")
+                .tag("pagination", pagination)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
-     * 获取所有待办事项（支持过滤和分页）
+     * 获取待办事项（completed 为空时不过滤，偏移分页，按 created_at、id 倒序）：按列读取，不创建实体和 DTO
      */
-    public List<TodoResponse> getAllTodos(Boolean completed, Integer limit, Integer offset) {
-        Pageable pageable = PageRequest.of(
-            offset / limit,
-            limit,
-            Sort.by(Sort.Direction.DESC, "createdAt")
-        );
+    @Transactional(readOnly = true)
+    public TodoRows listTodos(Boolean completed, Integer limit, Integer offset) {
+        checkLimit(limit);
+        if (offset < 0) {
+            throw new BadRequestException("offset must not be negative");
+        }
+        TodoRows rows = todoListRepository.findPage(TenantContext.current(), completed, offset, limit);
+        offsetPageRows.record(rows.size());
+        return rows;
+    }
 
-        List<Todo> todos;
-        if (completed != null) {
-            todos = todoRepository.findByCompleted(completed, pageable);
+    /**
+     * 键集分页获取待办事项（按 created_at、id 倒序，游标为空时从第一页开始）：按列读取，不创建实体和 DTO
+     */
+    @Transactional(readOnly = true)
+    public TodoRowsPage listTodosByCursor(Boolean completed, Integer limit, String cursor) {
+        checkLimit(limit);
+
+        // 多取一行用于判断是否还有下一页
+        String tenant = TenantContext.current();
+        TodoRows rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = todoListRepository.findPage(tenant, completed, 0, limit + 1);
         } else {
-            todos = todoRepository.findAll(pageable).getContent();
+            TodoCursor after = TodoCursor.decode(cursor);
+            rows = todoListRepository.findPageAfter(tenant, completed, after.getCreatedAt(), after.getId(), limit + 1);
         }
 
-        return todos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows.truncate(limit);
+            nextCursor = new TodoCursor(rows.getCreatedAt(limit - 1), rows.getId(limit - 1)).encode();
+        }
+        cursorPageRows.record(rows.size());
+        return new TodoRowsPage(rows, nextCursor);
+    }
+
+    /**
+     * 在一个只读事务中取得列表的实体标签后执行 action，action 中的列表和计数查询加入该事务：
+     * 标签与数据读自同一个库（副本之间的延迟不会让新标签配上旧数据），标签未变化时 action 可以不查询列表
+     */
+    @Transactional(readOnly = true)
+    public <T> T withCollectionEtag(Function<String, T> action) {
+        return action.apply(todoTableVersion.etag());
+    }
+
+    /**
+     * 单条待办事项的实体标签（不含引号），由ID和版本号得出
+     */
+    public static String etagOf(TodoResponse todo) {
+        return etagOf(todo.getId(), todo.getVersion());
+    }
+
+    public static String etagOf(Long id, Long version) {
+        return id + "-" + version;
+    }
+
+    /**
+     * 从 If-Match 请求头解析期望的版本号；为空或 * 时返回 null（不做版本检查）
+     * 接受本接口返回的 ETag，也接受只含版本号的值；标签只表示版本，弱标签同样按版本比较
+     */
+    public static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int dash = tag.indexOf('-');
+        try {
+            if (dash < 0) {
+                return Long.parseLong(tag);
+            }
+            if (Long.parseLong(tag.substring(0, dash)) != id) {
+                throw new ConflictException("If-Match does not refer to todo " + id);
+            }
+            return Long.parseLong(tag.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
     }
 
     /**
      * 获取待办事项总数
      */
+    @Transactional(readOnly = true)
     public long getTotalCount(Boolean completed) {
         if (completed != null) {
-            return todoRepository.countByCompleted(completed);
+            return todoRepository.countByTenantIdAndCompleted(TenantContext.current(), completed);
         }
-        return todoRepository.count();
+        return todoRepository.countByTenantId(TenantContext.current());
+    }
+
+    /**
+     * 获取待办事项近似总数（读取内存计数器，不查询数据库）
+     */
+    public long getApproximateCount(Boolean completed) {
+        return todoCounter.get(completed);
+    }
+
+    /**
+     * 获取统计（读取内存聚合，不扫描表）
+     */
+    public TodoStatsResponse getStats() {
+        return todoStats.snapshot();
     }
 
     /**
-     * 根据ID获取待办事项
+     * 根据ID获取待办事项（优先读取缓存）；有未写入的切换时先写入，保证读到自己的切换
      */
+    @Transactional(readOnly = true)
     public TodoResponse getTodoById(Long id) {
-        Todo todo = todoRepository.findById(id)
+        todoToggleBuffer.flush(id);
+        TodoResponse cached = todoCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = todoCache.stamp();
+        Todo todo = todoRepository.findByTenantIdAndId(TenantContext.current(), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Todo with id " + id + " does not exist"));
-        return convertToResponse(todo);
+        TodoResponse response = convertToResponse(todo);
+        todoCache.putIfUnchanged(id, response, stamp);
+        return response;
+    }
+
+    /**
+     * 全文搜索待办事项（按相关度排序）
+     * 命中结果以数据库为准重新加载，索引中已不存在于数据库的ID顺带从索引删除、完成状态过期的顺带更正；
+     * 因此被丢弃的命中从总数中扣除
+     */
+    public SearchPage<TodoResponse> searchTodos(String query, Boolean completed, Integer limit) {
+        checkLimit(limit);
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q must not be blank");
+        }
+
+        TodoSearchIndex.Hits hits = todoSearchIndex.search(query, completed, limit);
+        Map<Long, Todo> found = new HashMap<>();
+        for (Todo todo : todoRepository.findByTenantIdAndIdIn(TenantContext.current(), hits.getIds())) {
+            found.put(todo.getId(), todo);
+        }
+
+        List<TodoResponse> items = new ArrayList<>(hits.getIds().size());
+        for (Long id : hits.getIds()) {
+            Todo todo = found.get(id);
+            if (todo == null) {
+                todoSearchIndex.remove(id);
+            } else if (completed != null && !completed.equals(todo.getCompleted())) {
+                todoSearchIndex.updateCompleted(id, todo.getCompleted());
+            } else {
+                items.add(convertToResponse(todo));
+            }
+        }
+        long dropped = hits.getIds().size() - items.size();
+        return new SearchPage<>(items, Math.max(items.size(), hits.getTotal() - dropped));
     }
 
     /**
@@ -73,6 +286,7 @@ public class TodoService {
     @Transactional
     public TodoResponse createTodo(TodoDTO todoDTO) {
         Todo todo = new Todo();
+        todo.setTenantId(TenantContext.current());
         todo.setTitle(todoDTO.getTitle());
         todo.setDescription(todoDTO.getDescription());
         todo.setCompleted(false);
@@ -80,57 +294,215 @@ public class TodoService {
         todo.setDueDate(todoDTO.getDueDate());
 
         Todo savedTodo = todoRepository.save(todo);
+        todoCounter.onCreated();
+        todoStats.onCreated(savedTodo);
+        todoReminderScheduler.onSaved(savedTodo);
+        todoTableVersion.bump();
+        TodoResponse response = convertToResponse(savedTodo);
+        todoEventBroadcaster.publishOnCommit(TodoEventType.CREATED, response);
+        todoOutbox.append(TodoEventType.CREATED, savedTodo.getId(), response);
         log.info("Created new todo with id: {}", savedTodo.getId());
-        return convertToResponse(savedTodo);
+        return response;
+    }
+
+    /**
+     * 批量创建待办事项（逐条校验，合法条目通过 JDBC 批处理写入）
+     */
+    @Transactional
+    public BatchCreateResponse createTodos(List<TodoDTO> todoDTOs) {
+        if (todoDTOs == null || todoDTOs.isEmpty()) {
+            throw new BadRequestException("todos must not be empty");
+        }
+        if (todoDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " todos can be created per request");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchItemResult> results = new ArrayList<>(todoDTOs.size());
+        List<Todo> valid = new ArrayList<>(todoDTOs.size());
+        List<Integer> validIndexes = new ArrayList<>(todoDTOs.size());
+
+        for (int i = 0; i < todoDTOs.size(); i++) {
+            TodoDTO todoDTO = todoDTOs.get(i);
+            Map<String, String> errors = validate(validator, todoDTO);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.invalid(i, errors));
+                continue;
+            }
+            valid.add(newTodo(todoDTO, false, now));
+            validIndexes.add(i);
+            results.add(null);
+        }
+
+        if (!valid.isEmpty()) {
+            todoBatchRepository.insertAll(valid);
+            todoCounter.onCreated(valid.size());
+            todoStats.onCreated(valid);
+            todoReminderScheduler.onSaved(valid);
+            todoTableVersion.bump();
+            todoEventBroadcaster.publishOnCommit(TodoEventType.RESET, Map.of("reason", "batch_create"));
+            todoOutbox.append(TodoEventType.RESET, null, TodoOutbox.rangePayload("batch_create", valid));
+        }
+        for (int i = 0; i < valid.size(); i++) {
+            int index = validIndexes.get(i);
+            results.set(index, BatchItemResult.created(index, valid.get(i).getId()));
+        }
+
+        log.info("Batch created {} todos, rejected {}", valid.size(), todoDTOs.size() - valid.size());
+        return new BatchCreateResponse(valid.size(), todoDTOs.size() - valid.size(), results);
     }
 
     /**
-     * 更新待办事项
+     * 更新待办事项（一次读取加一条只写给出列的条件更新，不做脏检查）
      */
     @Transactional
     public TodoResponse updateTodo(Long id, TodoUpdateDTO updateDTO) {
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Todo with id " + id + " does not exist"));
+        return updateTodo(id, updateDTO, null);
+    }
+
+    /**
+     * 更新待办事项；expectedVersion 不为空时只在版本号一致时更新，否则抛出冲突
+     */
+    @Transactional
+    public TodoResponse updateTodo(Long id, TodoUpdateDTO updateDTO, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        String tenant = TenantContext.current();
+        todoToggleBuffer.flush(id);
 
+        Map<String, Object> changes = new LinkedHashMap<>();
         if (updateDTO.getTitle() != null) {
-            todo.setTitle(updateDTO.getTitle());
+            changes.put("title", updateDTO.getTitle());
         }
         if (updateDTO.getDescription() != null) {
-            todo.setDescription(updateDTO.getDescription());
-        }
-        if (updateDTO.getCompleted() != null) {
-            todo.setCompleted(updateDTO.getCompleted());
+            changes.put("description", updateDTO.getDescription());
         }
         if (updateDTO.getPriority() != null) {
-            todo.setPriority(priorityStringToInt(updateDTO.getPriority()));
+            changes.put("priority", priorityStringToInt(updateDTO.getPriority()));
         }
         if (updateDTO.getDueDate() != null) {
-            todo.setDueDate(updateDTO.getDueDate());
+            changes.put("dueDate", updateDTO.getDueDate());
         }
 
-        Todo updatedTodo = todoRepository.save(todo);
+        // 读取一次当前行，以它的版本号做条件更新：完成状态是否变化由读到的状态得出，响应由读到的行加上修改的列
+        // 构造，不再查询。未带版本号时被并发修改则重新读取后重试
+        Boolean completed = updateDTO.getCompleted();
+        Todo updatedTodo = null;
+        TodoStatsRow before = null;
+        boolean completedChanged = false;
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS && updatedTodo == null; attempt++) {
+            Todo current = todoRepository.findByTenantIdAndId(tenant, id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Todo with id " + id + " does not exist"));
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw versionConflict(id, expectedVersion);
+            }
+            before = TodoStatsRow.of(current);
+            completedChanged = completed != null && !completed.equals(current.getCompleted());
+            if (!completedChanged && changes.isEmpty() && expectedVersion == null) {
+                updatedTodo = current;
+                break;
+            }
+            Map<String, Object> update = new LinkedHashMap<>(changes);
+            if (completedChanged) {
+                update.put("completed", completed);
+                update.put("completedAt", completed ? now : null);
+            }
+            update.put("updatedAt", now);
+            if (todoRepository.updateFields(tenant, id, update, current.getVersion()) == 1) {
+                updatedTodo = applyChanges(current, update);
+            } else if (expectedVersion != null) {
+                throw versionConflict(id, expectedVersion);
+            }
+        }
+        if (updatedTodo == null) {
+            throw new ConcurrencyFailureException("Todo with id " + id + " is being modified concurrently");
+        }
+        if (completedChanged) {
+            todoCounter.onCompletedChanged(completed);
+        }
+        todoCache.evictOnCommit(id);
+        todoStats.onUpdated(before, updatedTodo);
+        todoReminderScheduler.onSaved(updatedTodo);
+        todoTableVersion.bump();
+        TodoResponse response = convertToResponse(updatedTodo);
+        todoEventBroadcaster.publishOnCommit(TodoEventType.UPDATED, response);
+        todoOutbox.append(TodoEventType.UPDATED, id, response);
         log.info("Updated todo with id: {}", id);
-        return convertToResponse(updatedTodo);
+        return response;
     }
 
     /**
      * 切换待办事项完成状态
+     * 读取一次当前行的统计字段和版本号，以版本号做条件更新，统计按读到的旧状态增减，无需再查询
      */
     @Transactional
     public TodoToggleResponse toggleTodoStatus(Long id) {
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Todo with id " + id + " does not exist"));
+        return toggleTodoStatus(id, null);
+    }
 
-        todo.setCompleted(!todo.getCompleted());
-        Todo updatedTodo = todoRepository.save(todo);
+    /**
+     * 切换待办事项完成状态；expectedVersion 不为空时只在版本号一致时切换，否则抛出冲突
+     * 开启写回时不带版本号的切换只修改内存状态，定时批量写入数据库，发件箱事件在写入时追加
+     */
+    @Transactional
+    public TodoToggleResponse toggleTodoStatus(Long id, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        String tenant = TenantContext.current();
 
-        log.info("Toggled todo {} status to: {}", id, updatedTodo.getCompleted());
+        if (expectedVersion == null && todoToggleBuffer.isEnabled()) {
+            TodoStatsRow before = todoToggleBuffer.toggle(id, now);
+            if (before == null) {
+                throw new ResourceNotFoundException("Todo with id " + id + " does not exist");
+            }
+            return acknowledged(new TodoToggleResponse(id, !Boolean.TRUE.equals(before.getCompleted()), now), before);
+        }
 
-        return new TodoToggleResponse(
-            updatedTodo.getId(),
-            updatedTodo.getCompleted(),
-            updatedTodo.getUpdatedAt()
-        );
+        todoToggleBuffer.flush(id);
+        for (int attempt = 0; attempt < MAX_TOGGLE_ATTEMPTS; attempt++) {
+            TodoStatsRow before = todoRepository.findStatsRowById(tenant, id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Todo with id " + id + " does not exist"));
+            if (expectedVersion != null && !expectedVersion.equals(before.getVersion())) {
+                throw versionConflict(id, expectedVersion);
+            }
+            boolean completed = !Boolean.TRUE.equals(before.getCompleted());
+            if (todoRepository.updateCompletedIfVersion(tenant, id, !completed, completed, before.getVersion(), now) == 1) {
+                Long version = expectedVersion != null ? before.getVersion() + 1 : null;
+                return toggled(new TodoToggleResponse(id, completed, now, version), before);
+            }
+            if (expectedVersion != null) {
+                throw versionConflict(id, expectedVersion);
+            }
+            // 读取之后被并发修改，重新读取
+        }
+        throw new ConcurrencyFailureException("Todo with id " + id + " is being modified concurrently");
+    }
+
+    /**
+     * 已写入数据库的切换；写回模式下的切换在批量写入时追加发件箱事件、递增列表版本号
+     */
+    private TodoToggleResponse toggled(TodoToggleResponse response, TodoStatsRow before) {
+        acknowledged(response, before);
+        todoOutbox.append(TodoEventType.TOGGLED, response.getId(), response);
+        todoTableVersion.bump();
+        return response;
+    }
+
+    /**
+     * 切换后更新内存中的计数、缓存、统计、提醒和推送；before 为切换前的统计字段，搜索索引由发件箱事件更新
+     */
+    private TodoToggleResponse acknowledged(TodoToggleResponse response, TodoStatsRow before) {
+        Long id = response.getId();
+        boolean completed = response.getCompleted();
+        todoCounter.onCompletedChanged(completed);
+        todoCache.evictOnCommit(id);
+        todoStats.onCompletedChanged(before, completed, response.getUpdatedAt());
+        todoReminderScheduler.onCompletedChanged(id, completed);
+        todoEventBroadcaster.publishOnCommit(TodoEventType.TOGGLED, response);
+        log.info("Toggled todo {} status to: {}", id, completed);
+        return response;
+    }
+
+    private static ConflictException versionConflict(Long id, Long expectedVersion) {
+        return new ConflictException("Todo with id " + id + " has been modified since version " + expectedVersion);
     }
 
     /**
@@ -138,38 +510,145 @@ public class TodoService {
      */
     @Transactional
     public void deleteTodo(Long id) {
-        if (!todoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Todo with id " + id + " does not exist");
-        }
-        todoRepository.deleteById(id);
+        String tenant = TenantContext.current();
+        todoToggleBuffer.flush(id);
+        Todo todo = todoRepository.findByTenantIdAndId(tenant, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo with id " + id + " does not exist"));
+        todoRepository.delete(todo);
+        todoCounter.onDeleted(Boolean.TRUE.equals(todo.getCompleted()));
+        todoCache.evictOnCommit(id);
+        todoStats.onDeleted(todo);
+        todoReminderScheduler.onDeleted(id);
+        todoTableVersion.bump();
+        todoEventBroadcaster.publishOnCommit(TodoEventType.DELETED, Map.of("id", id));
+        todoOutbox.append(TodoEventType.DELETED, id, Map.of("id", id));
         log.info("Deleted todo with id: {}", id);
     }
 
     /**
-     * 删除所有已完成的待办事项
+     * 删除所有已完成的待办事项（按主键范围分块提交）
      */
-    @Transactional
     public int deleteCompletedTodos() {
-        int count = todoRepository.deleteAllCompleted();
+        long count = todoPurgeEngine.purge(PurgeScope.COMPLETED);
         log.info("Deleted {} completed todos", count);
-        return count;
+        return (int) count;
     }
 
     /**
-     * 删除所有待办事项
+     * 删除所有待办事项（按主键范围分块提交）
      */
-    @Transactional
     public int deleteAllTodos() {
-        long count = todoRepository.count();
-        todoRepository.deleteAll();
+        long count = todoPurgeEngine.purge(PurgeScope.ALL);
         log.info("Deleted all {} todos", count);
         return (int) count;
     }
 
+    /**
+     * 提交后台清理任务
+     */
+    public PurgeJobResponse startPurgeJob(PurgeScope scope) {
+        PurgeJobResponse job = todoPurgeEngine.submit(scope);
+        log.info("Started purge job {} (scope: {})", job.getJobId(), job.getScope());
+        return job;
+    }
+
+    /**
+     * 查询后台清理任务
+     */
+    public PurgeJobResponse getPurgeJob(String jobId) {
+        PurgeJobResponse job = todoPurgeEngine.getJob(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Purge job " + jobId + " does not exist");
+        }
+        return job;
+    }
+
+    /**
+     * 流式导出待办事项到输出流
+     */
+    public long exportTodos(Boolean completed, DataFormat format, OutputStream out) throws IOException {
+        long count = todoExporter.export(completed, format, out);
+        log.info("Exported {} todos as {}", count, format);
+        return count;
+    }
+
+    /**
+     * 从输入流流式导入待办事项
+     */
+    public ImportResponse importTodos(InputStream in, DataFormat format) throws IOException {
+        return todoImporter.importTodos(in, format);
+    }
+
+    /**
+     * 订阅变更事件流，lastEventId 为客户端重连时带回的 Last-Event-ID
+     */
+    public SseEmitter subscribeToChanges(String lastEventId) {
+        return todoEventBroadcaster.subscribe(lastEventId);
+    }
+
+    /**
+     * 按 TodoDTO 上的约束校验，返回 字段 -> 错误信息
+     */
+    static Map<String, String> validate(Validator validator, TodoDTO todoDTO) {
+        Map<String, String> errors = new HashMap<>();
+        if (todoDTO == null) {
+            errors.put("todo", "待办事项不能为空");
+            return errors;
+        }
+        Set<ConstraintViolation<TodoDTO>> violations = validator.validate(todoDTO);
+        for (ConstraintViolation<TodoDTO> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * 由请求数据构造待批量写入的实体（时间戳由调用方给出）
+     */
+    static Todo newTodo(TodoDTO todoDTO, boolean completed, LocalDateTime now) {
+        Todo todo = new Todo();
+        todo.setTenantId(TenantContext.current());
+        todo.setTitle(todoDTO.getTitle());
+        todo.setDescription(todoDTO.getDescription());
+        todo.setCompleted(completed);
+        todo.setPriority(priorityStringToInt(todoDTO.getPriority()));
+        todo.setDueDate(todoDTO.getDueDate());
+        todo.setCompletedAt(completed ? now : null);
+        todo.setCreatedAt(now);
+        todo.setUpdatedAt(now);
+        return todo;
+    }
+
+    /**
+     * 把条件更新写入的列应用到更新前读到的行（已脱离持久化上下文），版本号加一，得到更新后的行
+     */
+    private static Todo applyChanges(Todo todo, Map<String, Object> changes) {
+        changes.forEach((attribute, value) -> {
+            switch (attribute) {
+                case "title":       todo.setTitle((String) value); break;
+                case "description": todo.setDescription((String) value); break;
+                case "priority":    todo.setPriority((Integer) value); break;
+                case "dueDate":     todo.setDueDate((LocalDateTime) value); break;
+                case "completed":   todo.setCompleted((Boolean) value); break;
+                case "completedAt": todo.setCompletedAt((LocalDateTime) value); break;
+                case "updatedAt":   todo.setUpdatedAt((LocalDateTime) value); break;
+                default: throw new IllegalArgumentException("Unknown attribute: " + attribute);
+            }
+        });
+        todo.setVersion(todo.getVersion() + 1);
+        return todo;
+    }
+
+    private void checkLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+    }
+
     /**
      * 优先级：字符串 -> 整数
      */
-    private Integer priorityStringToInt(String priority) {
+    static Integer priorityStringToInt(String priority) {
         if (priority == null) return 0;
         switch (priority.toLowerCase()) {
             case "high":   return 2;
@@ -182,7 +661,7 @@ public class TodoService {
     /**
      * 优先级：整数 -> 字符串
      */
-    private String priorityIntToString(Integer priority) {
+    static String priorityIntToString(Integer priority) {
         if (priority == null) return "low";
         switch (priority) {
             case 2:  return "high";
@@ -195,7 +674,7 @@ public class TodoService {
     /**
      * 转换实体为响应DTO
      */
-    private TodoResponse convertToResponse(Todo todo) {
+    static TodoResponse convertToResponse(Todo todo) {
         return new TodoResponse(
             todo.getId(),
             todo.getTitle(),
@@ -204,7 +683,8 @@ public class TodoService {
             priorityIntToString(todo.getPriority()),
             todo.getDueDate(),
             todo.getCreatedAt(),
-            todo.getUpdatedAt()
+            todo.getUpdatedAt(),
+            todo.getVersion()
         );
     }
 }
@@ -0,0 +1,441 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TodoStatsResponse;
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatsRow;
+import com.todoapp.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 按租户维护的统计聚合：完成状态 × 优先级的数量、按截止日期的未完成数量和逾期数量、按天的创建与完成数量
+ * 聚合只保存计数，不保存单条待办事项：写操作提供修改前后的统计字段，在事务提交后减去旧状态、加上新状态。
+ * 首次读取时加载；批量变更或对账不一致后在后台线程重新加载，加载完成前读取返回原有的计数
+ */
+@Component
+public class TodoStats {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoStats.class);
+
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate loadTransaction;
+    private final int historyDays;
+    private final Clock clock;
+    private final Executor loader;
+
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TodoStats(TodoRepository todoRepository, PlatformTransactionManager transactionManager,
+                     @Value("${todoapp.stats.history-days:30}") int historyDays) {
+        this(todoRepository, transactionManager, historyDays, Clock.systemDefaultZone(),
+                Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "todo-stats-load");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    TodoStats(TodoRepository todoRepository, PlatformTransactionManager transactionManager,
+              int historyDays, Clock clock, Executor loader) {
+        this.todoRepository = todoRepository;
+        // 不设只读：加载走主库，避免副本延迟导致加载到旧数据
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.historyDays = historyDays;
+        this.clock = clock;
+        this.loader = loader;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (loader instanceof ExecutorService) {
+            ((ExecutorService) loader).shutdownNow();
+        }
+    }
+
+    /**
+     * 当前租户的统计；只有尚未加载过的租户等待加载，需要重新加载时在后台进行，先返回原有的计数
+     */
+    public TodoStatsResponse snapshot() {
+        String tenant = TenantContext.current();
+        Aggregate aggregate = aggregateOf(tenant);
+        if (aggregate.stale) {
+            CompletableFuture<Void> loading = reload(tenant, aggregate);
+            if (aggregate.counters == null) {
+                await(loading);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        aggregate.lock.lock();
+        try {
+            Counters counters = aggregate.counters;
+            if (counters == null) {
+                throw new IllegalStateException("Todo stats of tenant " + tenant + " are not loaded");
+            }
+            counters.advance(now);
+            return counters.toResponse(now, historyDays);
+        } finally {
+            aggregate.lock.unlock();
+        }
+    }
+
+    public void onCreated(Todo todo) {
+        change(null, TodoStatsRow.of(todo));
+    }
+
+    public void onCreated(List<Todo> todos) {
+        List<TodoStatsRow> rows = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            rows.add(TodoStatsRow.of(todo));
+        }
+        Aggregate aggregate = currentAggregate();
+        TransactionHooks.afterCommit(() -> aggregate.apply(counters -> rows.forEach(row -> counters.count(row, 1))));
+    }
+
+    /**
+     * 更新；before 为更新前读到的字段
+     */
+    public void onUpdated(TodoStatsRow before, Todo after) {
+        change(before, TodoStatsRow.of(after));
+    }
+
+    /**
+     * 完成状态在 at 切换为 completed；before 为切换前的字段
+     */
+    public void onCompletedChanged(TodoStatsRow before, boolean completed, LocalDateTime at) {
+        change(before, before.withCompleted(completed, at));
+    }
+
+    public void onDeleted(Todo todo) {
+        change(TodoStatsRow.of(todo), null);
+    }
+
+    /**
+     * 批量写入或删除后，在后台重新加载当前租户的统计
+     */
+    public void invalidate() {
+        String tenant = TenantContext.current();
+        Aggregate aggregate = aggregateOf(tenant);
+        if (aggregate.invalidate()) {
+            reload(tenant, aggregate);
+        }
+    }
+
+    /**
+     * 定时用分组统计 SQL 核对已加载的租户，数量不一致时在后台重新加载
+     */
+    @Scheduled(fixedDelayString = "${todoapp.stats.reconcile-interval-ms:300000}")
+    public void reconcileAll() {
+        aggregates.forEach((tenant, aggregate) -> TenantContext.run(tenant, () -> reconcile(tenant, aggregate)));
+    }
+
+    private void reconcile(String tenant, Aggregate aggregate) {
+        if (aggregate.stale || aggregate.counters == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long[][] expected = new long[2][PRIORITIES.length];
+        for (Object[] row : todoRepository.countGroupByCompletedAndPriority(tenant)) {
+            expected[Boolean.TRUE.equals(row[0]) ? 1 : 0][priorityIndex((Integer) row[1])] +=
+                    ((Number) row[2]).longValue();
+        }
+        long expectedOverdue = todoRepository.countOverdue(tenant, now);
+
+        boolean drifted;
+        aggregate.lock.lock();
+        try {
+            if (aggregate.stale || aggregate.loading != null) {
+                return;
+            }
+            aggregate.counters.advance(now);
+            drifted = !aggregate.counters.matches(expected, expectedOverdue);
+        } finally {
+            aggregate.lock.unlock();
+        }
+        if (drifted && aggregate.invalidate()) {
+            // 对账期间提交的写入也会造成不一致，重新加载即可
+            log.info("Todo stats for tenant {} drifted from the database, reloading", tenant);
+            reload(tenant, aggregate);
+        }
+    }
+
+    private void change(TodoStatsRow before, TodoStatsRow after) {
+        Aggregate aggregate = currentAggregate();
+        TransactionHooks.afterCommit(() -> aggregate.apply(counters -> {
+            if (before != null) {
+                counters.count(before, -1);
+            }
+            if (after != null) {
+                counters.count(after, 1);
+            }
+        }));
+    }
+
+    private Aggregate currentAggregate() {
+        return aggregateOf(TenantContext.current());
+    }
+
+    private Aggregate aggregateOf(String tenant) {
+        return aggregates.computeIfAbsent(tenant, t -> new Aggregate());
+    }
+
+    /**
+     * 在后台加载租户的统计；已在加载时返回进行中的加载
+     */
+    private CompletableFuture<Void> reload(String tenant, Aggregate aggregate) {
+        CompletableFuture<Void> loading;
+        long generation;
+        aggregate.lock.lock();
+        try {
+            if (aggregate.loading != null) {
+                return aggregate.loading;
+            }
+            loading = new CompletableFuture<>();
+            generation = aggregate.generation;
+            aggregate.loading = loading;
+            aggregate.duringLoad = new ArrayList<>();
+        } finally {
+            aggregate.lock.unlock();
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    TenantContext.run(tenant, () -> load(tenant, aggregate, generation));
+                    loading.complete(null);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to load todo stats for tenant {}", tenant, e);
+                    aggregate.loadFailed();
+                    loading.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            aggregate.loadFailed();
+            loading.completeExceptionally(e);
+        }
+        return loading;
+    }
+
+    /**
+     * 从数据库读取统计字段构建新的计数，再补上加载期间提交的变更后替换原有的计数
+     * 加载开始前刚提交、提交回调晚于加载开始的写入可能被计入两次，由定时对账发现并重新加载
+     */
+    private void load(String tenant, Aggregate aggregate, long generation) {
+        long start = System.nanoTime();
+        Counters counters = new Counters();
+        long[] count = {0};
+        loadTransaction.executeWithoutResult(status -> {
+            try (Stream<TodoStatsRow> rows = todoRepository.streamStatsRows(tenant)) {
+                rows.forEach(row -> {
+                    counters.count(row, 1);
+                    count[0]++;
+                });
+            }
+        });
+        aggregate.lock.lock();
+        try {
+            aggregate.duringLoad.forEach(change -> change.accept(counters));
+            aggregate.duringLoad = null;
+            aggregate.counters = counters;
+            aggregate.loading = null;
+            // 加载期间再次失效时，下次读取再加载
+            aggregate.stale = aggregate.generation != generation;
+        } finally {
+            aggregate.lock.unlock();
+        }
+        log.debug("Loaded todo stats for tenant {}: {} todos in {} ms", tenant, count[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void await(CompletableFuture<Void> loading) {
+        try {
+            loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static int priorityIndex(Integer priority) {
+        return priority != null && priority > 0 && priority < PRIORITIES.length ? priority : 0;
+    }
+
+    /**
+     * 一个租户的聚合，counters、loading、duringLoad、generation 的访问都持有 lock
+     */
+    private static final class Aggregate {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 当前的计数，首次加载完成前为 null
+         */
+        private volatile Counters counters;
+
+        /**
+         * 需要重新加载
+         */
+        private volatile boolean stale = true;
+
+        /**
+         * 每次失效加一，加载期间变化说明加载结果已过时
+         */
+        private long generation;
+
+        private CompletableFuture<Void> loading;
+
+        /**
+         * 加载期间提交的变更，加载完成后补到新的计数上
+         */
+        private List<Consumer<Counters>> duringLoad;
+
+        private void apply(Consumer<Counters> change) {
+            lock.lock();
+            try {
+                if (duringLoad != null) {
+                    duringLoad.add(change);
+                }
+                if (counters != null) {
+                    change.accept(counters);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 标记需要重新加载，返回是否已有计数（尚未加载过的租户留到首次读取时加载）
+         */
+        private boolean invalidate() {
+            lock.lock();
+            try {
+                generation++;
+                stale = true;
+                return counters != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void loadFailed() {
+            lock.lock();
+            try {
+                loading = null;
+                duringLoad = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 一个租户的计数
+     */
+    private static final class Counters {
+        private final long[][] counts = new long[2][PRIORITIES.length];
+
+        /**
+         * 未完成且截止日期不早于 overdueAsOf 的截止日期及数量；早于它的已计入 overdue
+         */
+        private final NavigableMap<LocalDateTime, Integer> upcoming = new TreeMap<>();
+        private long overdue;
+        private LocalDateTime overdueAsOf = LocalDateTime.MIN;
+
+        /**
+         * 按天的 [创建数量, 完成数量]，只统计仍然存在的待办事项
+         */
+        private final Map<LocalDate, long[]> daily = new HashMap<>();
+
+        private void count(TodoStatsRow row, int delta) {
+            boolean completed = Boolean.TRUE.equals(row.getCompleted());
+            counts[completed ? 1 : 0][priorityIndex(row.getPriority())] += delta;
+            LocalDateTime dueDate = row.getDueDate();
+            if (!completed && dueDate != null) {
+                if (dueDate.isBefore(overdueAsOf)) {
+                    overdue += delta;
+                } else {
+                    upcoming.merge(dueDate, delta, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            }
+            if (row.getCreatedAt() != null) {
+                daily.computeIfAbsent(row.getCreatedAt().toLocalDate(), d -> new long[2])[0] += delta;
+            }
+            if (completed && row.getCompletedAt() != null) {
+                daily.computeIfAbsent(row.getCompletedAt().toLocalDate(), d -> new long[2])[1] += delta;
+            }
+        }
+
+        /**
+         * 把截止日期早于 now 的条目转入逾期；时间只向前推进，均摊每条只移动一次
+         */
+        private void advance(LocalDateTime now) {
+            if (!now.isAfter(overdueAsOf)) {
+                return;
+            }
+            NavigableMap<LocalDateTime, Integer> passed = upcoming.headMap(now, false);
+            for (int count : passed.values()) {
+                overdue += count;
+            }
+            passed.clear();
+            overdueAsOf = now;
+        }
+
+        private boolean matches(long[][] expected, long expectedOverdue) {
+            return Arrays.deepEquals(counts, expected) && overdue == expectedOverdue;
+        }
+
+        private TodoStatsResponse toResponse(LocalDateTime now, int historyDays) {
+            long active = 0;
+            long completed = 0;
+            Map<String, TodoStatsResponse.PriorityStats> byPriority = new LinkedHashMap<>();
+            for (int p = 0; p < PRIORITIES.length; p++) {
+                active += counts[0][p];
+                completed += counts[1][p];
+                byPriority.put(PRIORITIES[p], new TodoStatsResponse.PriorityStats(counts[0][p], counts[1][p]));
+            }
+
+            List<TodoStatsResponse.DailyStats> history = new ArrayList<>(historyDays);
+            LocalDate today = now.toLocalDate();
+            for (int i = historyDays - 1; i >= 0; i--) {
+                LocalDate day = today.minusDays(i);
+                long[] counted = daily.getOrDefault(day, new long[2]);
+                history.add(new TodoStatsResponse.DailyStats(day, counted[0], counted[1]));
+            }
+
+            long total = active + completed;
+            double completionRate = total == 0 ? 0 : (double) completed / total;
+            return new TodoStatsResponse(total, active, completed, overdue, completionRate, byPriority, history, now);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.TodoListVersion;
+import com.todoapp.repository.TodoListVersionRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenantContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 各租户待办事项列表的版本号，保存在 todo_list_versions 表中，用于生成列表的 ETag
+ * 每个修改待办事项的事务在同一事务中递增版本号，任何实例的写入都会使所有实例的标签失效；
+ * 读取标签应与列表查询在同一只读事务中，标签与数据来自同一个库的同一快照
+ */
+@Component
+public class TodoTableVersion {
+
+    private final TodoListVersionRepository todoListVersionRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate createTransaction;
+
+    /**
+     * 已确认存在版本行的分片和租户，避免每次写入都检查
+     */
+    private final Set<String> created = ConcurrentHashMap.newKeySet();
+
+    public TodoTableVersion(TodoListVersionRepository todoListVersionRepository, ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager) {
+        this.todoListVersionRepository = todoListVersionRepository;
+        this.shardRouter = shardRouter;
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 当前租户的版本号，尚无版本行时为 0
+     */
+    public long current() {
+        return todoListVersionRepository.findVersion(TenantContext.current()).orElse(0L);
+    }
+
+    /**
+     * 在当前写事务中递增当前租户的版本号，回滚时不变
+     * 版本行的行锁持有到事务结束，应在事务的最后调用：同一租户的写事务只在提交前依次通过
+     */
+    public void bump() {
+        String tenant = TenantContext.current();
+        String key = shardRouter.shardOf(tenant) + ":" + tenant;
+        if (!created.contains(key)) {
+            create(tenant);
+            created.add(key);
+        }
+        todoListVersionRepository.increment(tenant);
+    }
+
+    /**
+     * 当前租户当前版本的实体标签（不含引号），不同租户的标签不会相同
+     * 须在查询数据之前、同一事务中取得：标签与数据一致，并发写入时标签不会比数据新
+     */
+    public String etag() {
+        String tenant = TenantContext.current();
+        return tenant + "-" + Long.toHexString(current());
+    }
+
+    /**
+     * 在独立事务中创建版本行并立即提交，不在写事务中持有新行的锁；并发创建时以先提交的为准
+     * 起始值随机，数据库重建后客户端手中的旧标签不会与新数据的标签相同
+     */
+    private void create(String tenant) {
+        if (todoListVersionRepository.existsById(tenant)) {
+            return;
+        }
+        try {
+            createTransaction.executeWithoutResult(status -> todoListVersionRepository.saveAndFlush(
+                    new TodoListVersion(tenant, ThreadLocalRandom.current().nextLong() >>> 16)));
+        } catch (DataIntegrityViolationException e) {
+            // 其他事务已创建
+        }
+    }
+}
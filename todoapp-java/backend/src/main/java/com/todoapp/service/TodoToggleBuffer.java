@@ -0,0 +1,448 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TodoToggleResponse;
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.repository.TodoCompletedState;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatsRow;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 切换完成状态的写回缓冲：开启后切换只修改内存中分段加锁的状态表并立即返回，同一待办事项的多次切换合并为
+ * 最终状态，定时按租户批量写入数据库。内存中没有的待办事项先查询一次当前的统计字段，之后的切换由内存中的字段得出旧状态。
+ * 持久性由 durability 决定：memory 只保存在内存（正常关闭时写入，崩溃丢失）；journal 每次切换追加到本地日志，
+ * 启动时重放；journal-sync 在返回前把日志刷到磁盘。
+ * 其他写入同一待办事项的路径先调用 {@link #flush(Long)}，以数据库为准继续执行
+ */
+@Component
+public class TodoToggleBuffer implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoToggleBuffer.class);
+
+    private static final int STRIPES = 64;
+
+    public enum Durability { MEMORY, JOURNAL, JOURNAL_SYNC }
+
+    private final TodoRepository todoRepository;
+    private final TodoBatchRepository todoBatchRepository;
+    private final TodoCache todoCache;
+    private final TodoTableVersion todoTableVersion;
+    private final TodoOutbox todoOutbox;
+    private final TransactionTemplate writeTransaction;
+    private final boolean enabled;
+    private final ToggleJournal journal;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * 串行化写入数据库：取快照、写入、移除已写入条目都在锁内，避免较早的快照晚于较新的快照提交而覆盖它
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final AtomicLong toggleCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    public TodoToggleBuffer(TodoRepository todoRepository, TodoBatchRepository todoBatchRepository,
+                            TodoCache todoCache, TodoTableVersion todoTableVersion, TodoOutbox todoOutbox,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${todoapp.toggle.write-behind.enabled:false}") boolean enabled,
+                            @Value("${todoapp.toggle.write-behind.durability:journal}") Durability durability,
+                            @Value("${todoapp.toggle.write-behind.journal-dir:./data/toggle-journal}") String journalDir) {
+        this.todoRepository = todoRepository;
+        this.todoBatchRepository = todoBatchRepository;
+        this.todoCache = todoCache;
+        this.todoTableVersion = todoTableVersion;
+        this.todoOutbox = todoOutbox;
+        // 在调用方事务中写入单条时也独立提交，调用方回滚不影响已确认的切换
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.journal = enabled && durability != Durability.MEMORY
+                ? new ToggleJournal(Path.of(journalDir), durability == Durability.JOURNAL_SYNC)
+                : null;
+        if (journal != null) {
+            recover();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 切换当前租户待办事项的完成状态，返回切换前的统计字段（切换后的状态与其相反）；待办事项不存在时返回 null
+     */
+    public TodoStatsRow toggle(Long id, LocalDateTime now) {
+        String tenant = TenantContext.current();
+        String key = keyOf(tenant, id);
+        Stripe stripe = stripeOf(key);
+        while (true) {
+            long flushedBefore;
+            stripe.lock.lock();
+            try {
+                Pending pending = stripe.pending.get(key);
+                if (pending != null && pending.row != null) {
+                    TodoStatsRow before = pending.row;
+                    return acknowledge(before, set(stripe, pending, before, now));
+                }
+                flushedBefore = stripe.flushed;
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            // 查询在锁外执行；期间本分段有条目写入数据库并移除时，查到的状态可能已过时，重新开始
+            Optional<TodoStatsRow> current = todoRepository.findStatsRowById(tenant, id);
+            if (current.isEmpty()) {
+                return null;
+            }
+            TodoStatsRow before;
+            long position;
+            stripe.lock.lock();
+            try {
+                Pending pending = stripe.pending.get(key);
+                if (pending == null && stripe.flushed != flushedBefore) {
+                    continue;
+                }
+                if (pending == null) {
+                    pending = new Pending(tenant, id);
+                    before = current.get();
+                } else if (pending.row == null) {
+                    // 从日志恢复的条目只有完成状态，其余字段取自数据库
+                    before = current.get().withCompleted(pending.completed, pending.updatedAt);
+                } else {
+                    before = pending.row;
+                }
+                position = set(stripe, pending, before, now);
+            } finally {
+                stripe.lock.unlock();
+            }
+            return acknowledge(before, position);
+        }
+    }
+
+    /**
+     * 把当前租户这条待办事项未写入的切换写入数据库（独立事务）；没有时不做任何事
+     */
+    public void flush(Long id) {
+        if (!enabled) {
+            return;
+        }
+        String key = keyOf(TenantContext.current(), id);
+        Stripe stripe = stripeOf(key);
+        if (snapshotOf(stripe, key) == null) {
+            return;
+        }
+        // 条目在写入完成后才移除，正在写入它的 flushAll 结束前这里会等待，之后按最新状态写入
+        writeLock.lock();
+        try {
+            Snapshot snapshot = snapshotOf(stripe, key);
+            if (snapshot != null) {
+                write(List.of(snapshot));
+                removeWritten(List.of(snapshot));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 把当前租户所有未写入的切换写入数据库，供按范围删除等以数据库状态为准的操作之前调用
+     */
+    public void flushTenant() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            List<Snapshot> snapshots = snapshot().get(TenantContext.current());
+            if (snapshots != null) {
+                write(snapshots);
+                removeWritten(snapshots);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 定时把所有租户未写入的切换批量写入数据库；某个租户失败时保留它的切换下次重试
+     */
+    @Scheduled(fixedDelayString = "${todoapp.toggle.write-behind.flush-interval-ms:200}")
+    public void flushAll() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            // 先滚动日志再取快照：快照之后的切换都记在新段里，快照中的切换全部写入后即可删除旧段
+            List<Path> sealed = journal != null ? journal.rotate() : List.of();
+            boolean failed = false;
+            for (Map.Entry<String, List<Snapshot>> tenant : snapshot().entrySet()) {
+                try {
+                    TenantContext.run(tenant.getKey(), () -> write(tenant.getValue()));
+                    removeWritten(tenant.getValue());
+                } catch (RuntimeException e) {
+                    failed = true;
+                    log.warn("Failed to write {} buffered toggles of tenant {}, will retry",
+                            tenant.getValue().size(), tenant.getKey(), e);
+                }
+            }
+            if (!failed && journal != null) {
+                journal.delete(sealed);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 尚未写入数据库的待办事项数
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.pending.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    public long getToggleCount() { return toggleCount.get(); }
+
+    public long getWrittenCount() { return writtenCount.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("todoapp.toggle.pending", this, TodoToggleBuffer::getPendingCount)
+                .register(registry);
+        FunctionCounter.builder("todoapp.toggle.buffered", toggleCount, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("todoapp.toggle.written", writtenCount, AtomicLong::get)
+                .register(registry);
+    }
+
+    /**
+     * 记录由 before 切换后的状态，返回日志位置；日志模式下先追加日志，追加失败时不修改状态。调用方持有分段锁
+     */
+    private long set(Stripe stripe, Pending pending, TodoStatsRow before, LocalDateTime now) {
+        boolean completed = !Boolean.TRUE.equals(before.getCompleted());
+        long position = journal != null ? journal.appendSet(pending.tenant, pending.id, completed) : 0;
+        pending.completed = completed;
+        pending.updatedAt = now;
+        pending.row = before.withCompleted(completed, now);
+        pending.sequence++;
+        stripe.pending.put(keyOf(pending.tenant, pending.id), pending);
+        toggleCount.incrementAndGet();
+        return position;
+    }
+
+    /**
+     * 在分段锁外等待日志刷盘（journal-sync），之后才向调用方确认
+     */
+    private TodoStatsRow acknowledge(TodoStatsRow before, long position) {
+        if (journal != null) {
+            journal.sync(position);
+        }
+        return before;
+    }
+
+    /**
+     * 写入当前租户的一批状态，调用方持有 writeLock；实际发生变化的行在同一事务中写入发件箱，提交后失效缓存
+     */
+    private void write(List<Snapshot> snapshots) {
+        List<TodoCompletedState> states = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots) {
+            states.add(new TodoCompletedState(snapshot.id, snapshot.completed, snapshot.updatedAt));
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            int[] counts = todoBatchRepository.updateCompletedAll(TenantContext.current(), states);
+            boolean changed = false;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    TodoCompletedState state = states.get(i);
+                    todoCache.evictOnCommit(state.getId());
+                    todoOutbox.append(TodoEventType.TOGGLED, state.getId(),
+                            new TodoToggleResponse(state.getId(), state.isCompleted(), state.getUpdatedAt()));
+                    changed = true;
+                }
+            }
+            if (changed) {
+                todoTableVersion.bump();
+            }
+        });
+        writtenCount.addAndGet(states.size());
+    }
+
+    /**
+     * 移除已写入且之后没有再切换的条目，并在日志中记录它们已写入
+     */
+    private void removeWritten(List<Snapshot> snapshots) {
+        List<String> removed = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots) {
+            Stripe stripe = stripeOf(snapshot.key);
+            stripe.lock.lock();
+            try {
+                Pending pending = stripe.pending.get(snapshot.key);
+                if (pending != null && pending.sequence == snapshot.sequence) {
+                    stripe.pending.remove(snapshot.key);
+                    stripe.flushed++;
+                    removed.add(snapshot.key);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (journal != null) {
+            journal.appendCleared(removed);
+        }
+    }
+
+    private static Snapshot snapshotOf(Stripe stripe, String key) {
+        stripe.lock.lock();
+        try {
+            Pending pending = stripe.pending.get(key);
+            return pending != null ? new Snapshot(key, pending) : null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 按租户分组复制所有未写入的条目，条目留在表中直到写入完成
+     */
+    private Map<String, List<Snapshot>> snapshot() {
+        Map<String, List<Snapshot>> byTenant = new LinkedHashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Map.Entry<String, Pending> entry : stripe.pending.entrySet()) {
+                    byTenant.computeIfAbsent(entry.getValue().tenant, t -> new ArrayList<>())
+                            .add(new Snapshot(entry.getKey(), entry.getValue()));
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return byTenant;
+    }
+
+    private void recover() {
+        Map<String, ToggleJournal.Recovered> recovered = journal.recover();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, ToggleJournal.Recovered> entry : recovered.entrySet()) {
+            ToggleJournal.Recovered state = entry.getValue();
+            Pending pending = new Pending(state.getTenant(), state.getId());
+            pending.completed = state.isCompleted();
+            pending.updatedAt = now;
+            stripeOf(entry.getKey()).pending.put(entry.getKey(), pending);
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} buffered toggles from journal", recovered.size());
+        }
+    }
+
+    private Stripe stripeOf(String key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), STRIPES)];
+    }
+
+    private static String keyOf(String tenant, Long id) {
+        return tenant + ":" + id;
+    }
+
+    /**
+     * 状态表的一个分段
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Pending> pending = new HashMap<>();
+
+        /**
+         * 本分段写入数据库后移除的条目数，用于发现查询数据库期间是否有条目被移除
+         */
+        private long flushed;
+    }
+
+    /**
+     * 一条待办事项未写入数据库的最终状态；sequence 每次切换加一，写入期间再次切换的条目不移除
+     */
+    private static final class Pending {
+        private final String tenant;
+        private final Long id;
+        private boolean completed;
+        private LocalDateTime updatedAt;
+        private long sequence;
+
+        /**
+         * 切换后的统计字段，下次切换时作为旧状态；从日志恢复的条目为 null
+         */
+        private TodoStatsRow row;
+
+        private Pending(String tenant, Long id) {
+            this.tenant = tenant;
+            this.id = id;
+        }
+    }
+
+    /**
+     * 取快照时条目的副本
+     */
+    private static final class Snapshot {
+        private final String key;
+        private final Long id;
+        private final boolean completed;
+        private final LocalDateTime updatedAt;
+        private final long sequence;
+
+        private Snapshot(String key, Pending pending) {
+            this.key = key;
+            this.id = pending.id;
+            this.completed = pending.completed;
+            this.updatedAt = pending.updatedAt;
+            this.sequence = pending.sequence;
+        }
+    }
+}
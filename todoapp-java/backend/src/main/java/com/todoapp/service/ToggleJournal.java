@@ -0,0 +1,281 @@
+package com.todoapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 写回切换的本地追加日志：每次切换追加一行 "S 租户 ID 0|1"（切换后的状态），写入数据库后追加 "C 租户 ID"
+ * 日志按段滚动，滚动前的段在其中的切换都写入数据库后整段删除；启动时按段顺序重放，得到尚未写入数据库的状态
+ */
+final class ToggleJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ToggleJournal.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("toggles-(\\d+)\\.log");
+
+    private final Path dir;
+    private final boolean sync;
+
+    /**
+     * 保护 channel、segment、written、sealed；与 syncLock 同时持有时先取 syncLock
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long segment;
+    private long segmentStart;
+    private long written;
+    private long synced;
+    private final List<Path> sealed = new ArrayList<>();
+
+    /**
+     * sync 为 true 时每次追加在返回前刷到磁盘，否则只写入操作系统缓存（进程崩溃不丢，断电可能丢）
+     */
+    ToggleJournal(Path dir, boolean sync) {
+        this.dir = dir;
+        this.sync = sync;
+    }
+
+    /**
+     * 重放已有的段，返回每个待办事项尚未写入数据库的状态（键为 "租户:ID"），并打开新段
+     * 已有的段留到下次 {@link #rotate()} 后随之删除
+     */
+    Map<String, Recovered> recover() {
+        Map<String, Recovered> states = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(dir);
+            List<Path> segments;
+            try (Stream<Path> files = Files.list(dir)) {
+                segments = files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                        .sorted((a, b) -> Long.compare(segmentOf(a), segmentOf(b)))
+                        .toList();
+            }
+            for (Path file : segments) {
+                replay(file, states);
+                segment = Math.max(segment, segmentOf(file));
+            }
+            lock.lock();
+            try {
+                sealed.addAll(segments);
+                open(segment + 1);
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover toggle journal in " + dir, e);
+        }
+        return states;
+    }
+
+    /**
+     * 追加切换后的状态，返回追加后的位置，供 {@link #sync(long)} 使用
+     */
+    long appendSet(String tenant, Long id, boolean completed) {
+        return append(new StringBuilder().append("S ").append(tenant).append(' ').append(id)
+                .append(completed ? " 1\n" : " 0\n"));
+    }
+
+    /**
+     * 追加已写入数据库的待办事项，重放时不再恢复它们之前的状态
+     */
+    void appendCleared(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        for (String key : keys) {
+            int separator = key.lastIndexOf(':');
+            records.append("C ").append(key, 0, separator).append(' ').append(key, separator + 1, key.length())
+                    .append('\n');
+        }
+        append(records);
+    }
+
+    /**
+     * 同步模式下等待 position 之前的内容刷到磁盘；并发调用合并为一次刷盘
+     */
+    void sync(long position) {
+        if (!sync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            lock.lock();
+            try {
+                target = written;
+                current = channel;
+            } finally {
+                lock.unlock();
+            }
+            current.force(false);
+            synced = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync toggle journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 封存当前段并打开新段，返回所有已封存、尚未删除的段；当前段为空时不滚动
+     */
+    List<Path> rotate() {
+        syncLock.lock();
+        lock.lock();
+        try {
+            if (written == segmentStart) {
+                return List.copyOf(sealed);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+            synced = written;
+            channel.close();
+            sealed.add(segmentPath(segment));
+            open(segment + 1);
+            return List.copyOf(sealed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rotate toggle journal", e);
+        } finally {
+            lock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 删除其中的切换都已写入数据库的段
+     */
+    void delete(List<Path> segments) {
+        lock.lock();
+        try {
+            for (Path file : segments) {
+                Files.deleteIfExists(file);
+                sealed.remove(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete toggle journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close toggle journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long append(CharSequence records) {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(records.toString());
+        lock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to toggle journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 调用方持有 lock
+     */
+    private void open(long next) throws IOException {
+        segment = next;
+        segmentStart = written;
+        channel = FileChannel.open(segmentPath(next), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long number) {
+        return dir.resolve("toggles-" + number + ".log");
+    }
+
+    private static long segmentOf(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    /**
+     * 最后一行没有换行符说明写到一半时崩溃，忽略
+     */
+    private static void replay(Path file, Map<String, Recovered> states) throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] fields = line.split(" ");
+            try {
+                if (fields.length == 4 && fields[0].equals("S") && fields[3].matches("[01]")) {
+                    Long id = Long.valueOf(fields[2]);
+                    states.put(fields[1] + ":" + id, new Recovered(fields[1], id, fields[3].equals("1")));
+                } else if (fields.length == 3 && fields[0].equals("C")) {
+                    states.remove(fields[1] + ":" + Long.valueOf(fields[2]));
+                } else {
+                    log.warn("Skipping malformed toggle journal record in {}: {}", file, line);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Skipping malformed toggle journal record in {}: {}", file, line);
+            }
+        }
+    }
+
+    /**
+     * 重放得到的一条未写入数据库的状态
+     */
+    static final class Recovered {
+        private final String tenant;
+        private final Long id;
+        private final boolean completed;
+
+        Recovered(String tenant, Long id, boolean completed) {
+            this.tenant = tenant;
+            this.id = id;
+            this.completed = completed;
+        }
+
+        String getTenant() { return tenant; }
+
+        Long getId() { return id; }
+
+        boolean isCompleted() { return completed; }
+    }
+}
@@ -0,0 +1,31 @@
+package com.todoapp.service;
+
+import com.todoapp.exception.BadRequestException;
+
+/**
+ * 列表接口总数的计算方式
+ */
+public enum TotalMode {
+
+    /** 每次执行 COUNT 查询 */
+    EXACT,
+
+    /** 读取内存计数器，可能与数据库存在短暂偏差 */
+    APPROX,
+
+    /** 不返回总数 */
+    NONE;
+
+    public static TotalMode parse(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        switch (value.trim().toLowerCase()) {
+            case "exact":  return EXACT;
+            case "approx": return APPROX;
+            case "none":   return NONE;
+            default:
+                throw new BadRequestException("total must be one of exact, approx, none");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.todoapp.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后的回调工具
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    /**
+     * 在当前事务提交后执行，回滚时不执行；不在事务中时立即执行
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.todoapp.tenant;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 租户到分片的映射
+ * 每个租户的数据只存放在一个分片上；未指定的租户在默认分片（spring.datasource）上。
+ * 新增分片后把租户迁过去并在 todoapp.tenancy.assignments 中指定，即可分摊容量
+ */
+@Component
+public class ShardRouter {
+
+    public static final String DEFAULT_SHARD = "default";
+
+    /**
+     * 显式指定的分片，优先于按租户映射；用于跨租户的维护任务逐个分片执行
+     */
+    private static final ThreadLocal<String> PINNED = new ThreadLocal<>();
+
+    private final List<String> shards = new ArrayList<>();
+    private final Map<String, String> assignments;
+
+    public ShardRouter(TenancyProperties properties) {
+        shards.add(DEFAULT_SHARD);
+        for (TenancyProperties.Shard shard : properties.getShards()) {
+            if (shard.getName() == null || shards.contains(shard.getName())) {
+                throw new IllegalStateException("Shard names must be present and unique: " + shard.getName());
+            }
+            shards.add(shard.getName());
+        }
+        properties.getAssignments().forEach((tenant, shard) -> {
+            if (!shards.contains(shard)) {
+                throw new IllegalStateException("Tenant " + tenant + " is assigned to unknown shard " + shard);
+            }
+        });
+        this.assignments = Map.copyOf(properties.getAssignments());
+    }
+
+    /**
+     * 全部分片名，默认分片在最前
+     */
+    public List<String> getShards() {
+        return List.copyOf(shards);
+    }
+
+    public String shardOf(String tenant) {
+        return assignments.getOrDefault(tenant, DEFAULT_SHARD);
+    }
+
+    /**
+     * 当前线程访问的分片：显式指定的分片，否则为当前租户所在的分片
+     */
+    public String currentShard() {
+        String pinned = PINNED.get();
+        return pinned != null ? pinned : shardOf(TenantContext.current());
+    }
+
+    /**
+     * 在指定分片上执行
+     */
+    public void runOnShard(String shard, Runnable action) {
+        String previous = PINNED.get();
+        PINNED.set(shard);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                PINNED.remove();
+            } else {
+                PINNED.set(previous);
+            }
+        }
+    }
+}
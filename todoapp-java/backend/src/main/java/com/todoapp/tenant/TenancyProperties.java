@@ -0,0 +1,93 @@
+package com.todoapp.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 租户分片配置（todoapp.tenancy）
+ */
+@ConfigurationProperties(prefix = "todoapp.tenancy")
+public class TenancyProperties {
+
+    /**
+     * 默认分片（spring.datasource）之外的分片
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * 租户到分片名的映射，未列出的租户在默认分片上
+     */
+    private Map<String, String> assignments = new LinkedHashMap<>();
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public Map<String, String> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(Map<String, String> assignments) {
+        this.assignments = assignments;
+    }
+
+    /**
+     * 单个分片的连接信息，未设置的用户名、密码和驱动沿用主库配置，连接池参数与主库相同
+     */
+    public static class Shard {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.todoapp.tenant;
+
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * 当前线程所属的租户
+ * 请求线程由控制器层的拦截器绑定；交给其他线程执行的任务须用 wrap 带上提交方的租户。
+ * 未绑定时为默认租户，单租户部署无需传租户请求头
+ */
+public final class TenantContext {
+
+    /**
+     * 携带租户ID的请求头
+     */
+    public static final String HEADER = "X-Tenant-ID";
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {}
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 租户ID只允许字母、数字、下划线和连字符，最长 64 个字符
+     */
+    public static boolean isValid(String tenant) {
+        return tenant != null && VALID_TENANT.matcher(tenant).matches();
+    }
+
+    /**
+     * 以指定租户执行，结束后恢复原来的租户
+     */
+    public static void run(String tenant, Runnable action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            action.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 包装任务，使其在执行线程上以当前租户运行
+     */
+    public static Runnable wrap(Runnable action) {
+        String tenant = current();
+        return () -> run(tenant, action);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> action) {
+        String tenant = current();
+        return () -> {
+            String previous = CURRENT.get();
+            CURRENT.set(tenant);
+            try {
+                return action.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- 嵌入式模式的索引，与 db/todoapp.sql 中 todos 表的索引一致；表由 Hibernate 创建，每次启动执行
+CREATE INDEX IF NOT EXISTS idx_tenant_id ON todos (tenant_id, id);
+CREATE INDEX IF NOT EXISTS idx_tenant_created_at_id ON todos (tenant_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tenant_completed_created_at_id ON todos (tenant_id, completed, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tenant_priority ON todos (tenant_id, priority);
+CREATE INDEX IF NOT EXISTS idx_tenant_due_date ON todos (tenant_id, due_date);
@@ -0,0 +1,132 @@
+package com.todoapp.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用两个（或三个）独立的 H2 内存库分别充当主库和只读副本，每个库的 node 表记录自己的名字
+ */
+@DisplayName("ReplicaRoutingDataSource 单元测试")
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica1 = database("replica-1");
+        replica2 = database("replica-2");
+    }
+
+    @Test
+    @DisplayName("测试只读事务走副本，读写事务和非事务访问走主库")
+    void testRoutesByReadOnly() {
+        Routed routed = routed(List.of(replica1), 1000);
+
+        assertEquals("replica-1", routed.read());
+        assertEquals("primary", routed.readWrite());
+        assertEquals("primary", routed.jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    @DisplayName("测试多个副本轮询分发")
+    void testRoundRobin() {
+        Routed routed = routed(List.of(replica1, replica2), 1000);
+
+        assertEquals("replica-1", routed.read());
+        assertEquals("replica-2", routed.read());
+        assertEquals("replica-1", routed.read());
+    }
+
+    @Test
+    @DisplayName("测试写事务提交后一段时间内读到主库上自己的写入")
+    void testReadYourWrites() {
+        Routed routed = routed(List.of(replica1), 1000);
+
+        routed.tx.executeWithoutResult(status -> routed.jdbc.update("UPDATE node SET name = 'primary-written'"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("primary-written", routed.read());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals("replica-1", routed.read());
+    }
+
+    @Test
+    @DisplayName("测试回滚的写事务不影响只读事务选库")
+    void testRollbackDoesNotPin() {
+        Routed routed = routed(List.of(replica1), 1000);
+
+        routed.tx.executeWithoutResult(status -> {
+            routed.jdbc.update("UPDATE node SET name = 'primary-written'");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica-1", routed.read());
+    }
+
+    @Test
+    @DisplayName("测试时长为 0 时写后立即读副本")
+    void testPrimaryAfterWriteDisabled() {
+        Routed routed = routed(List.of(replica1), 0);
+
+        routed.tx.executeWithoutResult(status -> routed.jdbc.update("UPDATE node SET name = 'primary-written'"));
+
+        assertEquals("replica-1", routed.read());
+    }
+
+    private Routed routed(List<DataSource> replicas, long primaryAfterWriteMs) {
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primary, replicas, primaryAfterWriteMs, clock::get);
+        return new Routed(new LazyConnectionDataSourceProxy(routing));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static class Routed {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate tx;
+        private final TransactionTemplate readOnlyTx;
+
+        Routed(DataSource dataSource) {
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.tx = new TransactionTemplate(transactionManager);
+            this.readOnlyTx = new TransactionTemplate(transactionManager);
+            this.readOnlyTx.setReadOnly(true);
+        }
+
+        String read() {
+            return readOnlyTx.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String readWrite() {
+            return tx.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
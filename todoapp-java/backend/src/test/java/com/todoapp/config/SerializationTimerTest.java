@@ -0,0 +1,58 @@
+package com.todoapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SerializationTimer 单元测试")
+class SerializationTimerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private void write(AbstractGenericHttpMessageConverter<Object> converter) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(Map.of("id", 1), Map.class, null, output);
+        assertTrue(output.getBodyAsBytes().length > 0);
+    }
+
+    private Timer timer(String format) {
+        return meterRegistry.get("todoapp.http.serialization").tag("format", format).timer();
+    }
+
+    @Test
+    @DisplayName("测试各格式的转换器按 format 标签记录序列化耗时")
+    void testConvertersRecordByFormat() throws IOException {
+        write(new TimedJacksonHttpMessageConverter(new ObjectMapper(), meterRegistry));
+        write(new TimedCborHttpMessageConverter(new ObjectMapper(new CBORFactory()), meterRegistry));
+        write(new TimedCborHttpMessageConverter(new ObjectMapper(new CBORFactory()), meterRegistry));
+        write(new TimedSmileHttpMessageConverter(new ObjectMapper(new SmileFactory()), meterRegistry));
+
+        assertEquals(1, timer("json").count());
+        assertEquals(2, timer("cbor").count());
+        assertEquals(1, timer("smile").count());
+    }
+
+    @Test
+    @DisplayName("测试写出失败时仍记录耗时并抛出原异常")
+    void testRecordsFailedWrite() {
+        SerializationTimer serializationTimer = new SerializationTimer(meterRegistry, "json");
+
+        IOException e = assertThrows(IOException.class, () -> serializationTimer.record(() -> {
+            throw new IOException("broken pipe");
+        }));
+
+        assertEquals("broken pipe", e.getMessage());
+        assertEquals(1, timer("json").count());
+    }
+}
@@ -0,0 +1,90 @@
+package com.todoapp.config;
+
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenancyProperties;
+import com.todoapp.tenant.TenantContext;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用两个独立的 H2 内存库分别充当默认分片和 shard-1，每个库的 node 表记录自己的名字
+ */
+@DisplayName("TenantRoutingDataSource 单元测试")
+class TenantRoutingDataSourceTest {
+
+    private ShardRouter shardRouter;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        TenancyProperties properties = new TenancyProperties();
+        properties.setShards(List.of(shard("shard-1")));
+        properties.setAssignments(Map.of("acme", "shard-1"));
+        shardRouter = new ShardRouter(properties);
+
+        TenantRoutingDataSource routing = new TenantRoutingDataSource(shardRouter, Map.of(
+                ShardRouter.DEFAULT_SHARD, database("default"),
+                "shard-1", database("shard-1")));
+        jdbc = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+    }
+
+    @Test
+    @DisplayName("测试按当前租户选择分片，未指定分片的租户走默认分片")
+    void testRoutesByTenant() {
+        assertEquals("default", node());
+        TenantContext.run("acme", () -> assertEquals("shard-1", node()));
+        TenantContext.run("other", () -> assertEquals("default", node()));
+    }
+
+    @Test
+    @DisplayName("测试显式指定的分片优先于租户所在分片")
+    void testPinnedShard() {
+        TenantContext.run("acme", () -> shardRouter.runOnShard(ShardRouter.DEFAULT_SHARD,
+                () -> assertEquals("default", node())));
+        shardRouter.runOnShard("shard-1", () -> assertEquals("shard-1", node()));
+        assertEquals("default", node());
+    }
+
+    @Test
+    @DisplayName("测试分片名重复或租户指定了未知分片时启动失败")
+    void testInvalidConfiguration() {
+        TenancyProperties duplicate = new TenancyProperties();
+        duplicate.setShards(List.of(shard("shard-1"), shard("shard-1")));
+        assertThrows(IllegalStateException.class, () -> new ShardRouter(duplicate));
+
+        TenancyProperties unknown = new TenancyProperties();
+        unknown.setAssignments(Map.of("acme", "shard-9"));
+        assertThrows(IllegalStateException.class, () -> new ShardRouter(unknown));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static TenancyProperties.Shard shard(String name) {
+        TenancyProperties.Shard shard = new TenancyProperties.Shard();
+        shard.setName(name);
+        shard.setUrl("jdbc:h2:mem:" + name);
+        return shard;
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
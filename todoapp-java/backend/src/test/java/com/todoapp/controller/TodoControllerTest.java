@@ -1,10 +1,17 @@
 package com.todoapp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.todoapp.dto.*;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.exception.ConflictException;
 import com.todoapp.exception.GlobalExceptionHandler;
 import com.todoapp.exception.ResourceNotFoundException;
+import com.todoapp.service.DataFormat;
+import com.todoapp.service.PurgeScope;
 import com.todoapp.service.TodoService;
+import com.todoapp.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,11 +20,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -48,15 +63,24 @@ class TodoControllerTest {
                 "medium",
                 null,
                 LocalDateTime.now(),
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                3L
         );
+        collectionEtag("abc-0");
+    }
+
+    /**
+     * 列表的实体标签为 tag，withCollectionEtag 直接以它执行回调
+     */
+    private void collectionEtag(String tag) {
+        doAnswer(invocation -> invocation.<Function<String, Object>>getArgument(0).apply(tag))
+                .when(todoService).withCollectionEtag(any());
     }
 
     @Test
     @DisplayName("测试获取所有待办事项API")
     void testGetAllTodos() throws Exception {
-        List<TodoResponse> todos = Arrays.asList(testTodoResponse);
-        when(todoService.getAllTodos(any(), anyInt(), anyInt())).thenReturn(todos);
+        when(todoService.listTodos(any(), anyInt(), anyInt())).thenReturn(testTodoRows());
         when(todoService.getTotalCount(any())).thenReturn(1L);
 
         mockMvc.perform(get("/api/v1/todos")
@@ -69,10 +93,158 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.data[0].title").value("测试待办事项"))
                 .andExpect(jsonPath("$.total").value(1));
 
-        verify(todoService, times(1)).getAllTodos(any(), anyInt(), anyInt());
+        verify(todoService, times(1)).listTodos(any(), anyInt(), anyInt());
         verify(todoService, times(1)).getTotalCount(any());
     }
 
+    @Test
+    @DisplayName("测试获取待办事项时使用近似总数")
+    void testGetAllTodosWithApproxTotal() throws Exception {
+        when(todoService.listTodos(any(), anyInt(), anyInt())).thenReturn(testTodoRows());
+        when(todoService.getApproximateCount(any())).thenReturn(42L);
+
+        mockMvc.perform(get("/api/v1/todos").param("total", "approx"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(42));
+
+        verify(todoService, never()).getTotalCount(any());
+    }
+
+    @Test
+    @DisplayName("测试获取待办事项时不返回总数")
+    void testGetAllTodosWithoutTotal() throws Exception {
+        when(todoService.listTodos(any(), anyInt(), anyInt())).thenReturn(testTodoRows());
+
+        mockMvc.perform(get("/api/v1/todos").param("total", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").doesNotExist());
+
+        verify(todoService, never()).getTotalCount(any());
+        verify(todoService, never()).getApproximateCount(any());
+    }
+
+    @Test
+    @DisplayName("测试游标分页获取待办事项API")
+    void testGetAllTodosWithCursor() throws Exception {
+        TodoRowsPage page = new TodoRowsPage(testTodoRows(), "next-token");
+        when(todoService.listTodosByCursor(any(), anyInt(), eq(""))).thenReturn(page);
+        when(todoService.getTotalCount(any())).thenReturn(1L);
+
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("limit", "1")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("测试待办事项"))
+                .andExpect(jsonPath("$.next_cursor").value("next-token"));
+
+        verify(todoService, never()).listTodos(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试非法游标返回400")
+    void testGetAllTodosWithInvalidCursor() throws Exception {
+        when(todoService.listTodosByCursor(any(), anyInt(), eq("bad")))
+                .thenThrow(new BadRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/todos").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+    }
+
+    @Test
+    @DisplayName("测试根据ID获取待办事项API")
+    void testGetTodoById() throws Exception {
+        when(todoService.getTodoById(1L)).thenReturn(testTodoResponse);
+
+        mockMvc.perform(get("/api/v1/todos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.id").value(1));
+
+        verify(todoService, times(1)).getTodoById(1L);
+    }
+
+    @Test
+    @DisplayName("测试列表未变化时返回304且不查询数据")
+    void testGetAllTodosNotModified() throws Exception {
+        collectionEtag("abc-7");
+
+        mockMvc.perform(get("/api/v1/todos").header("If-None-Match", "W/\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc-7\""))
+                .andExpect(content().string(""));
+
+        verify(todoService, never()).listTodos(any(), anyInt(), anyInt());
+        verify(todoService, never()).getTotalCount(any());
+    }
+
+    @Test
+    @DisplayName("测试列表已变化时返回200和新的ETag")
+    void testGetAllTodosModified() throws Exception {
+        collectionEtag("abc-8");
+        when(todoService.listTodos(any(), anyInt(), anyInt())).thenReturn(testTodoRows());
+
+        mockMvc.perform(get("/api/v1/todos").header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc-8\""))
+                .andExpect(header().string("Vary", "Accept, X-Tenant-ID"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.data[0].id").value(1));
+    }
+
+    @Test
+    @DisplayName("测试租户请求头格式不合法时返回400")
+    void testInvalidTenantHeader() throws Exception {
+        mockMvc.perform(get("/api/v1/todos").header("X-Tenant-ID", "acme/../other"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    @DisplayName("测试按 Accept 返回 CBOR 格式")
+    void testGetTodoByIdAsCbor() throws Exception {
+        when(todoService.getTodoById(1L)).thenReturn(testTodoResponse);
+
+        byte[] body = mockMvc.perform(get("/api/v1/todos/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode node = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(1L, node.path("data").path("id").asLong());
+        assertEquals("测试待办事项", node.path("data").path("title").asText());
+    }
+
+    @Test
+    @DisplayName("测试列表按 Accept 返回 CBOR 格式")
+    void testGetAllTodosAsCbor() throws Exception {
+        when(todoService.listTodos(any(), anyInt(), anyInt())).thenReturn(testTodoRows());
+
+        byte[] body = mockMvc.perform(get("/api/v1/todos").param("total", "none").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode item = new ObjectMapper(new CBORFactory()).readTree(body).path("data").path(0);
+        assertEquals("测试待办事项", item.path("title").asText());
+        assertEquals("medium", item.path("priority").asText());
+        assertEquals(3L, item.path("version").asLong());
+        assertEquals(true, item.path("due_date").isNull());
+    }
+
+    @Test
+    @DisplayName("测试单条待办事项未变化时返回304")
+    void testGetTodoByIdNotModified() throws Exception {
+        when(todoService.getTodoById(1L)).thenReturn(testTodoResponse);
+        String etag = "W/\"" + TodoService.etagOf(testTodoResponse) + "\"";
+
+        mockMvc.perform(get("/api/v1/todos/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+    }
+
     @Test
     @DisplayName("测试创建待办事项API")
     void testCreateTodo() throws Exception {
@@ -109,6 +281,40 @@ class TodoControllerTest {
         verify(todoService, never()).createTodo(any(TodoDTO.class));
     }
 
+    @Test
+    @DisplayName("测试批量创建待办事项API")
+    void testCreateTodos() throws Exception {
+        BatchCreateResponse result = new BatchCreateResponse(1, 1, Arrays.asList(
+                BatchItemResult.created(0, 1L),
+                BatchItemResult.invalid(1, java.util.Map.of("title", "标题不能为空"))
+        ));
+        when(todoService.createTodos(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"新待办事项\"},{\"title\":\"\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.created_count").value(1))
+                .andExpect(jsonPath("$.data.failed_count").value(1))
+                .andExpect(jsonPath("$.data.results[0].id").value(1))
+                .andExpect(jsonPath("$.data.results[1].errors.title").value("标题不能为空"));
+    }
+
+    @Test
+    @DisplayName("测试批量创建全部无效时返回400")
+    void testCreateTodosAllInvalid() throws Exception {
+        BatchCreateResponse result = new BatchCreateResponse(0, 1, Arrays.asList(
+                BatchItemResult.invalid(0, java.util.Map.of("title", "标题不能为空"))
+        ));
+        when(todoService.createTodos(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+    }
+
     @Test
     @DisplayName("测试更新待办事项API")
     void testUpdateTodo() throws Exception {
@@ -116,7 +322,7 @@ class TodoControllerTest {
         updateDTO.setTitle("更新后的标题");
         updateDTO.setCompleted(true);
 
-        when(todoService.updateTodo(eq(1L), any(TodoUpdateDTO.class))).thenReturn(testTodoResponse);
+        when(todoService.updateTodo(eq(1L), any(TodoUpdateDTO.class), isNull())).thenReturn(testTodoResponse);
 
         mockMvc.perform(put("/api/v1/todos/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -126,7 +332,7 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.message").value("Todo updated successfully"))
                 .andExpect(jsonPath("$.data.id").value(1));
 
-        verify(todoService, times(1)).updateTodo(eq(1L), any(TodoUpdateDTO.class));
+        verify(todoService, times(1)).updateTodo(eq(1L), any(TodoUpdateDTO.class), isNull());
     }
 
     @Test
@@ -135,7 +341,7 @@ class TodoControllerTest {
         TodoUpdateDTO updateDTO = new TodoUpdateDTO();
         updateDTO.setTitle("更新后的标题");
 
-        when(todoService.updateTodo(eq(999L), any(TodoUpdateDTO.class)))
+        when(todoService.updateTodo(eq(999L), any(TodoUpdateDTO.class), isNull()))
                 .thenThrow(new ResourceNotFoundException("Todo with id 999 does not exist"));
 
         mockMvc.perform(put("/api/v1/todos/999")
@@ -144,7 +350,36 @@ class TodoControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(404));
 
-        verify(todoService, times(1)).updateTodo(eq(999L), any(TodoUpdateDTO.class));
+        verify(todoService, times(1)).updateTodo(eq(999L), any(TodoUpdateDTO.class), isNull());
+    }
+
+    @Test
+    @DisplayName("测试带 If-Match 更新时版本冲突返回409")
+    void testUpdateTodoVersionConflict() throws Exception {
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setTitle("更新后的标题");
+
+        when(todoService.updateTodo(eq(1L), any(TodoUpdateDTO.class), eq(3L)))
+                .thenThrow(new ConflictException("Todo with id 1 has been modified since version 3"));
+
+        mockMvc.perform(put("/api/v1/todos/1")
+                        .header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value(409));
+    }
+
+    @Test
+    @DisplayName("测试带 If-Match 切换完成状态返回新的ETag")
+    void testToggleTodoStatusWithIfMatch() throws Exception {
+        when(todoService.toggleTodoStatus(1L, 3L))
+                .thenReturn(new TodoToggleResponse(1L, true, LocalDateTime.now(), 4L));
+
+        mockMvc.perform(patch("/api/v1/todos/1/toggle").header("If-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-4\""))
+                .andExpect(jsonPath("$.data.version").value(4));
     }
 
     @Test
@@ -164,7 +399,7 @@ class TodoControllerTest {
     @DisplayName("测试切换待办事项完成状态API")
     void testToggleTodoStatus() throws Exception {
         TodoToggleResponse toggleResponse = new TodoToggleResponse(1L, true, LocalDateTime.now());
-        when(todoService.toggleTodoStatus(1L)).thenReturn(toggleResponse);
+        when(todoService.toggleTodoStatus(1L, null)).thenReturn(toggleResponse);
 
         mockMvc.perform(patch("/api/v1/todos/1/toggle"))
                 .andExpect(status().isOk())
@@ -173,7 +408,7 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.data.id").value(1))
                 .andExpect(jsonPath("$.data.completed").value(true));
 
-        verify(todoService, times(1)).toggleTodoStatus(1L);
+        verify(todoService, times(1)).toggleTodoStatus(1L, null);
     }
 
     @Test
@@ -203,4 +438,182 @@ class TodoControllerTest {
 
         verify(todoService, times(1)).deleteAllTodos();
     }
+
+    @Test
+    @DisplayName("测试提交后台清理任务API")
+    void testStartPurgeJob() throws Exception {
+        PurgeJobResponse job = new PurgeJobResponse("job-1", "completed", "PENDING", 0L,
+                LocalDateTime.now(), null, null);
+        when(todoService.startPurgeJob(PurgeScope.COMPLETED)).thenReturn(job);
+
+        mockMvc.perform(post("/api/v1/todos/purge-jobs").param("scope", "completed"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.code").value(202))
+                .andExpect(jsonPath("$.data.job_id").value("job-1"));
+    }
+
+    @Test
+    @DisplayName("测试查询后台清理任务API")
+    void testGetPurgeJob() throws Exception {
+        PurgeJobResponse job = new PurgeJobResponse("job-1", "all", "COMPLETED", 42L,
+                LocalDateTime.now(), LocalDateTime.now(), null);
+        when(todoService.getPurgeJob("job-1")).thenReturn(job);
+
+        mockMvc.perform(get("/api/v1/todos/purge-jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.deleted_count").value(42));
+    }
+
+    @Test
+    @DisplayName("测试获取统计API")
+    void testGetStats() throws Exception {
+        Map<String, TodoStatsResponse.PriorityStats> byPriority = new LinkedHashMap<>();
+        byPriority.put("low", new TodoStatsResponse.PriorityStats(2L, 1L));
+        TodoStatsResponse stats = new TodoStatsResponse(3L, 2L, 1L, 1L, 1.0 / 3, byPriority,
+                List.of(new TodoStatsResponse.DailyStats(LocalDate.of(2026, 3, 10), 3L, 1L)), LocalDateTime.now());
+        when(todoService.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/v1/todos/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andExpect(jsonPath("$.data.overdue").value(1))
+                .andExpect(jsonPath("$.data.by_priority.low.active").value(2))
+                .andExpect(jsonPath("$.data.history[0].date").value("2026-03-10"))
+                .andExpect(jsonPath("$.data.history[0].completed").value(1));
+    }
+
+    @Test
+    @DisplayName("测试导出待办事项API")
+    void testExportTodos() throws Exception {
+        when(todoService.exportTodos(eq(true), eq(DataFormat.CSV), any())).thenReturn(0L);
+
+        mockMvc.perform(get("/api/v1/todos/export")
+                        .param("format", "csv")
+                        .param("completed", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"todos.csv\""));
+
+        verify(todoService).exportTodos(eq(true), eq(DataFormat.CSV), any());
+    }
+
+    @Test
+    @DisplayName("测试导出格式无效时返回400")
+    void testExportTodosWithInvalidFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/todos/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).exportTodos(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("测试订阅变更事件可用 tenant_id 查询参数指定租户，请求头优先")
+    void testStreamTodoChangesTenantParameter() throws Exception {
+        List<String> tenants = new CopyOnWriteArrayList<>();
+        when(todoService.subscribeToChanges(any())).thenAnswer(invocation -> {
+            tenants.add(TenantContext.current());
+            return new SseEmitter();
+        });
+
+        mockMvc.perform(get("/api/v1/todos/stream").param("tenant_id", "acme").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/v1/todos/stream").param("tenant_id", "acme").header("X-Tenant-ID", "globex")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/v1/todos/stream").param("tenant_id", "acme/../other")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(List.of("acme", "globex"), tenants);
+    }
+
+    @Test
+    @DisplayName("测试 tenant_id 查询参数只对订阅变更事件生效")
+    void testTenantParameterIgnoredOutsideStream() throws Exception {
+        List<String> tenants = new CopyOnWriteArrayList<>();
+        when(todoService.listTodos(any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            tenants.add(TenantContext.current());
+            return testTodoRows();
+        });
+
+        mockMvc.perform(get("/api/v1/todos").param("tenant_id", "acme"))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of(TenantContext.DEFAULT_TENANT), tenants);
+    }
+
+    @Test
+    @DisplayName("测试订阅变更事件时传递 Last-Event-ID")
+    void testStreamTodoChanges() throws Exception {
+        when(todoService.subscribeToChanges("42")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/todos/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "42"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(todoService).subscribeToChanges("42");
+    }
+
+    @Test
+    @DisplayName("测试导入待办事项API")
+    void testImportTodos() throws Exception {
+        when(todoService.importTodos(any(), eq(DataFormat.NDJSON)))
+                .thenReturn(new ImportResponse(2L, 1L, null, null));
+
+        mockMvc.perform(post("/api/v1/todos/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\":\"一\"}\n{\"title\":\"二\"}\n{\"title\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.accepted_count").value(2))
+                .andExpect(jsonPath("$.data.rejected_count").value(1));
+    }
+
+    @Test
+    @DisplayName("测试导入全部失败时返回400")
+    void testImportTodosAllRejected() throws Exception {
+        when(todoService.importTodos(any(), eq(DataFormat.CSV)))
+                .thenReturn(new ImportResponse(0L, 0L, null, "CSV header must contain a title column"));
+
+        mockMvc.perform(post("/api/v1/todos/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("name\r\na\r\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.error").value("CSV header must contain a title column"));
+    }
+
+    @Test
+    @DisplayName("测试同时进行的导入数已达上限时返回503")
+    void testImportTodosTooManyInProgress() throws Exception {
+        when(todoService.importTodos(any(), eq(DataFormat.NDJSON)))
+                .thenThrow(new RejectedExecutionException("Too many imports in progress, retry later"));
+
+        mockMvc.perform(post("/api/v1/todos/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\":\"一\"}\n"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value(503));
+    }
+
+    @Test
+    @DisplayName("测试搜索待办事项API")
+    void testSearchTodos() throws Exception {
+        when(todoService.searchTodos("测试", null, 20))
+                .thenReturn(new SearchPage<>(Arrays.asList(testTodoResponse), 1));
+
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "测试"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("测试待办事项"))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    private TodoRows testTodoRows() {
+        TodoRows rows = new TodoRows(1);
+        rows.add(1L, "测试待办事项", "测试描述", false, 1, null,
+                testTodoResponse.getCreatedAt(), testTodoResponse.getUpdatedAt(), 3L);
+        return rows;
+    }
 }
@@ -0,0 +1,74 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TodoRows 单元测试")
+class TodoRowsTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    @DisplayName("测试序列化结果与 TodoResponse 列表逐字节一致")
+    void testSerializesLikeTodoResponses() throws Exception {
+        LocalDateTime[] dates = {
+                LocalDateTime.of(2026, 3, 10, 12, 0),
+                LocalDateTime.of(2026, 3, 10, 12, 0, 5, 120_000_000),
+                LocalDateTime.of(1999, 12, 31, 23, 59, 59, 1),
+                LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000),
+                LocalDateTime.of(12026, 1, 2, 3, 4)
+        };
+        TodoRows rows = new TodoRows(2);
+        List<TodoResponse> responses = new ArrayList<>();
+        String[] priorities = {"low", "medium", "high"};
+        for (int i = 0; i < dates.length; i++) {
+            String description = i % 2 == 0 ? null : "描述 \"" + i + "\"\n";
+            LocalDateTime dueDate = i % 3 == 0 ? null : dates[(i + 1) % dates.length];
+            rows.add(i + 1, "标题" + i, description, i % 2 == 1, i % 3, dueDate, dates[i], dates[i], i * 7L);
+            responses.add(new TodoResponse((long) i + 1, "标题" + i, description, i % 2 == 1, priorities[i % 3],
+                    dueDate, dates[i], dates[i], i * 7L));
+        }
+
+        assertEquals(objectMapper.writeValueAsString(ApiResponse.success(responses, 5L, "next")),
+                objectMapper.writeValueAsString(ApiResponse.success(rows, 5L, "next")));
+    }
+
+    @Test
+    @DisplayName("测试日期按时间戳输出时与 TodoResponse 列表一致")
+    void testSerializesTimestampsLikeTodoResponses() throws Exception {
+        ObjectMapper timestamps = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        LocalDateTime date = LocalDateTime.of(2026, 3, 10, 12, 0, 5, 120_000_000);
+        TodoRows rows = new TodoRows(1);
+        rows.add(1L, "标题", null, false, 2, null, date, date, 0L);
+        List<TodoResponse> responses = List.of(new TodoResponse(1L, "标题", null, false, "high", null, date, date, 0L));
+
+        assertEquals(timestamps.writeValueAsString(responses), timestamps.writeValueAsString(rows));
+    }
+
+    @Test
+    @DisplayName("测试超出初始容量时扩容，截断后只输出保留的行")
+    void testGrowAndTruncate() throws Exception {
+        LocalDateTime date = LocalDateTime.of(2026, 3, 10, 12, 0);
+        TodoRows rows = new TodoRows(1);
+        for (long id = 1; id <= 5; id++) {
+            rows.add(id, "标题", null, false, 0, null, date, date, 0L);
+        }
+        assertEquals(5, rows.size());
+
+        rows.truncate(2);
+
+        assertEquals(2, rows.size());
+        assertEquals(2L, rows.getId(1));
+        assertEquals(2, objectMapper.readTree(objectMapper.writeValueAsString(rows)).size());
+    }
+}
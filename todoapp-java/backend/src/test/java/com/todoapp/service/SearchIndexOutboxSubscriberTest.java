@@ -0,0 +1,109 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.entity.Todo;
+import com.todoapp.entity.TodoOutboxEvent;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchIndexOutboxSubscriber 单元测试")
+class SearchIndexOutboxSubscriberTest {
+
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+
+    @Mock
+    private TodoSearchIndex todoSearchIndex;
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SearchIndexOutboxSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        subscriber = new SearchIndexOutboxSubscriber(todoSearchIndex, todoRepository, entityManager,
+                new ObjectMapper(), transactionManager);
+    }
+
+    private static TodoOutboxEvent event(TodoEventType type, Long aggregateId, String payload) {
+        return new TodoOutboxEvent(TENANT, aggregateId, type.getEventName(), payload);
+    }
+
+    private static Todo todo(Long id) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTenantId(TENANT);
+        todo.setTitle("待办" + id);
+        return todo;
+    }
+
+    @Test
+    @DisplayName("测试创建和更新按ID重新读取后写入索引，已删除时删除文档")
+    void testCreatedAndUpdatedReload() {
+        Todo todo = todo(1L);
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(todo));
+        when(todoRepository.findByTenantIdAndId(TENANT, 2L)).thenReturn(Optional.empty());
+
+        subscriber.onEvent(event(TodoEventType.CREATED, 1L, "{\"id\":1}"));
+        subscriber.onEvent(event(TodoEventType.UPDATED, 2L, "{\"id\":2}"));
+
+        verify(todoSearchIndex).index(todo);
+        verify(todoSearchIndex).remove(2L);
+    }
+
+    @Test
+    @DisplayName("测试切换只更新完成状态，删除事件删除文档")
+    void testToggledAndDeleted() {
+        subscriber.onEvent(event(TodoEventType.TOGGLED, 5L, "{\"id\":5,\"completed\":true}"));
+        subscriber.onEvent(event(TodoEventType.DELETED, 6L, "{\"id\":6}"));
+
+        verify(todoSearchIndex).updateCompleted(5L, true);
+        verify(todoSearchIndex).remove(6L);
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("测试批量写入按主键范围重新读取，分块删除按范围删除")
+    void testResetRanges() {
+        Todo first = todo(10L);
+        Todo second = todo(11L);
+        when(todoRepository.streamByIdRange(TENANT, 10L, 12L)).thenReturn(Stream.of(first, second));
+
+        subscriber.onEvent(event(TodoEventType.RESET, null, "{\"reason\":\"import\",\"from_id\":10,\"to_id\":12}"));
+        subscriber.onEvent(event(TodoEventType.RESET, null,
+                "{\"reason\":\"purge\",\"from_id\":20,\"to_id\":30,\"completed_only\":true}"));
+
+        verify(todoSearchIndex).index(first);
+        verify(todoSearchIndex).index(second);
+        verify(entityManager).detach(second);
+        verify(todoSearchIndex).removeRange(20L, 30L, true);
+    }
+
+    @Test
+    @DisplayName("测试不带主键范围的批量变更事件被忽略")
+    void testResetWithoutRange() {
+        subscriber.onEvent(event(TodoEventType.RESET, null, "{\"reason\":\"migrate\"}"));
+
+        verifyNoInteractions(todoSearchIndex, todoRepository);
+    }
+}
@@ -0,0 +1,85 @@
+package com.todoapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimingWheel 单元测试")
+class TimingWheelTest {
+
+    private static final long START = 1_234_567_890L;
+
+    @Test
+    @DisplayName("测试跨层下移后每个定时器恰好在到期刻度触发")
+    void testExpiresExactlyAtDeadline() {
+        TimingWheel<TestTimer> wheel = new TimingWheel<>(START);
+        Random random = new Random(42);
+        List<TestTimer> timers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            TestTimer timer = new TestTimer(START + 1 + random.nextInt(1 << 20));
+            assertTrue(wheel.add(timer, timer.due));
+            timers.add(timer);
+        }
+        List<TestTimer> cancelled = timers.subList(0, 1000);
+        cancelled.forEach(wheel::remove);
+        assertEquals(9000, wheel.size());
+
+        for (long tick = START + 1; tick <= START + (1 << 20); tick++) {
+            long now = tick;
+            wheel.advance(now, timer -> {
+                assertEquals(timer.due, now);
+                timer.fired++;
+            });
+        }
+
+        assertEquals(0, wheel.size());
+        cancelled.forEach(timer -> assertEquals(0, timer.fired));
+        timers.subList(1000, timers.size()).forEach(timer -> assertEquals(1, timer.fired));
+    }
+
+    @Test
+    @DisplayName("测试一次推进多个刻度、重新放入和已过期的定时器")
+    void testAdvanceInJumps() {
+        TimingWheel<TestTimer> wheel = new TimingWheel<>(START);
+        TestTimer past = new TestTimer(START - 10);
+        TestTimer moved = new TestTimer(START + 100);
+        TestTimer far = new TestTimer(START + 5000);
+        wheel.add(past, past.due);
+        wheel.add(moved, moved.due);
+        wheel.add(far, far.due);
+        wheel.add(moved, START + 10_000);
+
+        List<TestTimer> expired = new ArrayList<>();
+        wheel.advance(START + 1, expired::add);
+        assertEquals(List.of(past), expired);
+
+        wheel.advance(START + 9999, expired::add);
+        assertEquals(List.of(past, far), expired);
+
+        wheel.advance(START + 10_000, expired::add);
+        assertEquals(List.of(past, far, moved), expired);
+    }
+
+    @Test
+    @DisplayName("测试超出时间轮范围的定时器不放入")
+    void testBeyondRange() {
+        TimingWheel<TestTimer> wheel = new TimingWheel<>(START);
+
+        assertFalse(wheel.add(new TestTimer(0), START + (1L << 42)));
+        assertEquals(0, wheel.size());
+    }
+
+    private static final class TestTimer extends TimingWheel.Timer {
+        private final long due;
+        private int fired;
+
+        private TestTimer(long due) {
+            this.due = due;
+        }
+    }
+}
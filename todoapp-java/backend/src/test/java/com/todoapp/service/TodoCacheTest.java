@@ -0,0 +1,148 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TodoResponse;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoCache 单元测试")
+class TodoCacheTest {
+
+    private TodoResponse response(Long id) {
+        return new TodoResponse(id, "待办" + id, null, false, "low", null, null, null, 0L);
+    }
+
+    @Test
+    @DisplayName("测试命中与未命中计数")
+    void testHitAndMiss() {
+        TodoCache cache = new TodoCache(10, 60);
+
+        assertNull(cache.get(1L));
+        cache.putIfUnchanged(1L, response(1L), cache.stamp());
+        assertNotNull(cache.get(1L));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("测试超出容量时淘汰最久未使用的条目")
+    void testLruEviction() {
+        TodoCache cache = new TodoCache(2, 60);
+        cache.putIfUnchanged(1L, response(1L), cache.stamp());
+        cache.putIfUnchanged(2L, response(2L), cache.stamp());
+        cache.get(1L);
+        cache.putIfUnchanged(3L, response(3L), cache.stamp());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("测试过期条目不会返回")
+    void testTtlExpiry() {
+        TodoCache cache = new TodoCache(10, 0);
+        cache.putIfUnchanged(1L, response(1L), cache.stamp());
+
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("测试失效后丢弃失效前读到的数据")
+    void testStalePutDiscarded() {
+        TodoCache cache = new TodoCache(10, 60);
+        long stamp = cache.stamp();
+        cache.evict(1L);
+        cache.putIfUnchanged(1L, response(1L), stamp);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("测试命中与未命中次数导出为指标")
+    void testBindsHitAndMissMeters() {
+        TodoCache cache = new TodoCache(10, 60);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.putIfUnchanged(1L, response(1L), cache.stamp());
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("测试不同租户的相同ID互不命中，清空只影响当前租户")
+    void testTenantsIsolated() {
+        TodoCache cache = new TodoCache(10, 60);
+        cache.putIfUnchanged(1L, response(1L), cache.stamp());
+
+        TenantContext.run("acme", () -> {
+            assertNull(cache.get(1L));
+            cache.putIfUnchanged(1L, response(1L), cache.stamp());
+            cache.clear();
+            assertNull(cache.get(1L));
+        });
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("测试分段后总条目数不超过容量，淘汰次数与多出的条目数一致")
+    void testStripedCapacity() {
+        TodoCache cache = new TodoCache(1000, 60);
+        for (long id = 1; id <= 5000; id++) {
+            cache.putIfUnchanged(id, response(id), cache.stamp());
+        }
+
+        assertTrue(cache.size() <= 1000);
+        assertTrue(cache.size() > 900);
+        assertEquals(5000 - cache.size(), cache.getEvictionCount());
+        assertNotNull(cache.get(5000L));
+    }
+
+    @Test
+    @DisplayName("测试多线程并发读写和失效时计数一致")
+    void testConcurrentAccess() throws Exception {
+        TodoCache cache = new TodoCache(256, 60);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long offset = t * 1000L;
+                futures.add(executor.submit(() -> {
+                    for (long i = 0; i < 2000; i++) {
+                        long id = offset + i % 500;
+                        if (cache.get(id) == null) {
+                            cache.putIfUnchanged(id, response(id), cache.stamp());
+                        }
+                        if (i % 100 == 0) {
+                            cache.evict(id);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 256);
+        assertEquals(8 * 2000, cache.getHitCount() + cache.getMissCount());
+    }
+}
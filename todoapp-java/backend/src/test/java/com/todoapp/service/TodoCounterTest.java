@@ -0,0 +1,60 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoCounter 单元测试")
+class TodoCounterTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @InjectMocks
+    private TodoCounter todoCounter;
+
+    @BeforeEach
+    void setUp() {
+        when(todoRepository.countGroupByCompleted("default")).thenReturn(Arrays.asList(
+                new Object[]{false, 7L},
+                new Object[]{true, 3L}
+        ));
+    }
+
+    @Test
+    @DisplayName("测试首次读取时从数据库同步")
+    void testLazyResync() {
+        assertEquals(10L, todoCounter.get(null));
+        assertEquals(3L, todoCounter.get(true));
+        assertEquals(7L, todoCounter.get(false));
+        verify(todoRepository, times(1)).countGroupByCompleted("default");
+    }
+
+    @Test
+    @DisplayName("测试写操作增量调整计数")
+    void testIncrementalUpdates() {
+        todoCounter.resync();
+
+        todoCounter.onCreated();
+        todoCounter.onCompletedChanged(true);
+        todoCounter.onDeleted(false);
+        todoCounter.onCompletedDeleted(2);
+
+        assertEquals(6L, todoCounter.get(false));
+        assertEquals(2L, todoCounter.get(true));
+
+        todoCounter.onAllDeleted();
+        assertEquals(0L, todoCounter.get(null));
+    }
+}
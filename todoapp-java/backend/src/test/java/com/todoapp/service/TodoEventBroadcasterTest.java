@@ -0,0 +1,211 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoEventBroadcaster 单元测试")
+class TodoEventBroadcasterTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean nextBlocks;
+
+    private TodoEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    private TodoEventBroadcaster broadcaster(int bufferSize, int replaySize) {
+        return broadcaster(bufferSize, replaySize, 2, 60000);
+    }
+
+    private TodoEventBroadcaster broadcaster(int bufferSize, int replaySize, int dispatcherThreads,
+                                             long writeTimeoutMillis) {
+        broadcaster = new TodoEventBroadcaster(new ObjectMapper(), bufferSize, replaySize, 60000,
+                dispatcherThreads, writeTimeoutMillis) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new RecordingEmitter(nextBlocks);
+            }
+        };
+        return broadcaster;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("测试事件按顺序推送给订阅者")
+    void testPublish() throws InterruptedException {
+        broadcaster(16, 16);
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe(null);
+
+        broadcaster.publish(TodoEventType.CREATED, Map.of("id", 1));
+        broadcaster.publish(TodoEventType.DELETED, Map.of("id", 1));
+
+        await(() -> emitter.events().size() == 2);
+        assertEquals(List.of("id:1\nevent:created\ndata:{\"id\":1}", "id:2\nevent:deleted\ndata:{\"id\":1}"),
+                emitter.events());
+        assertTrue(emitter.frames.get(0).startsWith("retry:"));
+    }
+
+    @Test
+    @DisplayName("测试带 Last-Event-ID 重连时补发之后的事件")
+    void testResume() throws InterruptedException {
+        broadcaster(16, 16);
+        for (int i = 1; i <= 3; i++) {
+            broadcaster.publish(TodoEventType.UPDATED, Map.of("id", i));
+        }
+
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe("1");
+        broadcaster.publish(TodoEventType.DELETED, Map.of("id", 4));
+
+        await(() -> emitter.events().size() == 3);
+        assertTrue(emitter.events().get(0).startsWith("id:2\n"));
+        assertTrue(emitter.events().get(2).startsWith("id:4\nevent:deleted"));
+    }
+
+    @Test
+    @DisplayName("测试续传起点已不在回放缓冲中时发送 reset")
+    void testResumeBeyondReplay() throws InterruptedException {
+        broadcaster(16, 2);
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.publish(TodoEventType.UPDATED, Map.of("id", i));
+        }
+
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe("1");
+
+        await(() -> emitter.events().size() == 1);
+        assertEquals("id:5\nevent:reset\ndata:{\"reason\":\"replay_unavailable\"}", emitter.events().get(0));
+    }
+
+    @Test
+    @DisplayName("测试缓冲已满的慢订阅者被断开，不影响发布")
+    void testDropSlowSubscriber() throws InterruptedException {
+        broadcaster(2, 16);
+        nextBlocks = true;
+        broadcaster.subscribe(null);
+        nextBlocks = false;
+        RecordingEmitter fast = (RecordingEmitter) broadcaster.subscribe(null);
+        assertEquals(2, broadcaster.getSubscriberCount());
+
+        for (int i = 1; i <= 5; i++) {
+            int published = i;
+            broadcaster.publish(TodoEventType.UPDATED, Map.of("id", i));
+            await(() -> fast.events().size() == published);
+        }
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1, broadcaster.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("测试写出超过期限的订阅者被断开，其他订阅者不再等待被卡住的分发线程")
+    void testAbortStalledWrite() throws InterruptedException {
+        broadcaster(16, 16, 1, 50);
+        nextBlocks = true;
+        broadcaster.subscribe(null);
+        nextBlocks = false;
+        RecordingEmitter fast = (RecordingEmitter) broadcaster.subscribe(null);
+
+        broadcaster.publish(TodoEventType.CREATED, Map.of("id", 1));
+        Thread.sleep(100);
+        assertTrue(fast.frames.isEmpty());
+
+        broadcaster.abortStalledWrites();
+
+        await(() -> fast.events().size() == 1);
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1, broadcaster.getStalledCount());
+
+        broadcaster.publish(TodoEventType.DELETED, Map.of("id", 1));
+        await(() -> fast.events().size() == 2);
+    }
+
+    @Test
+    @DisplayName("测试写出阻塞时缓冲满的订阅者被断开，发布不等待阻塞的写出，写出返回后才结束连接")
+    void testDropDoesNotBlockPublish() throws Exception {
+        broadcaster(2, 16);
+        nextBlocks = true;
+        RecordingEmitter slow = (RecordingEmitter) broadcaster.subscribe(null);
+        nextBlocks = false;
+
+        CompletableFuture<Void> publishing = CompletableFuture.runAsync(() -> {
+            for (int i = 1; i <= 5; i++) {
+                broadcaster.publish(TodoEventType.UPDATED, Map.of("id", i));
+            }
+        });
+
+        publishing.get(2, TimeUnit.SECONDS);
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(1, broadcaster.getDroppedCount());
+        assertFalse(slow.completed);
+
+        release.countDown();
+        await(() -> slow.completed);
+    }
+
+    /**
+     * 记录写出的事件；blocking 为 true 时写出阻塞，模拟不读取的客户端。
+     * 与 ResponseBodyEmitter 一样，send 与 complete 使用同一把锁
+     */
+    private class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final boolean blocking;
+        private volatile boolean completed;
+
+        RecordingEmitter(boolean blocking) {
+            this.blocking = blocking;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            if (blocking) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining())
+                    .trim());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        List<String> events() {
+            return frames.stream().filter(frame -> frame.startsWith("id:")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.entity.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TodoExporter 单元测试")
+class TodoExporterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    private static String csvField(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        TodoExporter.writeCsvField(writer, value);
+        return writer.toString();
+    }
+
+    @Test
+    @DisplayName("测试普通字段原样输出")
+    void testPlainField() throws IOException {
+        assertEquals("买牛奶", csvField("买牛奶"));
+        assertEquals("", csvField(null));
+    }
+
+    @Test
+    @DisplayName("测试含逗号、引号、换行的字段加引号并转义")
+    void testQuotedField() throws IOException {
+        assertEquals("\"a,b\"", csvField("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", csvField("say \"hi\""));
+        assertEquals("\"line1\nline2\"", csvField("line1\nline2"));
+    }
+
+    private static Todo todo(long id, String title, boolean completed) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        todo.setCompleted(completed);
+        todo.setPriority(2);
+        todo.setCreatedAt(LocalDateTime.of(2026, 3, 10, 12, 0));
+        todo.setUpdatedAt(LocalDateTime.of(2026, 3, 10, 12, 0));
+        return todo;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypedQuery<Todo> query(EntityManager entityManager, Stream<Todo> rows) {
+        TypedQuery<Todo> query = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Todo.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        when(query.getResultStream()).thenReturn(rows);
+        return query;
+    }
+
+    @Test
+    @DisplayName("测试 NDJSON 每行一个对象，以换行分隔")
+    void testExportNdjson() throws IOException {
+        EntityManager entityManager = mock(EntityManager.class);
+        query(entityManager, Stream.of(todo(1L, "买牛奶", false), todo(2L, "a\nb", true)));
+        TodoExporter exporter = new TodoExporter(entityManager, objectMapper, TodoExporter.FETCH_SIZE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exporter.export(null, DataFormat.NDJSON, out));
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("买牛奶", first.get("title").asText());
+        assertEquals("high", first.get("priority").asText());
+        assertEquals("2026-03-10T12:00:00", first.get("created_at").asText());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("a\nb", second.get("title").asText());
+        assertTrue(second.get("completed").asBoolean());
+    }
+
+    @Test
+    @DisplayName("测试导出查询使用指定的 fetch size 流式读取，逐行移出持久化上下文并关闭游标")
+    void testExportStreamsWithFetchSize() throws IOException {
+        EntityManager entityManager = mock(EntityManager.class);
+        AtomicBoolean closed = new AtomicBoolean();
+        Todo first = todo(1L, "一", false);
+        Todo second = todo(2L, "二", false);
+        TypedQuery<Todo> query = query(entityManager, Stream.of(first, second).onClose(() -> closed.set(true)));
+        TodoExporter exporter = new TodoExporter(entityManager, objectMapper, TodoExporter.MYSQL_STREAMING_FETCH_SIZE);
+
+        exporter.export(false, DataFormat.NDJSON, new ByteArrayOutputStream());
+
+        verify(query).setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE);
+        verify(query).setHint(HibernateHints.HINT_READ_ONLY, true);
+        verify(query).setParameter("completed", false);
+        verify(query, never()).getResultList();
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("测试只有 MySQL 使用逐行流式读取，其他数据库按批读取")
+    void testFetchSizeForDialect() {
+        assertEquals(Integer.MIN_VALUE, TodoExporter.fetchSizeFor(new MySQLDialect()));
+        assertEquals(TodoExporter.FETCH_SIZE, TodoExporter.fetchSizeFor(new H2Dialect()));
+    }
+}
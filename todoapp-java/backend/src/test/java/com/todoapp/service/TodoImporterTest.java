@@ -0,0 +1,230 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.dto.ImportResponse;
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoBatchRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoImporter 单元测试")
+class TodoImporterTest {
+
+    @Mock
+    private TodoBatchRepository todoBatchRepository;
+
+    @Mock
+    private TodoCounter todoCounter;
+
+    @Mock
+    private TodoStats todoStats;
+
+    @Mock
+    private TodoReminderScheduler todoReminderScheduler;
+
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    @Mock
+    private TodoEventBroadcaster todoEventBroadcaster;
+
+    @Mock
+    private TodoTableVersion todoTableVersion;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Todo> inserted = new ArrayList<>();
+
+    private TodoImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        importer = new TodoImporter(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(),
+                todoBatchRepository, todoCounter, todoStats, todoReminderScheduler, todoEventBroadcaster,
+                todoTableVersion, todoOutbox, transactionManager, 2, 1, 1);
+        lenient().doAnswer(invocation -> {
+            List<Todo> todos = invocation.getArgument(0);
+            for (Todo todo : todos) {
+                todo.setId(inserted.size() + 1L);
+                inserted.add(todo);
+            }
+            return null;
+        }).when(todoBatchRepository).insertAll(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("测试 NDJSON 导入按批提交并拒绝不合法的行")
+    void testImportNdjson() throws IOException {
+        String ndjson = "{\"title\":\"一\",\"priority\":\"high\"}\n"
+                + "{\"title\":\"\"}\n"
+                + "{\"title\":\"二\",\"completed\":true}\n"
+                + "{\"title\":\"三\",\"due_date\":\"not-a-date\"}\n"
+                + "{\"title\":\"四\"}\n";
+
+        ImportResponse result = importer.importTodos(body(ndjson), DataFormat.NDJSON);
+
+        assertEquals(3L, result.getAcceptedCount());
+        assertEquals(2L, result.getRejectedCount());
+        assertEquals(1, result.getRejected().get(0).getIndex());
+        assertEquals(3, result.getRejected().get(1).getIndex());
+        assertNull(result.getError());
+        verify(todoBatchRepository, times(2)).insertAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(todoOutbox).append(TodoEventType.RESET, null, Map.of("reason", "import", "from_id", 1L, "to_id", 3L));
+        verify(todoOutbox).append(TodoEventType.RESET, null, Map.of("reason", "import", "from_id", 3L, "to_id", 4L));
+        verify(todoTableVersion, times(2)).bump();
+        assertEquals(2, inserted.get(0).getPriority());
+        assertTrue(inserted.get(1).getCompleted());
+        verify(todoCounter).resync();
+    }
+
+    @Test
+    @DisplayName("测试 JSON 语法错误时中止导入并保留已提交的行")
+    void testImportMalformedNdjson() throws IOException {
+        String ndjson = "{\"title\":\"一\"}\n{\"title\":\"二\"}\n{\"title\": oops}\n{\"title\":\"三\"}\n";
+
+        ImportResponse result = importer.importTodos(body(ndjson), DataFormat.NDJSON);
+
+        assertEquals(2L, result.getAcceptedCount());
+        assertNotNull(result.getError());
+        assertTrue(result.getError().contains("line 3"));
+    }
+
+    @Test
+    @DisplayName("测试 CSV 导入支持引号、转义和字段内换行")
+    void testImportCsv() throws IOException {
+        String csv = "id,Title,description,completed,priority,due_date\r\n"
+                + "1,\"买牛奶, 面包\",\"第一行\n第二行\",true,medium,2024-12-31T23:59:59\r\n"
+                + "2,,,false,low,\r\n"
+                + "3,\"say \"\"hi\"\"\",,false,low,\r\n";
+
+        ImportResponse result = importer.importTodos(body(csv), DataFormat.CSV);
+
+        assertEquals(2L, result.getAcceptedCount());
+        assertEquals(1L, result.getRejectedCount());
+        assertEquals("买牛奶, 面包", inserted.get(0).getTitle());
+        assertEquals("第一行\n第二行", inserted.get(0).getDescription());
+        assertTrue(inserted.get(0).getCompleted());
+        assertEquals(1, inserted.get(0).getPriority());
+        assertEquals("say \"hi\"", inserted.get(1).getTitle());
+    }
+
+    @Test
+    @DisplayName("测试 CSV 缺少 title 列时中止导入")
+    void testImportCsvWithoutTitleColumn() throws IOException {
+        ImportResponse result = importer.importTodos(body("name,description\r\na,b\r\n"), DataFormat.CSV);
+
+        assertEquals(0L, result.getAcceptedCount());
+        assertNotNull(result.getError());
+        verify(todoBatchRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("测试写入失败时抛出原因")
+    void testWriterFailure() {
+        doThrow(new IllegalStateException("db down")).when(todoBatchRepository).insertAll(anyList());
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append("{\"title\":\"t").append(i).append("\"}\n");
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> importer.importTodos(body(ndjson.toString()), DataFormat.NDJSON));
+        assertEquals("db down", e.getMessage());
+        verify(todoCounter).resync();
+    }
+
+    @Test
+    @DisplayName("测试 NDJSON 跳过空行，单行超过上限时中止导入")
+    void testImportNdjsonLineTooLong() throws IOException {
+        String ndjson = "{\"title\":\"一\"}\n\n{\"title\":\"二\"}\r\n"
+                + "{\"title\":\"" + "x".repeat(TodoImporter.MAX_RECORD_CHARS) + "\"}\n"
+                + "{\"title\":\"三\"}\n";
+
+        ImportResponse result = importer.importTodos(body(ndjson), DataFormat.NDJSON);
+
+        assertEquals(2L, result.getAcceptedCount());
+        assertEquals(0L, result.getRejectedCount());
+        assertTrue(result.getError().contains("line 4"));
+        assertEquals("二", inserted.get(1).getTitle());
+    }
+
+    @Test
+    @DisplayName("测试同一行有多个 JSON 值时中止导入")
+    void testImportNdjsonTrailingTokens() throws IOException {
+        ImportResponse result = importer.importTodos(body("{\"title\":\"一\"} {\"title\":\"二\"}\n"),
+                DataFormat.NDJSON);
+
+        assertEquals(0L, result.getAcceptedCount());
+        assertTrue(result.getError().contains("line 1"));
+    }
+
+    @Test
+    @DisplayName("测试同时进行的导入数达到上限时拒绝新的导入")
+    void testRejectsImportBeyondLimit() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<Todo> todos = invocation.getArgument(0);
+            todos.forEach(todo -> todo.setId(1L));
+            return null;
+        }).when(todoBatchRepository).insertAll(anyList());
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<ImportResponse> first = client.submit(
+                    () -> importer.importTodos(body("{\"title\":\"一\"}\n"), DataFormat.NDJSON));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class,
+                    () -> importer.importTodos(body("{\"title\":\"二\"}\n"), DataFormat.NDJSON));
+
+            release.countDown();
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS).getAcceptedCount());
+            assertEquals(1L, importer.importTodos(body("{\"title\":\"三\"}\n"), DataFormat.NDJSON).getAcceptedCount());
+        } finally {
+            release.countDown();
+            client.shutdownNow();
+        }
+    }
+}
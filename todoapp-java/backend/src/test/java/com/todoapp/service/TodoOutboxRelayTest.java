@@ -0,0 +1,203 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.TodoOutboxEvent;
+import com.todoapp.repository.TodoOutboxLeaseRepository;
+import com.todoapp.repository.TodoOutboxRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenancyProperties;
+import com.todoapp.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoOutboxRelay 单元测试")
+class TodoOutboxRelayTest {
+
+    @Mock
+    private TodoOutboxRepository outboxRepository;
+
+    @Mock
+    private TodoOutboxLeaseRepository leaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Queue<TodoOutboxEvent> received = new ConcurrentLinkedQueue<>();
+    private final Map<Long, String> tenants = new ConcurrentHashMap<>();
+    private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+    private TodoOutboxRelay relay;
+
+    @AfterEach
+    void tearDown() {
+        if (relay != null) {
+            relay.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("测试同一待办事项的事件按顺序投递，投递后删除")
+    void testDeliversInOrderPerAggregate() {
+        relay = relay(List.of(this::record), 10);
+        List<TodoOutboxEvent> batch = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            batch.add(event(id, id % 5, "acme"));
+        }
+        when(outboxRepository.findOldest(any())).thenReturn(batch);
+
+        relay.relay();
+
+        assertEquals(40, received.size());
+        for (long aggregate = 0; aggregate < 5; aggregate++) {
+            long current = aggregate;
+            List<Long> ids = received.stream().filter(e -> e.getAggregateId() == current)
+                    .map(TodoOutboxEvent::getId).toList();
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+        assertEquals("acme", tenants.get(1L));
+        verify(outboxRepository).deleteByIds(argThat(ids -> ids.size() == 40));
+        verify(outboxRepository, never()).incrementAttempts(any());
+    }
+
+    @Test
+    @DisplayName("测试投递失败时同一待办事项之后的事件不投递，其他待办事项不受影响")
+    void testFailureBlocksLaterEventsOfSameAggregate() {
+        relay = relay(List.of(this::record), 10);
+        failing.add(3L);
+        when(outboxRepository.findOldest(any())).thenReturn(List.of(
+                event(1, 1L, "default"), event(2, 2L, "default"), event(3, 1L, "default"),
+                event(4, 1L, "default"), event(5, 2L, "default")));
+
+        relay.relay();
+
+        assertEquals(Set.of(1L, 2L, 5L), receivedIds());
+        verify(outboxRepository).deleteByIds(argThat(ids -> idsEqual(ids, 1L, 2L, 5L)));
+        verify(outboxRepository).incrementAttempts(List.of(3L));
+        verify(outboxRepository, times(1)).findOldest(any());
+    }
+
+    @Test
+    @DisplayName("测试批量变更事件等之前的事件投递成功后才投递")
+    void testBatchEventIsBarrier() {
+        relay = relay(List.of(this::record), 10);
+        failing.add(1L);
+        when(outboxRepository.findOldest(any())).thenReturn(List.of(
+                event(1, 1L, "default"), event(2, 2L, "default"), event(3, null, "default"),
+                event(4, 2L, "default")));
+
+        relay.relay();
+
+        assertEquals(Set.of(2L), receivedIds());
+        verify(outboxRepository).deleteByIds(List.of(2L));
+        verify(outboxRepository).incrementAttempts(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("测试超过重试次数的事件被丢弃")
+    void testDropsAfterMaxAttempts() {
+        relay = relay(List.of(this::record), 3);
+        failing.add(1L);
+        TodoOutboxEvent event = event(1, 1L, "default");
+        event.setAttempts(2);
+        when(outboxRepository.findOldest(any())).thenReturn(List.of(event));
+
+        relay.relay();
+
+        verify(outboxRepository).deleteByIds(List.of(1L));
+        verify(outboxRepository, never()).incrementAttempts(any());
+    }
+
+    @Test
+    @DisplayName("测试没有订阅者时不读取发件箱")
+    void testNoSubscribers() {
+        relay = relay(List.of(), 10);
+
+        relay.relay();
+
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    @DisplayName("测试租约由其他进程持有时不读取发件箱")
+    void testLeaseHeldByOther() {
+        relay = new TodoOutboxRelay(outboxRepository, leaseRepository, new ShardRouter(new TenancyProperties()),
+                transactionManager, List.of(this::record), true, 500, 10, 4, 30_000);
+        when(leaseRepository.acquire(eq(TodoOutboxRelay.LEASE), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(TodoOutboxRelay.LEASE)).thenReturn(true);
+
+        relay.relay();
+
+        verifyNoInteractions(outboxRepository);
+        verify(leaseRepository, never()).create(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("测试租约行不存在时创建后投递，关闭时释放租约")
+    void testCreatesAndReleasesLease() {
+        relay = new TodoOutboxRelay(outboxRepository, leaseRepository, new ShardRouter(new TenancyProperties()),
+                transactionManager, List.of(this::record), true, 500, 10, 4, 30_000);
+        when(leaseRepository.acquire(eq(TodoOutboxRelay.LEASE), anyString(), any(), any())).thenReturn(0);
+        when(outboxRepository.findOldest(any())).thenReturn(List.of(event(1, 1L, "default")));
+
+        relay.relay();
+        relay.shutdown();
+
+        assertEquals(Set.of(1L), receivedIds());
+        verify(leaseRepository).create(eq(TodoOutboxRelay.LEASE), anyString(), any());
+        verify(leaseRepository).release(eq(TodoOutboxRelay.LEASE), anyString(), any());
+    }
+
+    private TodoOutboxRelay relay(List<TodoOutboxSubscriber> subscribers, int maxAttempts) {
+        if (!subscribers.isEmpty()) {
+            when(leaseRepository.acquire(eq(TodoOutboxRelay.LEASE), anyString(), any(), any())).thenReturn(1);
+        }
+        return new TodoOutboxRelay(outboxRepository, leaseRepository, new ShardRouter(new TenancyProperties()),
+                transactionManager, subscribers, true, 500, maxAttempts, 4, 30_000);
+    }
+
+    private void record(TodoOutboxEvent event) {
+        if (failing.contains(event.getId())) {
+            throw new IllegalStateException("subscriber failed");
+        }
+        tenants.put(event.getId(), TenantContext.current());
+        received.add(event);
+    }
+
+    private Set<Long> receivedIds() {
+        Set<Long> ids = new HashSet<>();
+        received.forEach(event -> ids.add(event.getId()));
+        return ids;
+    }
+
+    private static boolean idsEqual(Collection<Long> ids, Long... expected) {
+        return ids.size() == expected.length && new HashSet<>(ids).equals(Set.of(expected));
+    }
+
+    private static TodoOutboxEvent event(long id, Long aggregateId, String tenant) {
+        TodoOutboxEvent event = new TodoOutboxEvent(tenant, aggregateId, "updated", "{}");
+        event.setId(id);
+        return event;
+    }
+}
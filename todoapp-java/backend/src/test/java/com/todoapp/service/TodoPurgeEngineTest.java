@@ -0,0 +1,144 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.PurgeJobResponse;
+import com.todoapp.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoPurgeEngine 单元测试")
+class TodoPurgeEngineTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TodoCounter todoCounter;
+
+    @Mock
+    private TodoStats todoStats;
+
+    @Mock
+    private TodoReminderScheduler todoReminderScheduler;
+
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    @Mock
+    private TodoToggleBuffer todoToggleBuffer;
+
+    @Mock
+    private TodoCache todoCache;
+
+    @Mock
+    private TodoEventBroadcaster todoEventBroadcaster;
+
+    @Mock
+    private TodoTableVersion todoTableVersion;
+
+    private TodoPurgeEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TodoPurgeEngine(todoRepository, transactionManager, todoCounter, todoStats,
+                todoReminderScheduler, todoCache, todoEventBroadcaster, todoTableVersion,
+                todoOutbox, todoToggleBuffer, 10, 0);
+    }
+
+    @Test
+    @DisplayName("测试按数据定位主键范围分块删除并逐块提交，跳过其他租户的主键")
+    void testPurgeInChunks() {
+        when(todoRepository.findIdsFrom(eq("default"), isNull(), eq(0L), any(Pageable.class)))
+                .thenReturn(ids(1, 10));
+        when(todoRepository.findIdsFrom(eq("default"), isNull(), eq(11L), any(Pageable.class)))
+                .thenReturn(ids(50_001, 50_010));
+        when(todoRepository.findIdsFrom(eq("default"), isNull(), eq(50_011L), any(Pageable.class)))
+                .thenReturn(ids(90_000, 90_004));
+        when(todoRepository.deleteByIdRange(any(), any(), any())).thenReturn(10, 10, 5);
+
+        long deleted = engine.purge(PurgeScope.ALL);
+
+        assertEquals(25L, deleted);
+        verify(todoRepository).deleteByIdRange("default", 1L, 11L);
+        verify(todoRepository).deleteByIdRange("default", 50_001L, 50_011L);
+        verify(todoRepository).deleteByIdRange("default", 90_000L, 90_005L);
+        verify(todoRepository, times(3)).findIdsFrom(any(), any(), any(), any(Pageable.class));
+        verify(transactionManager, times(3)).commit(any());
+        verify(todoOutbox).append(TodoEventType.RESET, null, Map.of("reason", "purge", "from_id", 90_000L,
+                "to_id", 90_005L, "completed_only", false));
+        verify(todoCounter).resync();
+        verify(todoCache).clear();
+        verify(todoEventBroadcaster).publish(eq(TodoEventType.RESET), any());
+        verify(todoTableVersion, times(3)).bump();
+        verify(todoOutbox, times(3)).append(eq(TodoEventType.RESET), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("测试只删除已完成的待办事项")
+    void testPurgeCompleted() {
+        when(todoRepository.findIdsFrom(eq("default"), eq(true), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(5L));
+        when(todoRepository.deleteCompletedByIdRange("default", 5L, 6L)).thenReturn(1);
+
+        assertEquals(1L, engine.purge(PurgeScope.COMPLETED));
+        verify(todoRepository, never()).deleteByIdRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("测试表为空时不执行删除")
+    void testPurgeEmpty() {
+        when(todoRepository.findIdsFrom(eq("default"), isNull(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0L, engine.purge(PurgeScope.ALL));
+        verify(todoRepository, never()).deleteByIdRange(any(), any(), any());
+        verify(todoTableVersion, never()).bump();
+        verifyNoInteractions(todoEventBroadcaster);
+    }
+
+    @Test
+    @DisplayName("测试超出保留数时移除最早结束的任务")
+    void testRetainsNewestJobs() throws Exception {
+        when(todoRepository.findIdsFrom(any(), any(), any(), any(Pageable.class))).thenReturn(List.of());
+        PurgeJobResponse first = engine.submit(PurgeScope.ALL);
+        List<PurgeJobResponse> later = new ArrayList<>();
+        for (int i = 0; i < 99; i++) {
+            later.add(engine.submit(PurgeScope.ALL));
+        }
+        awaitFinished(later.get(later.size() - 1).getJobId());
+        engine.submit(PurgeScope.ALL);
+
+        assertNull(engine.getJob(first.getJobId()));
+        assertNotNull(engine.getJob(later.get(0).getJobId()));
+    }
+
+    private void awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500 && engine.getJob(jobId).getFinishedAt() == null; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+}
@@ -0,0 +1,189 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoDueDate;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenancyProperties;
+import com.todoapp.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoReminderScheduler 单元测试")
+class TodoReminderSchedulerTest {
+
+    private static final String TENANT = "default";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    private final List<TodoReminder> reminders = new ArrayList<>();
+
+    private TodoReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TodoReminderScheduler(todoRepository, new ShardRouter(new TenancyProperties()),
+                transactionManager, List.of(reminders::add), 1000, clock);
+    }
+
+    @Test
+    @DisplayName("测试启动时加载未到期的截止日期，到期后提醒，已完成的不提醒")
+    void testBuildAndFire() {
+        when(todoRepository.findTenantIds()).thenReturn(List.of(TENANT));
+        when(todoRepository.streamDueAfter(TENANT, NOW)).thenReturn(Stream.of(
+                new TodoDueDate(1L, false, NOW.plusMinutes(1)),
+                new TodoDueDate(2L, true, NOW.plusMinutes(1)),
+                new TodoDueDate(3L, false, NOW.plusHours(2))));
+
+        scheduler.build();
+        assertEquals(3, scheduler.getPendingCount());
+
+        advanceTo(NOW.plusSeconds(59));
+        assertTrue(reminders.isEmpty());
+
+        advanceTo(NOW.plusMinutes(1));
+        assertEquals(1, reminders.size());
+        assertEquals(1L, reminders.get(0).getId());
+        assertEquals(TENANT, reminders.get(0).getTenant());
+        assertEquals(NOW.plusMinutes(1), reminders.get(0).getDueDate());
+
+        advanceTo(NOW.plusHours(3));
+        assertEquals(List.of(1L, 3L), reminders.stream().map(TodoReminder::getId).toList());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(2, scheduler.getFiredCount());
+    }
+
+    @Test
+    @DisplayName("测试更新截止日期后按新时间提醒，清除截止日期或删除后取消")
+    void testSavedAndDeleted() {
+        scheduler.onSaved(todo(1L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(2L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(3L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(4L, NOW.minusMinutes(1)));
+
+        scheduler.onSaved(todo(1L, NOW.plusMinutes(5)));
+        scheduler.onSaved(todo(2L, null));
+        scheduler.onDeleted(3L);
+        assertEquals(1, scheduler.getPendingCount());
+
+        advanceTo(NOW.plusMinutes(2));
+        assertTrue(reminders.isEmpty());
+
+        advanceTo(NOW.plusMinutes(5));
+        assertEquals(List.of(1L), reminders.stream().map(TodoReminder::getId).toList());
+    }
+
+    @Test
+    @DisplayName("测试完成后不提醒，切换回未完成后照常提醒")
+    void testCompletedChanged() {
+        scheduler.onSaved(todo(1L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(2L, NOW.plusMinutes(1)));
+        scheduler.onCompletedChanged(1L, true);
+        scheduler.onCompletedChanged(2L, true);
+        scheduler.onCompletedChanged(2L, false);
+
+        advanceTo(NOW.plusMinutes(1));
+
+        assertEquals(List.of(2L), reminders.stream().map(TodoReminder::getId).toList());
+    }
+
+    @Test
+    @DisplayName("测试按主键范围清理时只取消该租户范围内的提醒")
+    void testRangeDeleted() {
+        scheduler.onSaved(todo(1L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(2L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(3L, NOW.plusMinutes(1)));
+        TenantContext.run("acme", () -> scheduler.onSaved(todo(2L, NOW.plusMinutes(1))));
+        scheduler.onCompletedChanged(1L, true);
+
+        scheduler.onRangeDeleted(1L, 3L, true);
+        assertEquals(3, scheduler.getPendingCount());
+
+        scheduler.onRangeDeleted(1L, 3L, false);
+        assertEquals(2, scheduler.getPendingCount());
+
+        advanceTo(NOW.plusMinutes(1));
+        assertEquals(List.of("acme:2", "default:3"), reminders.stream()
+                .map(reminder -> reminder.getTenant() + ":" + reminder.getId()).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("测试范围删除只遍历当前租户范围内的提醒，不逐个检查范围内的ID")
+    void testRangeDeletedSparse() {
+        scheduler.onSaved(todo(1L, NOW.plusMinutes(1)));
+        scheduler.onSaved(todo(5_000_000_000L, NOW.plusMinutes(1)));
+        scheduler.onCompletedChanged(5_000_000_000L, true);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> scheduler.onRangeDeleted(1L, Long.MAX_VALUE, true));
+
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    private void advanceTo(LocalDateTime time) {
+        clock.set(time);
+        scheduler.advance();
+    }
+
+    private static Todo todo(Long id, LocalDateTime dueDate) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setCompleted(false);
+        todo.setDueDate(dueDate);
+        return todo;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(LocalDateTime now) {
+            set(now);
+        }
+
+        private void set(LocalDateTime now) {
+            this.instant = now.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenancyProperties;
+import com.todoapp.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoSearchIndex 单元测试")
+class TodoSearchIndexTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ShardRouter shardRouter = new ShardRouter(new TenancyProperties());
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new TodoSearchIndex(todoRepository, entityManager, shardRouter, transactionManager, "");
+        index.indexAll(List.of(
+                todo(1L, "周末去超市", "买牛奶和面包", false),
+                todo(2L, "买牛奶", null, false),
+                todo(3L, "Write weekly REPORT", "牛肉面", true),
+                todo(4L, "整理书架", "把旧书捐给图书馆", false)
+        ));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    private static Todo todo(Long id, String title, String description, boolean completed) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        todo.setDescription(description);
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+    private List<Long> search(String text, Boolean completed) {
+        return index.search(text, completed, 10).getIds();
+    }
+
+    @Test
+    @DisplayName("测试中文按二字组匹配且标题命中排在前面")
+    void testChineseSearchRanksTitleFirst() {
+        assertEquals(List.of(2L, 1L), search("牛奶", null));
+        assertEquals(List.of(), search("奶牛", null));
+    }
+
+    @Test
+    @DisplayName("测试单字查询和英文大小写不敏感")
+    void testUnigramAndLatinSearch() {
+        assertEquals(3, search("牛", null).size());
+        assertEquals(List.of(3L), search("report", null));
+    }
+
+    @Test
+    @DisplayName("测试所有词都必须命中")
+    void testAllTermsRequired() {
+        assertEquals(List.of(1L), search("牛奶 面包", null));
+    }
+
+    @Test
+    @DisplayName("测试按完成状态过滤并原地更新完成状态")
+    void testCompletedFilter() {
+        assertEquals(List.of(3L), search("牛", true));
+
+        index.updateCompleted(1L, true);
+        index.refresh();
+
+        assertEquals(2, search("牛", true).size());
+        assertEquals(List.of(2L), search("牛奶", false));
+    }
+
+    @Test
+    @DisplayName("测试更新、删除和按主键范围删除")
+    void testUpdateAndRemove() {
+        index.index(todo(4L, "买牛奶", null, false));
+        index.remove(2L);
+        index.removeRange(1L, 4L, true);
+        index.refresh();
+
+        assertEquals(List.of(4L, 1L), search("牛奶", null));
+        assertEquals(List.of(), search("report", null));
+        assertEquals(List.of(), search("图书馆", null));
+    }
+
+    @Test
+    @DisplayName("测试全量构建跳过增量路径已写入的ID")
+    void testBuildSkipsTouchedIds() throws IOException {
+        TodoSearchIndex fresh = new TodoSearchIndex(todoRepository, entityManager, shardRouter, transactionManager, "");
+        try {
+            fresh.index(todo(2L, "买牛奶", null, true));
+            when(todoRepository.findTenantIds()).thenReturn(List.of(TenantContext.DEFAULT_TENANT));
+            when(todoRepository.streamAllOrderById(TenantContext.DEFAULT_TENANT, null)).thenReturn(Stream.of(
+                    todo(1L, "周末去超市", "买牛奶和面包", false),
+                    todo(2L, "买面包", null, false)
+            ));
+
+            fresh.build();
+            fresh.build();
+            fresh.refresh();
+
+            assertTrue(fresh.isReady());
+            assertEquals(List.of(2L, 1L), fresh.search("牛奶", null, 10).getIds());
+            assertEquals(List.of(1L), fresh.search("面包", null, 10).getIds());
+            verify(todoRepository, times(1)).streamAllOrderById(TenantContext.DEFAULT_TENANT, null);
+        } finally {
+            fresh.close();
+        }
+    }
+
+    @Test
+    @DisplayName("测试全量构建期间只更新过完成状态的文档按更新后的状态写入")
+    void testBuildAppliesCompletedUpdatedDuringBuild() throws IOException {
+        TodoSearchIndex fresh = new TodoSearchIndex(todoRepository, entityManager, shardRouter, transactionManager, "");
+        try {
+            fresh.updateCompleted(1L, true);
+            when(todoRepository.findTenantIds()).thenReturn(List.of(TenantContext.DEFAULT_TENANT));
+            when(todoRepository.streamAllOrderById(TenantContext.DEFAULT_TENANT, null)).thenReturn(Stream.of(
+                    todo(1L, "周末去超市", "买牛奶和面包", false),
+                    todo(2L, "买牛奶", null, false)
+            ));
+
+            fresh.build();
+            fresh.refresh();
+
+            assertEquals(List.of(1L), fresh.search("牛奶", true, 10).getIds());
+            assertEquals(List.of(2L), fresh.search("牛奶", false, 10).getIds());
+        } finally {
+            fresh.close();
+        }
+    }
+
+    @Test
+    @DisplayName("测试搜索只返回当前租户的命中，相同ID在不同租户下互不覆盖")
+    void testSearchIsScopedToTenant() {
+        Todo other = todo(2L, "采购牛奶", null, false);
+        other.setTenantId("acme");
+        index.index(other);
+        index.refresh();
+
+        assertEquals(List.of(2L, 1L), search("牛奶", null));
+        TenantContext.run("acme", () -> {
+            assertEquals(List.of(2L), search("牛奶", null));
+            assertEquals(List.of(), search("面包", null));
+            index.remove(2L);
+            index.refresh();
+            assertEquals(List.of(), search("牛奶", null));
+        });
+        assertEquals(List.of(2L, 1L), search("牛奶", null));
+    }
+}
@@ -1,39 +1,112 @@
 package com.todoapp.service;
 
+import com.todoapp.dto.BatchCreateResponse;
+import com.todoapp.dto.SearchPage;
 import com.todoapp.dto.TodoDTO;
 import com.todoapp.dto.TodoResponse;
+import com.todoapp.dto.TodoRows;
+import com.todoapp.dto.TodoRowsPage;
 import com.todoapp.dto.TodoToggleResponse;
 import com.todoapp.dto.TodoUpdateDTO;
 import com.todoapp.entity.Todo;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.exception.ConflictException;
 import com.todoapp.exception.ResourceNotFoundException;
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.repository.TodoListRepository;
 import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatsRow;
+import com.todoapp.tenant.TenantContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TodoService 单元测试")
 class TodoServiceTest {
 
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private TodoCounter todoCounter;
+
+    @Mock
+    private TodoStats todoStats;
+
+    @Mock
+    private TodoReminderScheduler todoReminderScheduler;
+
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    @Mock
+    private TodoToggleBuffer todoToggleBuffer;
+
+    @Mock
+    private TodoCache todoCache;
+
+    @Mock
+    private TodoBatchRepository todoBatchRepository;
+
+    @Mock
+    private TodoListRepository todoListRepository;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private TodoPurgeEngine todoPurgeEngine;
+
+    @Mock
+    private TodoExporter todoExporter;
+
+    @Mock
+    private TodoImporter todoImporter;
+
+    @Mock
+    private TodoSearchIndex todoSearchIndex;
+
+    @Mock
+    private TodoEventBroadcaster todoEventBroadcaster;
+
+    @Mock
+    private TodoTableVersion todoTableVersion;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TodoService todoService;
 
@@ -52,32 +125,62 @@ class TodoServiceTest {
     }
 
     @Test
-    @DisplayName("测试获取所有待办事项")
-    void testGetAllTodos() {
-        List<Todo> todos = Arrays.asList(testTodo);
-        when(todoRepository.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(todos));
+    @DisplayName("测试按列读取的列表查询记录返回行数指标")
+    void testListTodos() {
+        when(todoListRepository.findPage(TENANT, false, 15, 10)).thenReturn(rowsOf(testTodo));
 
-        List<TodoResponse> result = todoService.getAllTodos(null, 100, 0);
+        TodoRows rows = todoService.listTodos(false, 10, 15);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("测试待办事项", result.get(0).getTitle());
-        verify(todoRepository, times(1)).findAll(any(Pageable.class));
+        assertEquals(1, rows.size());
+        assertEquals(1.0, meterRegistry.get("todoapp.todos.list.rows")
+                .tag("pagination", "offset").summary().totalAmount());
     }
 
     @Test
-    @DisplayName("测试根据完成状态过滤待办事项")
-    void testGetAllTodosWithCompletedFilter() {
-        List<Todo> todos = Arrays.asList(testTodo);
-        when(todoRepository.findByCompleted(eq(false), any(Pageable.class)))
-                .thenReturn(todos);
+    @DisplayName("测试按列读取的游标分页多取一行并截断，返回下一页游标")
+    void testListTodosByCursor() {
+        String cursor = new TodoCursor(testTodo.getCreatedAt(), 5L).encode();
+        Todo second = new Todo();
+        second.setId(2L);
+        second.setTitle("第二条");
+        second.setCompleted(false);
+        second.setPriority(0);
+        second.setCreatedAt(testTodo.getCreatedAt().minusSeconds(1));
+        second.setUpdatedAt(testTodo.getUpdatedAt());
+        when(todoListRepository.findPageAfter(TENANT, null, testTodo.getCreatedAt(), 5L, 2))
+                .thenReturn(rowsOf(testTodo, second));
+
+        TodoRowsPage page = todoService.listTodosByCursor(null, 1, cursor);
+
+        assertEquals(1, page.getRows().size());
+        TodoCursor next = TodoCursor.decode(page.getNextCursor());
+        assertEquals(testTodo.getId(), next.getId());
+        assertEquals(testTodo.getCreatedAt(), next.getCreatedAt());
+    }
 
-        List<TodoResponse> result = todoService.getAllTodos(false, 100, 0);
+    @Test
+    @DisplayName("测试按列读取的游标分页首页从头读取，最后一页无下一页游标")
+    void testListTodosByCursorFirstPage() {
+        when(todoListRepository.findPage(TENANT, null, 0, 11)).thenReturn(rowsOf(testTodo));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(todoRepository, times(1)).findByCompleted(eq(false), any(Pageable.class));
+        TodoRowsPage page = todoService.listTodosByCursor(null, 10, "");
+
+        assertEquals(1, page.getRows().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试非法游标抛出异常")
+    void testListTodosByCursorInvalid() {
+        assertThrows(BadRequestException.class, () -> todoService.listTodosByCursor(null, 10, "not-a-cursor"));
+        verifyNoInteractions(todoListRepository);
+    }
+
+    @Test
+    @DisplayName("测试偏移量为负数时抛出异常")
+    void testListTodosNegativeOffset() {
+        assertThrows(BadRequestException.class, () -> todoService.listTodos(null, 10, -1));
+        verifyNoInteractions(todoListRepository);
     }
 
     @Test
@@ -95,136 +198,503 @@ class TodoServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(todoCounter, times(1)).onCreated();
+        verify(todoEventBroadcaster, times(1)).publishOnCommit(TodoEventType.CREATED, result);
+        verify(todoOutbox, times(1)).append(TodoEventType.CREATED, 1L, result);
+        verify(todoTableVersion, times(1)).bump();
+    }
+
+    @Test
+    @DisplayName("测试批量创建待办事项并返回逐条结果")
+    @SuppressWarnings("unchecked")
+    void testCreateTodos() {
+        TodoDTO valid = new TodoDTO("有效", null, "high", null);
+        TodoDTO invalid = new TodoDTO("", null, "low", null);
+        ConstraintViolation<TodoDTO> violation = mock(ConstraintViolation.class);
+        Path path = mock(Path.class);
+        when(path.toString()).thenReturn("title");
+        when(violation.getPropertyPath()).thenReturn(path);
+        when(violation.getMessage()).thenReturn("标题不能为空");
+        when(validator.validate(valid)).thenReturn(Collections.emptySet());
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        doAnswer(invocation -> {
+            List<Todo> todos = invocation.getArgument(0);
+            todos.get(0).setId(100L);
+            return null;
+        }).when(todoBatchRepository).insertAll(anyList());
+
+        BatchCreateResponse result = todoService.createTodos(Arrays.asList(invalid, valid));
+
+        assertEquals(1, result.getCreatedCount());
+        assertEquals(1, result.getFailedCount());
+        assertFalse(result.getResults().get(0).getSuccess());
+        assertEquals("标题不能为空", result.getResults().get(0).getErrors().get("title"));
+        assertEquals(100L, result.getResults().get(1).getId());
+        verify(todoBatchRepository).insertAll(argThat(todos -> todos.size() == 1 && todos.get(0).getPriority() == 2));
+        verify(todoCounter).onCreated(1);
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    @DisplayName("测试批量创建空列表抛出异常")
+    void testCreateTodosEmpty() {
+        assertThrows(BadRequestException.class, () -> todoService.createTodos(Collections.emptyList()));
+        verifyNoInteractions(todoBatchRepository);
     }
 
     @Test
     @DisplayName("测试根据ID获取待办事项")
     void testGetTodoById() {
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
 
         TodoResponse result = todoService.getTodoById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("测试待办事项", result.getTitle());
-        verify(todoRepository, times(1)).findById(1L);
+        verify(todoRepository, times(1)).findByTenantIdAndId(TENANT, 1L);
+    }
+
+    @Test
+    @DisplayName("测试根据ID获取待办事项命中缓存")
+    void testGetTodoByIdFromCache() {
+        TodoResponse cached = new TodoResponse(1L, "缓存", null, false, "low", null, null, null, 0L);
+        when(todoCache.get(1L)).thenReturn(cached);
+
+        TodoResponse result = todoService.getTodoById(1L);
+
+        assertSame(cached, result);
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("测试根据ID获取待办事项未命中时写入缓存")
+    void testGetTodoByIdPopulatesCache() {
+        when(todoCache.stamp()).thenReturn(7L);
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+
+        TodoResponse result = todoService.getTodoById(1L);
+
+        verify(todoCache, times(1)).putIfUnchanged(1L, result, 7L);
     }
 
     @Test
     @DisplayName("测试获取不存在的待办事项抛出异常")
     void testGetTodoByIdNotFound() {
-        when(todoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(todoRepository.findByTenantIdAndId(TENANT, 999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             todoService.getTodoById(999L);
         });
-        verify(todoRepository, times(1)).findById(999L);
+        verify(todoRepository, times(1)).findByTenantIdAndId(TENANT, 999L);
     }
 
     @Test
-    @DisplayName("测试更新待办事项")
+    @DisplayName("测试更新待办事项读取一次，以一条条件更新写入给出的列和完成状态，不再查询")
     void testUpdateTodo() {
+        testTodo.setVersion(2L);
         TodoUpdateDTO updateDTO = new TodoUpdateDTO();
         updateDTO.setTitle("更新后的标题");
         updateDTO.setCompleted(true);
         updateDTO.setPriority("high");
 
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+        when(todoRepository.updateFields(eq(TENANT), eq(1L), anyMap(), eq(2L))).thenReturn(1);
 
         TodoResponse result = todoService.updateTodo(1L, updateDTO);
 
-        assertNotNull(result);
-        verify(todoRepository, times(1)).findById(1L);
-        verify(todoRepository, times(1)).save(any(Todo.class));
+        assertEquals("更新后的标题", result.getTitle());
+        assertEquals("high", result.getPriority());
+        assertEquals("测试描述", result.getDescription());
+        assertTrue(result.getCompleted());
+        assertEquals(3L, result.getVersion());
+        verify(todoRepository, times(1)).updateFields(eq(TENANT), eq(1L), argThat(changes ->
+                "更新后的标题".equals(changes.get("title"))
+                        && Integer.valueOf(2).equals(changes.get("priority"))
+                        && Boolean.TRUE.equals(changes.get("completed"))
+                        && changes.get("completedAt") != null
+                        && changes.containsKey("updatedAt")
+                        && !changes.containsKey("description")), eq(2L));
+        verify(todoRepository, times(1)).findByTenantIdAndId(TENANT, 1L);
+        verify(todoRepository, never()).updateCompletedIfVersion(any(), any(), any(), any(), any(), any());
+        verify(todoRepository, never()).save(any(Todo.class));
+        verify(todoCounter, times(1)).onCompletedChanged(true);
+        verify(todoCache, times(1)).evictOnCommit(1L);
+        verify(todoStats).onUpdated(argThat(before -> !before.getCompleted() && before.getPriority() == 1), eq(testTodo));
+    }
+
+    @Test
+    @DisplayName("测试更新完成状态未变化时不调整计数")
+    void testUpdateTodoCompletedUnchanged() {
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setCompleted(false);
+
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+
+        todoService.updateTodo(1L, updateDTO);
+
+        verify(todoRepository, never()).updateFields(eq(TENANT), any(), anyMap(), any());
+        verifyNoInteractions(todoCounter);
+    }
+
+    @Test
+    @DisplayName("测试更新不存在的待办事项抛出异常")
+    void testUpdateTodoNotFound() {
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setTitle("更新后的标题");
+
+        when(todoRepository.findByTenantIdAndId(TENANT, 999L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.updateTodo(999L, updateDTO));
+        verify(todoRepository, never()).updateFields(eq(TENANT), any(), anyMap(), any());
+    }
+
+    @Test
+    @DisplayName("测试未带版本号的更新被并发修改时重新读取后重试")
+    void testUpdateTodoRetriesAfterConcurrentModification() {
+        Todo modified = new Todo();
+        modified.setId(1L);
+        modified.setTitle("并发修改后的标题");
+        modified.setCompleted(true);
+        modified.setPriority(0);
+        modified.setVersion(5L);
+        testTodo.setVersion(4L);
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setCompleted(true);
+        updateDTO.setPriority("high");
+
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo), Optional.of(modified));
+        when(todoRepository.updateFields(eq(TENANT), eq(1L), anyMap(), eq(4L))).thenReturn(0);
+        when(todoRepository.updateFields(eq(TENANT), eq(1L), anyMap(), eq(5L))).thenReturn(1);
+
+        TodoResponse result = todoService.updateTodo(1L, updateDTO);
+
+        assertEquals("并发修改后的标题", result.getTitle());
+        assertEquals(6L, result.getVersion());
+        verify(todoRepository).updateFields(eq(TENANT), eq(1L), argThat(changes ->
+                !changes.containsKey("completed") && Integer.valueOf(2).equals(changes.get("priority"))), eq(5L));
+        verifyNoInteractions(todoCounter);
+    }
+
+    @Test
+    @DisplayName("测试带版本号更新时在同一条件更新中写入完成状态")
+    void testUpdateTodoWithVersion() {
+        testTodo.setVersion(4L);
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setTitle("新标题");
+        updateDTO.setCompleted(true);
+
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+        when(todoRepository.updateFields(eq(TENANT), eq(1L), anyMap(), eq(4L))).thenReturn(1);
+
+        todoService.updateTodo(1L, updateDTO, 4L);
+
+        verify(todoRepository).updateFields(eq(TENANT), eq(1L), argThat(changes ->
+                Boolean.TRUE.equals(changes.get("completed")) && "新标题".equals(changes.get("title"))), eq(4L));
+        verify(todoRepository, never()).updateCompletedIfVersion(eq(TENANT), any(), any(), any(), any(), any());
+        verify(todoCounter).onCompletedChanged(true);
+    }
+
+    @Test
+    @DisplayName("测试版本号不一致时更新抛出冲突")
+    void testUpdateTodoVersionConflict() {
+        testTodo.setVersion(5L);
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setTitle("新标题");
+
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+
+        assertThrows(ConflictException.class, () -> todoService.updateTodo(1L, updateDTO, 4L));
+        verify(todoRepository, never()).updateFields(eq(TENANT), any(), anyMap(), any());
+        verifyNoInteractions(todoCache, todoEventBroadcaster);
+    }
+
+    @Test
+    @DisplayName("测试读取后被并发修改时更新抛出冲突")
+    void testUpdateTodoConcurrentlyModified() {
+        testTodo.setVersion(4L);
+        TodoUpdateDTO updateDTO = new TodoUpdateDTO();
+        updateDTO.setCompleted(true);
+
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+        when(todoRepository.updateFields(eq(TENANT), eq(1L), anyMap(), eq(4L))).thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> todoService.updateTodo(1L, updateDTO, 4L));
+        verifyNoInteractions(todoCounter);
+    }
+
+    @Test
+    @DisplayName("测试带版本号切换完成状态")
+    void testToggleTodoStatusWithVersion() {
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(statsRow(true, 2L)));
+        when(todoRepository.updateCompletedIfVersion(eq(TENANT), eq(1L), eq(true), eq(false), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+
+        TodoToggleResponse result = todoService.toggleTodoStatus(1L, 2L);
+
+        assertFalse(result.getCompleted());
+        assertEquals(3L, result.getVersion());
+        verify(todoCounter).onCompletedChanged(false);
+    }
+
+    @Test
+    @DisplayName("测试版本号不一致时切换抛出冲突")
+    void testToggleTodoStatusVersionConflict() {
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(statsRow(false, 3L)));
+
+        assertThrows(ConflictException.class, () -> todoService.toggleTodoStatus(1L, 2L));
+        verify(todoRepository, never()).updateCompletedIfVersion(any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(todoCounter);
+
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(statsRow(false, 2L)));
+        when(todoRepository.updateCompletedIfVersion(eq(TENANT), eq(1L), eq(false), eq(true), eq(2L), any(LocalDateTime.class))).thenReturn(0);
+        assertThrows(ConflictException.class, () -> todoService.toggleTodoStatus(1L, 2L));
+        verifyNoInteractions(todoCounter);
+    }
+
+    @Test
+    @DisplayName("测试解析 If-Match 请求头")
+    void testExpectedVersion() {
+        assertNull(TodoService.expectedVersion(1L, null));
+        assertNull(TodoService.expectedVersion(1L, "*"));
+        assertEquals(7L, TodoService.expectedVersion(1L, "\"1-7\""));
+        assertEquals(7L, TodoService.expectedVersion(1L, "7"));
+        assertThrows(ConflictException.class, () -> TodoService.expectedVersion(1L, "\"2-7\""));
+        assertEquals(7L, TodoService.expectedVersion(1L, "W/\"1-7\""));
+        assertThrows(BadRequestException.class, () -> TodoService.expectedVersion(1L, "\"1-x\""));
     }
 
     @Test
     @DisplayName("测试切换待办事项完成状态")
     void testToggleTodoStatus() {
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> {
-            Todo saved = invocation.getArgument(0);
-            saved.setUpdatedAt(LocalDateTime.now());
-            return saved;
-        });
+        TodoStatsRow before = statsRow(false, 2L);
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(before));
+        when(todoRepository.updateCompletedIfVersion(eq(TENANT), eq(1L), eq(false), eq(true), eq(2L), any(LocalDateTime.class))).thenReturn(1);
 
         TodoToggleResponse result = todoService.toggleTodoStatus(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertTrue(result.getCompleted());
-        verify(todoRepository, times(1)).findById(1L);
-        verify(todoRepository, times(1)).save(any(Todo.class));
+        assertNotNull(result.getUpdatedAt());
+        assertNull(result.getVersion());
+        verify(todoStats).onCompletedChanged(before, true, result.getUpdatedAt());
+        verify(todoRepository, never()).findByTenantIdAndId(any(), any());
+        verify(todoRepository, never()).save(any(Todo.class));
+        verify(todoCounter, times(1)).onCompletedChanged(true);
+        verify(todoEventBroadcaster, times(1)).publishOnCommit(TodoEventType.TOGGLED, result);
+        verify(todoTableVersion, times(1)).bump();
+    }
+
+    @Test
+    @DisplayName("测试切换已完成的待办事项为未完成")
+    void testToggleTodoStatusToActive() {
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(statsRow(true, 2L)));
+        when(todoRepository.updateCompletedIfVersion(eq(TENANT), eq(1L), eq(true), eq(false), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+
+        TodoToggleResponse result = todoService.toggleTodoStatus(1L);
+
+        assertFalse(result.getCompleted());
+        verify(todoCounter, times(1)).onCompletedChanged(false);
+    }
+
+    @Test
+    @DisplayName("测试读取后被并发切换时重新读取再切换")
+    void testToggleTodoStatusRetriesAfterConcurrentChange() {
+        when(todoRepository.findStatsRowById(TENANT, 1L))
+                .thenReturn(Optional.of(statsRow(false, 2L)), Optional.of(statsRow(true, 3L)));
+        when(todoRepository.updateCompletedIfVersion(eq(TENANT), eq(1L), eq(false), eq(true), eq(2L), any(LocalDateTime.class))).thenReturn(0);
+        when(todoRepository.updateCompletedIfVersion(eq(TENANT), eq(1L), eq(true), eq(false), eq(3L), any(LocalDateTime.class))).thenReturn(1);
+
+        TodoToggleResponse result = todoService.toggleTodoStatus(1L);
+
+        assertFalse(result.getCompleted());
+        verify(todoCounter, times(1)).onCompletedChanged(false);
+    }
+
+    @Test
+    @DisplayName("测试开启写回时切换只修改内存状态，不写数据库和发件箱")
+    void testToggleTodoStatusWriteBehind() {
+        when(todoToggleBuffer.isEnabled()).thenReturn(true);
+        when(todoToggleBuffer.toggle(eq(1L), any(LocalDateTime.class))).thenReturn(statsRow(false, 2L));
+
+        TodoToggleResponse result = todoService.toggleTodoStatus(1L);
+
+        assertTrue(result.getCompleted());
+        verify(todoRepository, never()).findStatsRowById(any(), any());
+        verify(todoRepository, never()).updateCompletedIfVersion(any(), any(), any(), any(), any(), any());
+        verify(todoCounter).onCompletedChanged(true);
+        verify(todoEventBroadcaster).publishOnCommit(TodoEventType.TOGGLED, result);
+        verifyNoInteractions(todoOutbox);
+        verifyNoInteractions(todoTableVersion);
+
+        when(todoToggleBuffer.toggle(eq(999L), any(LocalDateTime.class))).thenReturn(null);
+        assertThrows(ResourceNotFoundException.class, () -> todoService.toggleTodoStatus(999L));
+    }
+
+    @Test
+    @DisplayName("测试切换不存在的待办事项抛出异常")
+    void testToggleTodoStatusNotFound() {
+        when(todoRepository.findStatsRowById(TENANT, 999L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.toggleTodoStatus(999L));
+        verifyNoInteractions(todoCounter);
     }
 
     @Test
     @DisplayName("测试删除待办事项")
     void testDeleteTodo() {
-        when(todoRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(todoRepository).deleteById(1L);
+        when(todoRepository.findByTenantIdAndId(TENANT, 1L)).thenReturn(Optional.of(testTodo));
+        doNothing().when(todoRepository).delete(testTodo);
 
         todoService.deleteTodo(1L);
 
-        verify(todoRepository, times(1)).existsById(1L);
-        verify(todoRepository, times(1)).deleteById(1L);
+        verify(todoRepository, times(1)).findByTenantIdAndId(TENANT, 1L);
+        verify(todoRepository, times(1)).delete(testTodo);
+        verify(todoCounter, times(1)).onDeleted(false);
+        verify(todoCache, times(1)).evictOnCommit(1L);
+        verify(todoStats, times(1)).onDeleted(testTodo);
+        verify(todoOutbox, times(1)).append(TodoEventType.DELETED, 1L, Map.of("id", 1L));
+        verify(todoEventBroadcaster, times(1)).publishOnCommit(eq(TodoEventType.DELETED), any());
+    }
+
+    @Test
+    @DisplayName("测试搜索结果按索引顺序返回并跳过数据库中已不存在的ID")
+    void testSearchTodos() {
+        Todo second = new Todo();
+        second.setId(2L);
+        second.setTitle("买牛奶");
+        second.setCompleted(false);
+        second.setPriority(0);
+        when(todoSearchIndex.search("牛奶", null, 10))
+                .thenReturn(new TodoSearchIndex.Hits(Arrays.asList(2L, 3L, 1L), 3));
+        when(todoRepository.findByTenantIdAndIdIn(TENANT, Arrays.asList(2L, 3L, 1L))).thenReturn(Arrays.asList(testTodo, second));
+
+        SearchPage<TodoResponse> page = todoService.searchTodos("牛奶", null, 10);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getItems().get(0).getId());
+        assertEquals(1L, page.getItems().get(1).getId());
+        assertEquals(2L, page.getTotal());
+        verify(todoSearchIndex).remove(3L);
+    }
+
+    @Test
+    @DisplayName("测试索引中完成状态过期的命中被丢弃、更正索引并从总数中扣除")
+    void testSearchTodosDropsStaleCompleted() {
+        Todo second = new Todo();
+        second.setId(2L);
+        second.setTitle("买牛奶");
+        second.setCompleted(true);
+        second.setPriority(0);
+        when(todoSearchIndex.search("牛奶", false, 2))
+                .thenReturn(new TodoSearchIndex.Hits(Arrays.asList(2L, 1L), 5));
+        when(todoRepository.findByTenantIdAndIdIn(TENANT, Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(testTodo, second));
+
+        SearchPage<TodoResponse> page = todoService.searchTodos("牛奶", false, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(1L, page.getItems().get(0).getId());
+        assertEquals(4L, page.getTotal());
+        verify(todoSearchIndex).updateCompleted(2L, true);
+    }
+
+    @Test
+    @DisplayName("测试搜索关键词为空时抛出异常")
+    void testSearchTodosBlankQuery() {
+        assertThrows(BadRequestException.class, () -> todoService.searchTodos(" ", null, 10));
+        verifyNoInteractions(todoSearchIndex);
     }
 
     @Test
     @DisplayName("测试删除不存在的待办事项抛出异常")
     void testDeleteTodoNotFound() {
-        when(todoRepository.existsById(999L)).thenReturn(false);
+        when(todoRepository.findByTenantIdAndId(TENANT, 999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             todoService.deleteTodo(999L);
         });
-        verify(todoRepository, times(1)).existsById(999L);
-        verify(todoRepository, never()).deleteById(any());
+        verify(todoRepository, times(1)).findByTenantIdAndId(TENANT, 999L);
+        verify(todoRepository, never()).delete(any(Todo.class));
+        verifyNoInteractions(todoCounter);
+        verifyNoInteractions(todoEventBroadcaster);
+        verifyNoInteractions(todoTableVersion);
     }
 
     @Test
     @DisplayName("测试删除所有已完成的待办事项")
     void testDeleteCompletedTodos() {
-        when(todoRepository.deleteAllCompleted()).thenReturn(5);
+        when(todoPurgeEngine.purge(PurgeScope.COMPLETED)).thenReturn(5L);
 
         int result = todoService.deleteCompletedTodos();
 
         assertEquals(5, result);
-        verify(todoRepository, times(1)).deleteAllCompleted();
+        verify(todoPurgeEngine, times(1)).purge(PurgeScope.COMPLETED);
     }
 
     @Test
     @DisplayName("测试删除所有待办事项")
     void testDeleteAllTodos() {
-        when(todoRepository.count()).thenReturn(10L);
-        doNothing().when(todoRepository).deleteAll();
+        when(todoPurgeEngine.purge(PurgeScope.ALL)).thenReturn(10L);
 
         int result = todoService.deleteAllTodos();
 
         assertEquals(10, result);
-        verify(todoRepository, times(1)).count();
-        verify(todoRepository, times(1)).deleteAll();
+        verify(todoPurgeEngine, times(1)).purge(PurgeScope.ALL);
+        verify(todoRepository, never()).deleteAll();
+    }
+
+    @Test
+    @DisplayName("测试查询不存在的清理任务抛出异常")
+    void testGetPurgeJobNotFound() {
+        when(todoPurgeEngine.getJob("missing")).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.getPurgeJob("missing"));
     }
 
     @Test
     @DisplayName("测试获取总数")
     void testGetTotalCount() {
-        when(todoRepository.count()).thenReturn(10L);
+        when(todoRepository.countByTenantId(TENANT)).thenReturn(10L);
 
         long result = todoService.getTotalCount(null);
 
         assertEquals(10L, result);
-        verify(todoRepository, times(1)).count();
+        verify(todoRepository, times(1)).countByTenantId(TENANT);
     }
 
     @Test
     @DisplayName("测试根据完成状态获取总数")
     void testGetTotalCountByCompleted() {
-        when(todoRepository.countByCompleted(false)).thenReturn(7L);
+        when(todoRepository.countByTenantIdAndCompleted(TENANT, false)).thenReturn(7L);
 
         long result = todoService.getTotalCount(false);
 
         assertEquals(7L, result);
-        verify(todoRepository, times(1)).countByCompleted(false);
+        verify(todoRepository, times(1)).countByTenantIdAndCompleted(TENANT, false);
+    }
+
+    @Test
+    @DisplayName("测试获取近似总数不查询数据库")
+    void testGetApproximateCount() {
+        when(todoCounter.get(true)).thenReturn(3L);
+
+        long result = todoService.getApproximateCount(true);
+
+        assertEquals(3L, result);
+        verifyNoInteractions(todoRepository);
+    }
+
+    private static TodoRows rowsOf(Todo... todos) {
+        TodoRows rows = new TodoRows(todos.length);
+        for (Todo todo : todos) {
+            rows.add(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(), todo.getPriority(),
+                    todo.getDueDate(), todo.getCreatedAt(), todo.getUpdatedAt(), 0L);
+        }
+        return rows;
+    }
+
+    private static TodoStatsRow statsRow(boolean completed, long version) {
+        return new TodoStatsRow(1L, completed, 1, null, LocalDateTime.now(), completed ? LocalDateTime.now() : null,
+                version);
     }
 }
@@ -0,0 +1,227 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TodoStatsResponse;
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatsRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoStats 单元测试")
+class TodoStatsTest {
+
+    private static final String TENANT = "default";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    private final List<TodoStatsRow> rows = new ArrayList<>(Arrays.asList(
+            new TodoStatsRow(1L, false, 2, NOW.minusHours(1), NOW.minusDays(2), null),
+            new TodoStatsRow(2L, false, 0, NOW.plusHours(1), NOW.minusDays(1), null),
+            new TodoStatsRow(3L, true, 2, NOW.minusDays(1), NOW.minusDays(1), NOW)
+    ));
+
+    /**
+     * 为 true 时后台加载排队，由测试调用 runLoads 执行
+     */
+    private boolean deferLoads;
+
+    private final List<Runnable> queuedLoads = new ArrayList<>();
+
+    private TodoStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new TodoStats(todoRepository, transactionManager, 3, clock, runnable -> {
+            if (deferLoads) {
+                queuedLoads.add(runnable);
+            } else {
+                runnable.run();
+            }
+        });
+        when(todoRepository.streamStatsRows(TENANT)).thenAnswer(invocation -> new ArrayList<>(rows).stream());
+    }
+
+    @Test
+    @DisplayName("测试首次读取时加载并按完成状态、优先级、逾期和日期汇总")
+    void testSnapshot() {
+        TodoStatsResponse response = stats.snapshot();
+
+        assertEquals(3, response.getTotal());
+        assertEquals(2, response.getActive());
+        assertEquals(1, response.getCompleted());
+        assertEquals(1, response.getOverdue());
+        assertEquals(1.0 / 3, response.getCompletionRate(), 1e-9);
+        assertEquals(1, response.getByPriority().get("high").getActive());
+        assertEquals(1, response.getByPriority().get("high").getCompleted());
+        assertEquals(1, response.getByPriority().get("low").getActive());
+        assertEquals(0, response.getByPriority().get("medium").getActive());
+
+        List<TodoStatsResponse.DailyStats> history = response.getHistory();
+        assertEquals(3, history.size());
+        assertEquals(LocalDate.of(2026, 3, 8), history.get(0).getDate());
+        assertEquals(1, history.get(0).getCreated());
+        assertEquals(2, history.get(1).getCreated());
+        assertEquals(1, history.get(2).getCompleted());
+    }
+
+    @Test
+    @DisplayName("测试截止时间到达后计入逾期，完成后移出逾期")
+    void testOverdueAdvancesWithTime() {
+        assertEquals(1, stats.snapshot().getOverdue());
+
+        clock.set(NOW.plusHours(2));
+        assertEquals(2, stats.snapshot().getOverdue());
+
+        stats.onCompletedChanged(rows.get(0), true, NOW.plusHours(2));
+        TodoStatsResponse response = stats.snapshot();
+        assertEquals(1, response.getOverdue());
+        assertEquals(2, response.getByPriority().get("high").getCompleted());
+        assertEquals(2, response.getHistory().get(2).getCompleted());
+        verify(todoRepository, times(1)).streamStatsRows(TENANT);
+    }
+
+    @Test
+    @DisplayName("测试新建、更新和删除以写入提供的旧状态减去、新状态加上")
+    void testCreatedUpdatedAndDeleted() {
+        stats.snapshot();
+
+        stats.onCreated(todo(4L, false, 1, NOW.minusMinutes(1), NOW, null));
+        stats.onUpdated(rows.get(1), todo(2L, false, 1, null, NOW.minusDays(1), null));
+        stats.onDeleted(todo(3L, true, 2, NOW.minusDays(1), NOW.minusDays(1), NOW));
+
+        TodoStatsResponse response = stats.snapshot();
+        assertEquals(3, response.getTotal());
+        assertEquals(2, response.getByPriority().get("medium").getActive());
+        assertEquals(0, response.getByPriority().get("low").getActive());
+        assertEquals(0, response.getCompleted());
+        assertEquals(2, response.getOverdue());
+        assertEquals(1, response.getHistory().get(1).getCreated());
+        assertEquals(1, response.getHistory().get(2).getCreated());
+        assertEquals(0, response.getHistory().get(2).getCompleted());
+        verify(todoRepository, times(1)).streamStatsRows(TENANT);
+    }
+
+    @Test
+    @DisplayName("测试失效后在后台重新加载，加载完成前返回原有的计数")
+    void testInvalidateReloadsInBackground() {
+        stats.snapshot();
+        deferLoads = true;
+        rows.add(new TodoStatsRow(4L, false, 1, null, NOW, null));
+
+        stats.invalidate();
+        assertEquals(3, stats.snapshot().getTotal());
+        assertEquals(3, stats.snapshot().getTotal());
+        assertEquals(1, queuedLoads.size());
+
+        runLoads();
+        assertEquals(4, stats.snapshot().getTotal());
+        assertTrue(queuedLoads.isEmpty());
+        verify(todoRepository, times(2)).streamStatsRows(TENANT);
+    }
+
+    @Test
+    @DisplayName("测试加载期间提交的写入补到新加载的计数上")
+    void testWritesDuringLoadAreReplayed() {
+        stats.snapshot();
+        deferLoads = true;
+        stats.invalidate();
+
+        stats.onCreated(todo(4L, false, 1, null, NOW, null));
+        assertEquals(4, stats.snapshot().getTotal());
+
+        runLoads();
+        TodoStatsResponse response = stats.snapshot();
+        assertEquals(4, response.getTotal());
+        assertEquals(1, response.getByPriority().get("medium").getActive());
+    }
+
+    @Test
+    @DisplayName("测试对账一致时不重新加载，不一致时在后台重新加载")
+    void testReconcile() {
+        stats.snapshot();
+        when(todoRepository.countOverdue(TENANT, NOW)).thenReturn(1L);
+        when(todoRepository.countGroupByCompletedAndPriority(TENANT)).thenReturn(Arrays.asList(
+                new Object[]{false, 2, 1L}, new Object[]{false, 0, 1L}, new Object[]{true, 2, 1L}));
+
+        stats.reconcileAll();
+        verify(todoRepository, times(1)).streamStatsRows(TENANT);
+
+        when(todoRepository.countGroupByCompletedAndPriority(TENANT)).thenReturn(Arrays.asList(
+                new Object[]{false, 2, 1L}, new Object[]{true, 2, 1L}));
+        stats.reconcileAll();
+        verify(todoRepository, times(2)).streamStatsRows(TENANT);
+    }
+
+    private void runLoads() {
+        List<Runnable> loads = new ArrayList<>(queuedLoads);
+        queuedLoads.clear();
+        loads.forEach(Runnable::run);
+    }
+
+    private static Todo todo(Long id, boolean completed, int priority, LocalDateTime dueDate,
+                             LocalDateTime createdAt, LocalDateTime completedAt) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setCompleted(completed);
+        todo.setPriority(priority);
+        todo.setDueDate(dueDate);
+        todo.setCreatedAt(createdAt);
+        todo.setCompletedAt(completedAt);
+        return todo;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(LocalDateTime now) {
+            set(now);
+        }
+
+        private void set(LocalDateTime now) {
+            this.instant = now.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
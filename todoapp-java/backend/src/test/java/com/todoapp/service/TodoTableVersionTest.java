@@ -0,0 +1,82 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.TodoListVersion;
+import com.todoapp.repository.TodoListVersionRepository;
+import com.todoapp.tenant.ShardRouter;
+import com.todoapp.tenant.TenancyProperties;
+import com.todoapp.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoTableVersion 单元测试")
+class TodoTableVersionTest {
+
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+
+    @Mock
+    private TodoListVersionRepository todoListVersionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoTableVersion version;
+
+    @BeforeEach
+    void setUp() {
+        version = new TodoTableVersion(todoListVersionRepository, new ShardRouter(new TenancyProperties()),
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("测试首次递增时在独立事务中创建版本行，之后只递增")
+    void testBumpCreatesRowOnce() {
+        when(todoListVersionRepository.existsById(TENANT)).thenReturn(false);
+
+        version.bump();
+        version.bump();
+
+        verify(todoListVersionRepository, times(1)).existsById(TENANT);
+        verify(todoListVersionRepository, times(1)).saveAndFlush(any(TodoListVersion.class));
+        verify(transactionManager, times(1)).commit(any());
+        verify(todoListVersionRepository, times(2)).increment(TENANT);
+    }
+
+    @Test
+    @DisplayName("测试版本行已存在或被并发创建时直接递增")
+    void testBumpExistingRow() {
+        when(todoListVersionRepository.existsById(TENANT)).thenReturn(true);
+        version.bump();
+        verify(todoListVersionRepository, never()).saveAndFlush(any());
+
+        TodoTableVersion concurrent = new TodoTableVersion(todoListVersionRepository,
+                new ShardRouter(new TenancyProperties()), transactionManager);
+        when(todoListVersionRepository.existsById(TENANT)).thenReturn(false);
+        when(todoListVersionRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        concurrent.bump();
+
+        verify(todoListVersionRepository, times(2)).increment(TENANT);
+    }
+
+    @Test
+    @DisplayName("测试实体标签由租户和数据库中的版本号得出")
+    void testEtag() {
+        when(todoListVersionRepository.findVersion(TENANT)).thenReturn(Optional.of(255L));
+        when(todoListVersionRepository.findVersion("acme")).thenReturn(Optional.empty());
+
+        assertEquals(TENANT + "-ff", version.etag());
+        TenantContext.run("acme", () -> assertEquals("acme-0", version.etag()));
+    }
+}
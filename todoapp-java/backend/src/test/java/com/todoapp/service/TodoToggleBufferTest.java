@@ -0,0 +1,237 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.repository.TodoCompletedState;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatsRow;
+import com.todoapp.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoToggleBuffer 单元测试")
+class TodoToggleBufferTest {
+
+    private static final String TENANT = "default";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoBatchRepository todoBatchRepository;
+
+    @Mock
+    private TodoCache todoCache;
+
+    @Mock
+    private TodoTableVersion todoTableVersion;
+
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    @DisplayName("测试多次切换只查询一次数据库，合并为最终状态后批量写入")
+    void testCoalescesToggles() {
+        TodoToggleBuffer buffer = buffer(TodoToggleBuffer.Durability.MEMORY);
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(row(1L, false)));
+        when(todoRepository.findStatsRowById(TENANT, 2L)).thenReturn(Optional.of(row(2L, true)));
+        writeSucceeds();
+
+        assertEquals(true, toggle(buffer, 1L, NOW));
+        assertEquals(false, toggle(buffer, 1L, NOW));
+        assertEquals(true, toggle(buffer, 1L, NOW.plusSeconds(1)));
+        assertEquals(false, toggle(buffer, 2L, NOW));
+        assertEquals(2, buffer.getPendingCount());
+
+        buffer.flushAll();
+
+        verify(todoRepository, times(1)).findStatsRowById(TENANT, 1L);
+        List<TodoCompletedState> written = captureWritten().get(0);
+        assertEquals(2, written.size());
+        TodoCompletedState first = written.stream().filter(state -> state.getId() == 1L).findFirst().orElseThrow();
+        assertTrue(first.isCompleted());
+        assertEquals(NOW.plusSeconds(1), first.getUpdatedAt());
+        verify(todoOutbox, times(2)).append(eq(TodoEventType.TOGGLED), any(), any());
+        verify(todoTableVersion).bump();
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(4, buffer.getToggleCount());
+        assertEquals(2, buffer.getWrittenCount());
+    }
+
+    @Test
+    @DisplayName("测试待办事项不存在时返回 null，不记录状态")
+    void testToggleMissing() {
+        TodoToggleBuffer buffer = buffer(TodoToggleBuffer.Durability.MEMORY);
+        when(todoRepository.findStatsRowById(TENANT, 9L)).thenReturn(Optional.empty());
+
+        assertNull(buffer.toggle(9L, NOW));
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("测试写入失败时保留状态，下次重试；只写入当前租户的条目")
+    void testRetriesAfterFailure() {
+        TodoToggleBuffer buffer = buffer(TodoToggleBuffer.Durability.MEMORY);
+        when(todoRepository.findStatsRowById(anyString(), eq(1L))).thenReturn(Optional.of(row(1L, false)));
+        buffer.toggle(1L, NOW);
+        TenantContext.run("acme", () -> buffer.toggle(1L, NOW));
+        when(todoBatchRepository.updateCompletedAll(anyString(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        buffer.flushAll();
+        assertEquals(2, buffer.getPendingCount());
+
+        reset(todoBatchRepository);
+        writeSucceeds();
+        TenantContext.run("acme", buffer::flushTenant);
+
+        verify(todoBatchRepository).updateCompletedAll(eq("acme"), any());
+        verify(todoBatchRepository, never()).updateCompletedAll(eq(TENANT), any());
+        assertEquals(1, buffer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("测试定时写入期间单条写入等待其完成，较早的快照不会覆盖之后的切换")
+    void testFlushWaitsForFlushAll() throws Exception {
+        TodoToggleBuffer buffer = buffer(TodoToggleBuffer.Durability.MEMORY);
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(row(1L, false)));
+        buffer.toggle(1L, NOW);
+        List<Boolean> committed = new CopyOnWriteArrayList<>();
+        AtomicReference<Thread> request = new AtomicReference<>();
+        when(todoBatchRepository.updateCompletedAll(anyString(), any())).thenAnswer(invocation -> {
+            List<TodoCompletedState> states = invocation.getArgument(1);
+            if (request.get() == null) {
+                // 定时写入的事务尚未提交时，请求线程再次切换并单条写入
+                Thread thread = new Thread(() -> {
+                    buffer.toggle(1L, NOW.plusSeconds(1));
+                    buffer.flush(1L);
+                });
+                request.set(thread);
+                thread.start();
+                thread.join(200);
+                assertTrue(thread.isAlive());
+            }
+            committed.add(states.get(0).isCompleted());
+            return new int[]{1};
+        });
+
+        buffer.flushAll();
+        request.get().join(5000);
+
+        assertFalse(request.get().isAlive());
+        assertEquals(List.of(true, false), committed);
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("测试重启后从日志恢复未写入的状态，已单独写入的不恢复；全部写入后删除旧日志")
+    void testRecoversFromJournal() throws Exception {
+        TodoToggleBuffer crashed = buffer(TodoToggleBuffer.Durability.JOURNAL);
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(row(1L, false)));
+        when(todoRepository.findStatsRowById(TENANT, 2L)).thenReturn(Optional.of(row(2L, false)));
+        writeSucceeds();
+        crashed.toggle(1L, NOW);
+        crashed.toggle(1L, NOW);
+        crashed.toggle(1L, NOW);
+        crashed.toggle(2L, NOW);
+        crashed.flush(2L);
+        Files.writeString(journalDir.resolve("toggles-1.log"), "S default 3", StandardOpenOption.APPEND);
+
+        TodoToggleBuffer recovered = buffer(TodoToggleBuffer.Durability.JOURNAL);
+        assertEquals(1, recovered.getPendingCount());
+        reset(todoBatchRepository);
+        writeSucceeds();
+
+        recovered.flushAll();
+
+        List<TodoCompletedState> written = captureWritten().get(0);
+        assertEquals(1, written.size());
+        assertEquals(1L, written.get(0).getId());
+        assertTrue(written.get(0).isCompleted());
+        try (Stream<Path> files = Files.list(journalDir)) {
+            assertEquals(List.of("toggles-2.log"), files.map(file -> file.getFileName().toString()).toList());
+        }
+        assertEquals(0, buffer(TodoToggleBuffer.Durability.JOURNAL).getPendingCount());
+    }
+
+    @Test
+    @DisplayName("测试切换返回切换前的统计字段，之后的切换由内存中的字段得出")
+    void testReturnsPreviousStatsRow() {
+        TodoToggleBuffer buffer = buffer(TodoToggleBuffer.Durability.MEMORY);
+        TodoStatsRow stored = new TodoStatsRow(1L, false, 2, NOW.plusDays(1), NOW.minusDays(1), null, 5L);
+        when(todoRepository.findStatsRowById(TENANT, 1L)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, buffer.toggle(1L, NOW));
+        TodoStatsRow completed = buffer.toggle(1L, NOW.plusSeconds(1));
+        TodoStatsRow active = buffer.toggle(1L, NOW.plusSeconds(2));
+
+        assertTrue(completed.getCompleted());
+        assertEquals(NOW, completed.getCompletedAt());
+        assertEquals(2, completed.getPriority());
+        assertEquals(NOW.plusDays(1), completed.getDueDate());
+        assertFalse(active.getCompleted());
+        assertNull(active.getCompletedAt());
+        verify(todoRepository, times(1)).findStatsRowById(TENANT, 1L);
+    }
+
+    private static Boolean toggle(TodoToggleBuffer buffer, Long id, LocalDateTime now) {
+        TodoStatsRow before = buffer.toggle(id, now);
+        return before == null ? null : !before.getCompleted();
+    }
+
+    private static TodoStatsRow row(Long id, boolean completed) {
+        return new TodoStatsRow(id, completed, 1, null, NOW.minusDays(1), completed ? NOW.minusHours(1) : null, 1L);
+    }
+
+    private TodoToggleBuffer buffer(TodoToggleBuffer.Durability durability) {
+        return new TodoToggleBuffer(todoRepository, todoBatchRepository, todoCache, todoTableVersion, todoOutbox,
+                transactionManager, true, durability, journalDir.toString());
+    }
+
+    private void writeSucceeds() {
+        when(todoBatchRepository.updateCompletedAll(anyString(), any())).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<List<?>>getArgument(1).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<TodoCompletedState>> captureWritten() {
+        ArgumentCaptor<List<TodoCompletedState>> captor = ArgumentCaptor.forClass(List.class);
+        verify(todoBatchRepository, atLeastOnce()).updateCompletedAll(anyString(), captor.capture());
+        return captor.getAllValues();
+    }
+}
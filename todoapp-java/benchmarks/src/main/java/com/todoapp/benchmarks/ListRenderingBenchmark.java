@@ -0,0 +1,134 @@
+package com.todoapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.TodoAppApplication;
+import com.todoapp.dto.ApiResponse;
+import com.todoapp.dto.TodoResponse;
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.OffsetPageRequest;
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.service.TodoService;
+import com.todoapp.tenant.TenantContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表接口从查询到写出 JSON 的完整开销（内嵌 H2，使用应用的 ObjectMapper）
+ * entities 为原来的路径（JPA 实体 -> TodoResponse -> 通用序列化，在此复现作为基线），rows 为按列读取并由 TodoRows 直接写出；
+ * 配合 -prof gc 对比每次请求的分配字节数（gc.alloc.rate.norm）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListRenderingBenchmark {
+
+    private static final int ROWS = 10000;
+
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+
+    @Param({"10", "100", "1000"})
+    private int limit;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private TodoRepository todoRepository;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 命令行参数优先级高于 jar 内的 application.yml
+        context = new SpringApplicationBuilder(TodoAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                    "--spring.datasource.url=jdbc:h2:mem:list-bench;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--logging.level.com.todoapp=WARN",
+                    "--logging.level.org.hibernate=WARN"
+                );
+        todoService = context.getBean(TodoService.class);
+        todoRepository = context.getBean(TodoRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        seed(context.getBean(TodoBatchRepository.class));
+    }
+
+    private void seed(TodoBatchRepository batchRepository) {
+        LocalDateTime base = LocalDateTime.now().minusSeconds(ROWS);
+        List<Todo> todos = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Todo todo = new Todo();
+            todo.setTenantId(TENANT);
+            todo.setTitle("待办事项 " + i);
+            todo.setDescription(i % 2 == 0 ? "完成第 " + i + " 项任务的描述信息" : null);
+            todo.setCompleted(i % 3 == 0);
+            todo.setPriority(i % 3);
+            todo.setDueDate(i % 2 == 0 ? base.plusDays(i) : null);
+            todo.setCreatedAt(base.plusSeconds(i));
+            todo.setUpdatedAt(base.plusSeconds(i));
+            todos.add(todo);
+        }
+        batchRepository.insertAll(todos);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 每个线程复用的输出缓冲区，相当于响应输出流，不把结果数组的复制计入开销
+     */
+    @State(Scope.Thread)
+    public static class Output {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int entities(Output output) throws IOException {
+        output.buffer.reset();
+        List<Todo> todos = todoRepository.findByTenantId(TENANT, new OffsetPageRequest(0, limit, NEWEST_FIRST));
+        List<TodoResponse> responses = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            responses.add(toResponse(todo));
+        }
+        objectMapper.writeValue(output.buffer, ApiResponse.success(responses, (long) ROWS));
+        return output.buffer.size();
+    }
+
+    @Benchmark
+    public int rows(Output output) throws IOException {
+        output.buffer.reset();
+        objectMapper.writeValue(output.buffer,
+                ApiResponse.success(todoService.listTodos(null, limit, 0), (long) ROWS));
+        return output.buffer.size();
+    }
+
+    private static TodoResponse toResponse(Todo todo) {
+        return new TodoResponse(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+                PRIORITIES[todo.getPriority()], todo.getDueDate(), todo.getCreatedAt(), todo.getUpdatedAt(),
+                todo.getVersion());
+    }
+}
@@ -0,0 +1,128 @@
+package com.todoapp.benchmarks;
+
+import com.todoapp.TodoAppApplication;
+import com.todoapp.entity.Todo;
+import com.todoapp.repository.OffsetPageRequest;
+import com.todoapp.repository.TodoBatchRepository;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.tenant.TenantContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于内嵌 H2 的列表与计数查询
+ * 对比首页、深度 offset 分页和深度键集分页，以及 COUNT 查询
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+
+    /**
+     * 深度分页位置（约 90% 处）对应的游标
+     */
+    private LocalDateTime deepCreatedAt;
+    private Long deepId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 命令行参数优先级高于 jar 内的 application.yml
+        context = new SpringApplicationBuilder(TodoAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                    "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--logging.level.com.todoapp=WARN",
+                    "--logging.level.org.hibernate=WARN"
+                );
+        todoRepository = context.getBean(TodoRepository.class);
+        seed(context.getBean(TodoBatchRepository.class));
+
+        List<Todo> deep = todoRepository.findByTenantId(TENANT,
+                new OffsetPageRequest(rows * 9L / 10, 1, NEWEST_FIRST));
+        deepCreatedAt = deep.get(0).getCreatedAt();
+        deepId = deep.get(0).getId();
+    }
+
+    private void seed(TodoBatchRepository batchRepository) {
+        LocalDateTime base = LocalDateTime.now().minusSeconds(rows);
+        List<Todo> todos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Todo todo = new Todo();
+            todo.setTenantId(TENANT);
+            todo.setTitle("待办事项 " + i);
+            todo.setDescription("基准测试数据 " + i);
+            todo.setCompleted(i % 2 == 0);
+            todo.setPriority(i % 3);
+            todo.setCreatedAt(base.plusSeconds(i));
+            todo.setUpdatedAt(base.plusSeconds(i));
+            todos.add(todo);
+        }
+        batchRepository.insertAll(todos);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Todo> findFirstPage() {
+        return todoRepository.findByTenantId(TENANT, PageRequest.of(0, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Benchmark
+    public List<Todo> findDeepOffsetPage() {
+        return todoRepository.findByTenantId(TENANT, new OffsetPageRequest(rows * 9L / 10, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Benchmark
+    public List<Todo> findDeepKeysetPage() {
+        return todoRepository.findPageAfter(TENANT, deepCreatedAt, deepId, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Todo> findByCompletedPage() {
+        return todoRepository.findByTenantIdAndCompleted(TENANT, false, PageRequest.of(0, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Benchmark
+    public long count() {
+        return todoRepository.countByTenantId(TENANT);
+    }
+
+    @Benchmark
+    public long countByCompleted() {
+        return todoRepository.countByTenantIdAndCompleted(TENANT, true);
+    }
+}
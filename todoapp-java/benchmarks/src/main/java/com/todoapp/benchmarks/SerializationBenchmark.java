@@ -0,0 +1,83 @@
+package com.todoapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.dto.ApiResponse;
+import com.todoapp.dto.TodoResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 列表接口响应 ApiResponse&lt;List&lt;TodoResponse&gt;&gt; 的 Jackson 序列化
+ * ObjectMapper 配置与 Spring Boot 默认一致（日期输出为 ISO 字符串），format 对应 Accept 可选的三种响应格式；
+ * serializeListGzip 额外包含与 server.compression 相同的 gzip 压缩开销。各格式的字节数在初始化时打印
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<TodoResponse>> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder;
+        switch (format) {
+            case "cbor":
+                builder = Jackson2ObjectMapperBuilder.cbor();
+                break;
+            case "smile":
+                builder = Jackson2ObjectMapperBuilder.smile();
+                break;
+            default:
+                builder = Jackson2ObjectMapperBuilder.json();
+                break;
+        }
+        objectMapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        LocalDateTime now = LocalDateTime.now();
+        String[] priorities = {"low", "medium", "high"};
+        List<TodoResponse> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(new TodoResponse((long) i, "待办事项 " + i, "完成第 " + i + " 项任务的描述信息",
+                    i % 3 == 0, priorities[i % 3], i % 2 == 0 ? now.plusDays(i) : null,
+                    now.minusMinutes(i), now, (long) (i % 5)));
+        }
+        response = ApiResponse.success(todos, (long) size);
+
+        System.out.printf("%n%s, %d items: %d bytes, %d bytes gzip%n",
+                format, size, serializeList().length, serializeListGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeListGzip() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, response);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,86 @@
+package com.todoapp.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 固定并发的闭环压测
+ * 保持 --concurrency 个连接同时有请求在途，每个请求完成后立即发送下一个，用于测量不同线程模型的最大吞吐。
+ * 在途请求由异步回调驱动，客户端不为每个连接占用线程；测量窗口内完成的请求计入结果
+ * 生成器自身出错（如构造请求失败）时停止发送，run 抛出该异常而不是返回不完整的结果
+ */
+class ClosedLoopGenerator {
+
+    private final HttpClient client;
+    private final RequestFactory requests;
+    private final LoadTestOptions options;
+
+    ClosedLoopGenerator(HttpClient client, RequestFactory requests, LoadTestOptions options) {
+        this.client = client;
+        this.requests = requests;
+        this.options = options;
+    }
+
+    LoadResult run() throws InterruptedException {
+        LoadResult result = new LoadResult();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        CountDownLatch finished = new CountDownLatch(options.getConcurrency());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            sendNext(result, measureFrom, end, finished, failure);
+        }
+        finished.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Load generator failed", failure.get());
+        }
+        result.setMeasuredNanos(Math.min(System.nanoTime(), end) - measureFrom);
+        return result;
+    }
+
+    /**
+     * 为一个虚拟客户端发送下一个请求，完成回调里再发送下一个，直到测量窗口结束
+     * 回调异步执行，不在 HttpClient 的完成线程或调用栈上递归；
+     * 无论正常结束还是出现异常，该客户端都会恰好 countDown 一次
+     */
+    private void sendNext(LoadResult result, long measureFrom, long end,
+                          CountDownLatch finished, AtomicReference<Throwable> failure) {
+        boolean scheduled = false;
+        try {
+            long sentAt = System.nanoTime();
+            if (sentAt >= end || failure.get() != null) {
+                return;
+            }
+            RequestFactory.Request request = requests.next();
+            client.sendAsync(request.httpRequest, HttpResponse.BodyHandlers.ofString())
+                    .whenCompleteAsync((response, error) -> {
+                        try {
+                            long completedAt = System.nanoTime();
+                            boolean failed = error != null || response.statusCode() >= 400;
+                            if (completedAt >= measureFrom && completedAt <= end) {
+                                result.record(request.operation, TimeUnit.NANOSECONDS.toMicros(completedAt - sentAt), failed);
+                            }
+                            if (!failed) {
+                                requests.onCompleted(request.operation, response.body());
+                            }
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            sendNext(result, measureFrom, end, finished, failure);
+                        }
+                    });
+            scheduled = true;
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (!scheduled) {
+                finished.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.todoapp.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 固定速率的开环压测
+ * 每个请求都有预定的发送时间，延迟从预定时间开始计算：
+ * 服务端变慢导致发送滞后时，排队等待的时间同样计入延迟，避免协调遗漏（coordinated omission）
+ */
+class LoadGenerator {
+
+    private final HttpClient client;
+    private final RequestFactory requests;
+    private final LoadTestOptions options;
+
+    LoadGenerator(HttpClient client, RequestFactory requests, LoadTestOptions options) {
+        this.client = client;
+        this.requests = requests;
+        this.options = options;
+    }
+
+    LoadResult run() {
+        LoadResult result = new LoadResult();
+        Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long warmupRequests = (long) options.getWarmupSeconds() * options.getRate();
+        long totalRequests = warmupRequests + (long) options.getDurationSeconds() * options.getRate();
+        long start = System.nanoTime();
+
+        for (long i = 0; i < totalRequests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = i >= warmupRequests;
+            RequestFactory.Request request = requests.next();
+
+            inFlight.acquireUninterruptibly();
+            client.sendAsync(request.httpRequest, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                        inFlight.release();
+                        boolean failed = error != null || response.statusCode() >= 400;
+                        if (measured) {
+                            result.record(request.operation, latencyMicros, failed);
+                        }
+                        if (!failed) {
+                            requests.onCompleted(request.operation, response.body());
+                        }
+                    });
+        }
+
+        // 等待所有请求完成
+        inFlight.acquireUninterruptibly(options.getMaxInFlight());
+        result.setMeasuredNanos(System.nanoTime() - start - TimeUnit.SECONDS.toNanos(options.getWarmupSeconds()));
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package com.todoapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按请求类型记录的延迟直方图（单位：微秒）和错误数
+ */
+class LoadResult {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private volatile long measuredNanos;
+
+    LoadResult() {
+        for (Operation op : Operation.values()) {
+            Histogram histogram = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(10), 3);
+            histogram.setAutoResize(true);
+            histograms.put(op, histogram);
+            errors.put(op, new AtomicLong());
+        }
+    }
+
+    void record(Operation op, long latencyMicros, boolean error) {
+        histograms.get(op).recordValue(Math.max(latencyMicros, 1));
+        if (error) {
+            errors.get(op).incrementAndGet();
+        }
+    }
+
+    void setMeasuredNanos(long measuredNanos) {
+        this.measuredNanos = measuredNanos;
+    }
+
+    Histogram total() {
+        Histogram total = new Histogram(TimeUnit.SECONDS.toMicros(10), 3);
+        total.setAutoResize(true);
+        histograms.values().forEach(total::add);
+        return total;
+    }
+
+    void print(PrintStream out) {
+        double seconds = measuredNanos / 1e9;
+        out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s%n",
+                "op", "count", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Operation op : Operation.values()) {
+            Histogram h = histograms.get(op);
+            if (h.getTotalCount() > 0) {
+                printRow(out, op.key(), h, errors.get(op).get());
+            }
+        }
+        long totalErrors = errors.values().stream().mapToLong(AtomicLong::get).sum();
+        Histogram total = total();
+        printRow(out, "all", total, totalErrors);
+        if (seconds > 0) {
+            out.printf("achieved throughput: %.1f req/s%n", total.getTotalCount() / seconds);
+        }
+    }
+
+    private void printRow(PrintStream out, String name, Histogram h, long errorCount) {
+        out.printf("%-8s %10d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                name, h.getTotalCount(), errorCount,
+                h.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                h.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                h.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                h.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                h.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * 输出 HdrHistogram 百分位分布文件（.hgrm，单位毫秒），可用 HdrHistogram 在线工具绘图对比
+     */
+    void writeHistograms(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Operation op : Operation.values()) {
+            Histogram h = histograms.get(op);
+            if (h.getTotalCount() > 0) {
+                write(dir.resolve(op.key() + ".hgrm"), h);
+            }
+        }
+        write(dir.resolve("all.hgrm"), total());
+    }
+
+    private void write(Path file, Histogram h) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            h.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.todoapp.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行格式为 --name=value
+ */
+public class LoadTestOptions {
+
+    /** 目标地址，为空时在进程内启动基于 H2 的应用 */
+    private String target;
+
+    /** 每秒请求数（固定速率，开环） */
+    private int rate = 200;
+
+    /** 预热时长（秒），预热期间的延迟不计入结果 */
+    private int warmupSeconds = 5;
+
+    /** 测量时长（秒） */
+    private int durationSeconds = 30;
+
+    /** 预先创建的待办事项数量 */
+    private int seed = 1000;
+
+    /** 最大并发请求数 */
+    private int maxInFlight = 10000;
+
+    /** 闭环并发连接数，大于 0 时改为闭环压测，忽略 --rate */
+    private int concurrency;
+
+    /** 内嵌应用是否在虚拟线程上处理请求（需要 Java 21） */
+    private boolean virtualThreads;
+
+    /** 直方图输出目录 */
+    private String outputDir = "target/loadtest";
+
+    /** 请求类型权重 */
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    public LoadTestOptions() {
+        mix.put(Operation.LIST, 50);
+        mix.put(Operation.CREATE, 15);
+        mix.put(Operation.UPDATE, 15);
+        mix.put(Operation.TOGGLE, 15);
+        mix.put(Operation.DELETE, 5);
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "target":      options.target = value; break;
+                case "rate":        options.rate = Integer.parseInt(value); break;
+                case "warmup":      options.warmupSeconds = Integer.parseInt(value); break;
+                case "duration":    options.durationSeconds = Integer.parseInt(value); break;
+                case "seed":        options.seed = Integer.parseInt(value); break;
+                case "max-in-flight": options.maxInFlight = Integer.parseInt(value); break;
+                case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                case "virtual-threads": options.virtualThreads = Boolean.parseBoolean(value); break;
+                case "output":      options.outputDir = value; break;
+                case "mix":         options.parseMix(value); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (options.rate < 1) {
+            throw new IllegalArgumentException("--rate must be greater than 0");
+        }
+        if (options.concurrency < 0) {
+            throw new IllegalArgumentException("--concurrency must not be negative");
+        }
+        return options;
+    }
+
+    /**
+     * 解析形如 list:50,create:20,toggle:30 的权重配置，未列出的类型权重为 0
+     */
+    private void parseMix(String value) {
+        mix.clear();
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            mix.put(Operation.parse(kv[0]), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix must contain a positive weight");
+        }
+    }
+
+    public String getTarget() { return target; }
+
+    public int getRate() { return rate; }
+
+    public int getWarmupSeconds() { return warmupSeconds; }
+
+    public int getDurationSeconds() { return durationSeconds; }
+
+    public int getSeed() { return seed; }
+
+    public int getMaxInFlight() { return maxInFlight; }
+
+    public int getConcurrency() { return concurrency; }
+
+    public boolean isClosedLoop() { return concurrency > 0; }
+
+    public boolean isVirtualThreads() { return virtualThreads; }
+
+    public String getOutputDir() { return outputDir; }
+
+    public Map<Operation, Integer> getMix() { return mix; }
+}
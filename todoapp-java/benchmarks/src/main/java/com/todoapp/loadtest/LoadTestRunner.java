@@ -0,0 +1,129 @@
+package com.todoapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.TodoAppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 端到端 HTTP 压测入口
+ * 未指定 --target 时在进程内启动基于 H2 的应用，按 --rate 固定速率回放混合请求，输出 p50/p99/p99.9 延迟；
+ * 指定 --concurrency 时改为固定并发的闭环压测
+ *
+ * 用法：java -cp benchmarks.jar com.todoapp.loadtest.LoadTestRunner --rate=500 --duration=60
+ *       --mix=list:50,create:15,update:15,toggle:15,delete:5
+ *       java -cp benchmarks.jar com.todoapp.loadtest.LoadTestRunner --concurrency=5000 --virtual-threads=true
+ */
+public final class LoadTestRunner {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.getTarget();
+        if (baseUrl == null) {
+            context = startApplication(options.isVirtualThreads());
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            TodoIdPool idPool = new TodoIdPool();
+            seed(client, baseUrl, options.getSeed(), idPool, objectMapper);
+
+            System.out.printf("target=%s %s warmup=%ds duration=%ds mix=%s seeded=%d virtual-threads=%s%n",
+                    baseUrl,
+                    options.isClosedLoop() ? "concurrency=" + options.getConcurrency() : "rate=" + options.getRate() + "/s",
+                    options.getWarmupSeconds(), options.getDurationSeconds(), options.getMix(), idPool.size(),
+                    options.getTarget() == null ? options.isVirtualThreads() : "n/a");
+
+            RequestFactory requests = new RequestFactory(baseUrl, options.getMix(), idPool, objectMapper);
+            LoadResult result;
+            try (ResourceSampler sampler = new ResourceSampler().start()) {
+                result = options.isClosedLoop()
+                        ? new ClosedLoopGenerator(client, requests, options).run()
+                        : new LoadGenerator(client, requests, options).run();
+                result.print(System.out);
+                sampler.print(System.out);
+            }
+            Path output = Path.of(options.getOutputDir());
+            result.writeHistograms(output);
+            System.out.println("histograms written to " + output.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(boolean virtualThreads) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodoAppApplication.class)
+                .logStartupInfo(false);
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        // 命令行参数优先级高于 jar 内的 application.yml
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.com.todoapp=WARN",
+                "--logging.level.org.hibernate=WARN"
+        );
+    }
+
+    /**
+     * 通过批量创建接口预置数据，供更新、切换、删除请求使用
+     */
+    private static void seed(HttpClient client, String baseUrl, int count, TodoIdPool idPool,
+                             ObjectMapper objectMapper) throws IOException, InterruptedException {
+        for (int from = 0; from < count; from += SEED_BATCH_SIZE) {
+            int size = Math.min(SEED_BATCH_SIZE, count - from);
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append("{\"title\":\"预置待办 ").append(from + i).append("\",\"priority\":\"low\"}");
+            }
+            body.append(']');
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/todos/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode item : objectMapper.readTree(response.body()).path("data").path("results")) {
+                if (item.path("id").isNumber()) {
+                    idPool.add(item.path("id").asLong());
+                }
+            }
+        }
+    }
+}
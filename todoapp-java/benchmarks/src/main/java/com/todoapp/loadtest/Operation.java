@@ -0,0 +1,26 @@
+package com.todoapp.loadtest;
+
+/**
+ * 压测请求类型，对应 TodoController 的接口
+ */
+public enum Operation {
+
+    LIST,
+    CREATE,
+    UPDATE,
+    TOGGLE,
+    DELETE;
+
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    public static Operation parse(String value) {
+        for (Operation op : values()) {
+            if (op.key().equals(value.trim().toLowerCase())) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + value);
+    }
+}
@@ -0,0 +1,111 @@
+package com.todoapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按权重选择请求类型并构造对应的 HTTP 请求
+ */
+class RequestFactory {
+
+    private static final String JSON = "application/json";
+
+    private final String todosUrl;
+    private final TodoIdPool idPool;
+    private final ObjectMapper objectMapper;
+    private final Operation[] schedule;
+
+    RequestFactory(String baseUrl, Map<Operation, Integer> mix, TodoIdPool idPool, ObjectMapper objectMapper) {
+        this.todosUrl = baseUrl + "/api/v1/todos";
+        this.idPool = idPool;
+        this.objectMapper = objectMapper;
+        this.schedule = buildSchedule(mix);
+    }
+
+    /**
+     * 按权重展开为查找表，随机下标即可按比例选取请求类型
+     */
+    private static Operation[] buildSchedule(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(op);
+            }
+        });
+        return slots.toArray(new Operation[0]);
+    }
+
+    /**
+     * 选取下一个请求；ID池为空时需要ID的请求改为创建
+     */
+    Request next() {
+        Operation op = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+        Long id = op == Operation.DELETE ? idPool.take() : idPool.pick();
+        if (id == null && op != Operation.LIST && op != Operation.CREATE) {
+            op = Operation.CREATE;
+        }
+        return new Request(op, build(op, id));
+    }
+
+    private HttpRequest build(Operation op, Long id) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        switch (op) {
+            case CREATE:
+                return builder.uri(URI.create(todosUrl))
+                        .header("Content-Type", JSON)
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"title\":\"压测待办 " + n + "\",\"description\":\"load test\",\"priority\":\"medium\"}"))
+                        .build();
+            case UPDATE:
+                return builder.uri(URI.create(todosUrl + "/" + id))
+                        .header("Content-Type", JSON)
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"title\":\"已更新 " + n + "\"}"))
+                        .build();
+            case TOGGLE:
+                return builder.uri(URI.create(todosUrl + "/" + id + "/toggle"))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build();
+            case DELETE:
+                return builder.uri(URI.create(todosUrl + "/" + id)).DELETE().build();
+            case LIST:
+            default:
+                return builder.uri(URI.create(todosUrl + "?limit=20")).GET().build();
+        }
+    }
+
+    /**
+     * 创建成功后把新ID加入ID池
+     */
+    void onCompleted(Operation op, String body) {
+        if (op != Operation.CREATE) {
+            return;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(body).path("data").path("id");
+            if (id.isNumber()) {
+                idPool.add(id.asLong());
+            }
+        } catch (Exception ignored) {
+            // 响应无法解析时不加入ID池
+        }
+    }
+
+    static final class Request {
+        final Operation operation;
+        final HttpRequest httpRequest;
+
+        Request(Operation operation, HttpRequest httpRequest) {
+            this.operation = operation;
+            this.httpRequest = httpRequest;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.todoapp.loadtest;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测期间定时采样堆内存和平台线程数，记录峰值
+ * 内嵌模式下应用与压测客户端在同一进程，采样结果包含客户端自身的开销
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLong peakHeapUsed = new AtomicLong();
+    private final AtomicLong peakThreads = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ResourceSampler start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private void sample() {
+        peakHeapUsed.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+    }
+
+    void print(PrintStream out) {
+        out.printf("peak heap used: %d MB, peak platform threads: %d%n",
+                peakHeapUsed.get() / BYTES_PER_MB, peakThreads.get());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package com.todoapp.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测过程中存活的待办事项ID，用于更新、切换和删除请求
+ */
+class TodoIdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    synchronized void add(long id) {
+        ids.add(id);
+    }
+
+    /**
+     * 随机取一个ID，池为空时返回 null
+     */
+    synchronized Long pick() {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * 随机移除一个ID（交换到末尾后删除，O(1)）
+     */
+    synchronized Long take() {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(ids.size());
+        int last = ids.size() - 1;
+        Long id = ids.get(index);
+        ids.set(index, ids.get(last));
+        ids.remove(last);
+        return id;
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TodoResponse;
+import com.todoapp.entity.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TodoService 中实体到响应的转换与优先级映射
+ * 与 TodoService 同包，直接调用包内可见的静态方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TodoServiceBenchmark {
+
+    private static final String[] PRIORITY_NAMES = {"low", "medium", "high", "HIGH", null, "unknown"};
+    private static final Integer[] PRIORITY_VALUES = {0, 1, 2, null, 5};
+
+    private Todo todo;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        todo = new Todo(42L, "学习Spring Boot", "完成Spring Boot项目实战", false, 2,
+                now.plusDays(7), now.minusDays(1), now);
+    }
+
+    @Benchmark
+    public TodoResponse convertToResponse() {
+        return TodoService.convertToResponse(todo);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void priorityStringToInt(Blackhole bh) {
+        for (String name : PRIORITY_NAMES) {
+            bh.consume(TodoService.priorityStringToInt(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void priorityIntToString(Blackhole bh) {
+        for (Integer value : PRIORITY_VALUES) {
+            bh.consume(TodoService.priorityIntToString(value));
+        }
+    }
+}
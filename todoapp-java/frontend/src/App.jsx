@@ -10,6 +10,7 @@ import {
   deleteTodo,
   deleteCompletedTodos,
   deleteAllTodos,
+  subscribeTodoChanges,
 } from './api/todoApi';
 import './App.css';
 
@@ -44,6 +45,26 @@ function App() {
     loadTodos();
   }, []);
 
+  // 订阅其他客户端的变更，逐条合并到列表；批量变更时重新加载
+  useEffect(() => {
+    const upsert = (todo) =>
+      setAllTodos((todos) =>
+        todos.some((t) => t.id === todo.id)
+          ? todos.map((t) => (t.id === todo.id ? todo : t))
+          : [...todos, todo]
+      );
+    return subscribeTodoChanges({
+      created: upsert,
+      updated: upsert,
+      toggled: ({ id, completed, updated_at }) =>
+        setAllTodos((todos) =>
+          todos.map((t) => (t.id === id ? { ...t, completed, updated_at } : t))
+        ),
+      deleted: ({ id }) => setAllTodos((todos) => todos.filter((t) => t.id !== id)),
+      reset: () => loadTodos(),
+    });
+  }, []);
+
   // 优先级权重（高 > 中 > 低）
   const priorityWeight = { high: 3, medium: 2, low: 1 };
 
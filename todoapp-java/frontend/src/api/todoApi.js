@@ -6,11 +6,15 @@ import axios from 'axios';
 // API 基础 URL
 const API_BASE_URL = 'http://localhost:8000/api/v1';
 
+// 租户ID（可选，构建时由 VITE_TENANT_ID 指定）；经网关访问时由网关设置请求头，这里留空
+const TENANT_ID = import.meta.env.VITE_TENANT_ID;
+
 // 创建 axios 实例
 const api = axios.create({
   baseURL: API_BASE_URL,
   headers: {
     'Content-Type': 'application/json',
+    ...(TENANT_ID ? { 'X-Tenant-ID': TENANT_ID } : {}),
   },
 });
 
@@ -75,4 +79,23 @@ export const deleteAllTodos = async () => {
   return response.data;
 };
 
+/**
+ * 订阅待办事项变更事件（SSE），断线后浏览器会带 Last-Event-ID 自动重连续传
+ * EventSource 不能设置请求头，租户ID改用 tenant_id 查询参数传递
+ * @param {object} handlers - 各事件的回调 { created, updated, toggled, deleted, reset }
+ * @returns {Function} 取消订阅
+ */
+export const subscribeTodoChanges = (handlers) => {
+  const query = TENANT_ID ? `?tenant_id=${encodeURIComponent(TENANT_ID)}` : '';
+  const source = new EventSource(`${API_BASE_URL}/todos/stream${query}`);
+  ['created', 'updated', 'toggled', 'deleted', 'reset'].forEach((type) => {
+    source.addEventListener(type, (event) => {
+      if (handlers[type]) {
+        handlers[type](JSON.parse(event.data));
+      }
+    });
+  });
+  return () => source.close();
+};
+
 export default api;